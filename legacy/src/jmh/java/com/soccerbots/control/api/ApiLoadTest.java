@@ -0,0 +1,118 @@
+package com.soccerbots.control.api;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emergency-stop latency against a running API server, idle and while other endpoints are hammered.
+ * With the URL of the server's emergency stop listener ({@code soccerbots.control.safetyPort}),
+ * it is timed under load both through the shared API port and through that listener, which
+ * should stay close to the idle figure.
+ *
+ * Usage: {@code java -cp target/classes:<deps> com.soccerbots.control.api.ApiLoadTest [baseUrl] [seconds] [clients] [safetyUrl]}
+ * (defaults http://localhost:8080, 10 s, 64 clients, no safety listener). Compare a run with
+ * {@code -Dsoccerbots.control.virtualThreads=false} on the server against one on JDK 21 with it on.
+ */
+public class ApiLoadTest {
+    private static final String[] LOAD_PATHS = {
+        "GET /api/robots", "GET /api/controllers", "GET /api/network/stats",
+        "GET /api/websocket/stats", "POST /api/controllers/refresh"
+    };
+    private static final long ESTOP_INTERVAL_MS = 100;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        String safetyUrl = args.length > 3 ? args[3] : null;
+
+        // Separate client so emergency stops never wait for a pooled connection
+        HttpClient estopClient = newClient();
+        System.out.println("Idle emergency stop:        " + measureEmergencyStop(estopClient, safetyUrl != null ? safetyUrl : baseUrl, seconds).toMap());
+
+        HttpClient loadClient = newClient();
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong requests = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            String[] request = LOAD_PATHS[i % LOAD_PATHS.length].split(" ");
+            HttpRequest httpRequest = request(baseUrl, request[0], request[1]);
+            Thread worker = new Thread(() -> {
+                while (running.get()) {
+                    try {
+                        loadClient.send(httpRequest, HttpResponse.BodyHandlers.discarding());
+                        requests.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        long start = System.nanoTime();
+        LatencyHistogram shared = measureEmergencyStop(estopClient, baseUrl, seconds);
+        LatencyHistogram loaded = safetyUrl != null ? measureEmergencyStop(estopClient, safetyUrl, seconds) : null;
+        double elapsed = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join(2000);
+        }
+        System.out.println("Under load, API port:       " + shared.toMap());
+        if (loaded != null) {
+            System.out.println("Under load, safety port:    " + loaded.toMap());
+        }
+        System.out.printf("Load: %d clients, %.0f req/s, %d errors%n", clients, requests.get() / elapsed, errors.get());
+    }
+
+    /**
+     * Activate then release the emergency stop every {@value #ESTOP_INTERVAL_MS} ms, timing each round trip
+     */
+    private static LatencyHistogram measureEmergencyStop(HttpClient client, String baseUrl, int seconds)
+            throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        HttpRequest activate = request(baseUrl, "POST", "/api/emergency-stop");
+        HttpRequest release = request(baseUrl, "POST", "/api/emergency-stop/deactivate");
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        while (System.nanoTime() < end) {
+            for (HttpRequest request : new HttpRequest[] {activate, release}) {
+                long sent = System.nanoTime();
+                try {
+                    client.send(request, HttpResponse.BodyHandlers.discarding());
+                    histogram.record(System.nanoTime() - sent);
+                } catch (Exception e) {
+                    System.err.println("Emergency stop request failed: " + e.getMessage());
+                }
+            }
+            Thread.sleep(ESTOP_INTERVAL_MS);
+        }
+        return histogram;
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    private static HttpRequest request(String baseUrl, String method, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .timeout(Duration.ofSeconds(10))
+            .build();
+    }
+}
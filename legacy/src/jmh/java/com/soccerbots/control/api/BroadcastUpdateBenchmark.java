@@ -0,0 +1,38 @@
+package com.soccerbots.control.api;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket broadcast cost without clients: building the message and serializing it once per format
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BroadcastUpdateBenchmark {
+    private Map<String, Object> timerData;
+
+    @Setup
+    public void setup() {
+        timerData = Map.of(
+            "timeRemainingMs", 93_000L,
+            "timeRemainingSeconds", 93L,
+            "running", true
+        );
+    }
+
+    @Benchmark
+    public String broadcastTimerUpdateJson() throws Exception {
+        return new WebSocketHub.Message("timer_update", timerData, System.currentTimeMillis()).json();
+    }
+
+    @Benchmark
+    public byte[] broadcastTimerUpdateCbor() {
+        return new WebSocketHub.Message("timer_update", timerData, System.currentTimeMillis()).cbor();
+    }
+}
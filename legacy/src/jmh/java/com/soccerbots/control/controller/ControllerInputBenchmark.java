@@ -0,0 +1,35 @@
+package com.soccerbots.control.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick JInput read that turns raw poll data into a ControllerInput,
+ * plus the snapshot copy that API and UI threads use to read it
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ControllerInputBenchmark {
+    private GameController gameController;
+    private final ControllerInput snapshot = new ControllerInput();
+
+    @Setup
+    public void setup() {
+        gameController = new GameController("bench", new FakeGamepad("Wireless Controller"));
+    }
+
+    @Benchmark
+    public ControllerInput pollInput() {
+        return gameController.pollInput();
+    }
+
+    @Benchmark
+    public ControllerInput readSnapshot() {
+        return gameController.readInput(snapshot);
+    }
+}
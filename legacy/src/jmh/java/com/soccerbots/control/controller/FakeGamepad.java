@@ -0,0 +1,82 @@
+package com.soccerbots.control.controller;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import net.java.games.input.EventQueue;
+import net.java.games.input.Rumbler;
+
+/**
+ * In-memory JInput gamepad with a typical DirectInput component layout,
+ * so the component walk can be benchmarked without hardware or natives.
+ */
+public class FakeGamepad implements Controller {
+    private final String name;
+    private final Component[] components;
+
+    public FakeGamepad(String name) {
+        this.name = name;
+        this.components = new Component[] {
+            new FakeComponent("Y Axis", Component.Identifier.Axis.Y, -0.65f),
+            new FakeComponent("X Axis", Component.Identifier.Axis.X, 0.30f),
+            new FakeComponent("Z Axis", Component.Identifier.Axis.Z, 0.0f),
+            new FakeComponent("Z Rotation", Component.Identifier.Axis.RZ, 0.12f),
+            new FakeComponent("X Rotation", Component.Identifier.Axis.RX, -1.0f),
+            new FakeComponent("Y Rotation", Component.Identifier.Axis.RY, -1.0f),
+            new FakeComponent("Hat Switch", Component.Identifier.Axis.POV, 0.0f),
+            new FakeComponent("Button 0", Component.Identifier.Button._0, 0.0f),
+            new FakeComponent("Button 1", Component.Identifier.Button._1, 1.0f),
+            new FakeComponent("Button 2", Component.Identifier.Button._2, 0.0f),
+            new FakeComponent("Button 3", Component.Identifier.Button._3, 0.0f),
+            new FakeComponent("Button 4", Component.Identifier.Button._4, 0.0f),
+            new FakeComponent("Button 5", Component.Identifier.Button._5, 0.0f),
+            new FakeComponent("Button 6", Component.Identifier.Button._6, 0.0f),
+            new FakeComponent("Button 7", Component.Identifier.Button._7, 0.0f),
+            new FakeComponent("Button 8", Component.Identifier.Button._8, 0.0f),
+            new FakeComponent("Button 9", Component.Identifier.Button._9, 0.0f),
+            new FakeComponent("Button 10", Component.Identifier.Button._10, 0.0f),
+            new FakeComponent("Button 11", Component.Identifier.Button._11, 0.0f),
+            new FakeComponent("Button 12", Component.Identifier.Button._12, 0.0f),
+            new FakeComponent("Button 13", Component.Identifier.Button._13, 0.0f)
+        };
+    }
+
+    @Override public Controller[] getControllers() { return new Controller[0]; }
+    @Override public Type getType() { return Type.GAMEPAD; }
+    @Override public Component[] getComponents() { return components; }
+    @Override public Rumbler[] getRumblers() { return new Rumbler[0]; }
+    @Override public boolean poll() { return true; }
+    @Override public void setEventQueueSize(int size) { }
+    @Override public EventQueue getEventQueue() { return new EventQueue(1); }
+    @Override public PortType getPortType() { return PortType.USB; }
+    @Override public int getPortNumber() { return 0; }
+    @Override public String getName() { return name; }
+
+    @Override
+    public Component getComponent(Component.Identifier id) {
+        for (Component component : components) {
+            if (component.getIdentifier() == id) {
+                return component;
+            }
+        }
+        return null;
+    }
+
+    private static final class FakeComponent implements Component {
+        private final String name;
+        private final Identifier identifier;
+        private final float value;
+
+        FakeComponent(String name, Identifier identifier, float value) {
+            this.name = name;
+            this.identifier = identifier;
+            this.value = value;
+        }
+
+        @Override public Identifier getIdentifier() { return identifier; }
+        @Override public boolean isRelative() { return false; }
+        @Override public boolean isAnalog() { return identifier instanceof Identifier.Axis; }
+        @Override public float getDeadZone() { return 0.0f; }
+        @Override public float getPollData() { return value; }
+        @Override public String getName() { return name; }
+    }
+}
@@ -0,0 +1,57 @@
+package com.soccerbots.control.journal;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Journaling a full ten-minute match of command frames: 8 robots at 60 Hz.
+ *
+ * Each measured batch writes one match worth of records into a fresh 16 MB segment,
+ * so the score is the time per match; divide by {@value #RECORDS_PER_MATCH} for ns per
+ * record. With {@code -prof gc}, gc.alloc.rate.norm should stay near zero per batch.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, batchSize = MatchJournalBenchmark.RECORDS_PER_MATCH)
+@Measurement(iterations = 10, batchSize = MatchJournalBenchmark.RECORDS_PER_MATCH)
+@Fork(1)
+@State(Scope.Thread)
+public class MatchJournalBenchmark {
+    static final int ROBOTS = 8;
+    static final int RECORDS_PER_MATCH = ROBOTS * 60 * 600;
+
+    private final String[] robotIds = new String[ROBOTS];
+    private Path directory;
+    private MatchJournal journal;
+    private int tick;
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        for (int i = 0; i < ROBOTS; i++) {
+            robotIds[i] = "Robot_" + i;
+        }
+        directory = Files.createTempDirectory("journal-bench");
+        journal = new MatchJournal(true, directory, MatchJournal.DEFAULT_SEGMENT_MB);
+        journal.rotate();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public void recordCommand() {
+        tick++;
+        journal.recordCommand(robotIds[tick & (ROBOTS - 1)], tick & 0xFF, 130, 127, 130, tick & 1);
+    }
+}
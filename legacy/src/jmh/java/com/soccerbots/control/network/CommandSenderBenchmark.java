@@ -0,0 +1,46 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.robot.Robot;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Packet encoding plus a non-blocking send to a loopback receiver on the ESP32 command port
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandSenderBenchmark {
+    private CommandSender sender;
+    private DatagramChannel receiver;
+    private Robot robot;
+    private int tick;
+
+    @Setup
+    public void setup() throws IOException {
+        receiver = DatagramChannel.open();
+        receiver.bind(new InetSocketAddress("127.0.0.1", NetworkManager.ESP32_UDP_PORT));
+        sender = new CommandSender();
+        robot = new Robot("Robot_Alpha", "Robot_Alpha", "127.0.0.1", "connected");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        sender.close();
+        receiver.close();
+    }
+
+    @Benchmark
+    public void sendRobotCommand() {
+        // Receiver is never drained; once its buffer fills the kernel drops, which is what the field sees
+        tick++;
+        sender.send(robot, tick & 0xFF, 130, 127, 130, (tick & 1) == 0, false, false, false);
+    }
+}
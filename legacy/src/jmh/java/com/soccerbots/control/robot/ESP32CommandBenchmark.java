@@ -0,0 +1,28 @@
+package com.soccerbots.control.robot;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller input (-1.0 to 1.0) to quantized ESP32 command conversion
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ESP32CommandBenchmark {
+    private double leftX = 0.42;
+    private double leftY = -0.77;
+    private double rightX = 0.13;
+    private double rightY = 0.0;
+    private boolean cross = true;
+
+    @Benchmark
+    public ESP32Command fromControllerInput() {
+        return ESP32Command.fromControllerInput("Robot_Alpha",
+            leftX, leftY, rightX, rightY, cross, false, false, true);
+    }
+}
@@ -0,0 +1,30 @@
+package com.soccerbots.control.simulator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One physics integration step of the holonomic robot model
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulatedRobotBenchmark {
+    private SimulatedRobot robot;
+
+    @Setup
+    public void setup() {
+        robot = new SimulatedRobot();
+        robot.setControllerInput(0.5, 0.8, -0.3);
+    }
+
+    @Benchmark
+    public double update() {
+        robot.update(1.0 / 60.0);
+        return robot.getX();
+    }
+}
@@ -0,0 +1,40 @@
+package com.soccerbots.control.simulator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One 1 kHz step of a full field: every robot driving, the ball, grid collisions and walls.
+ *
+ * Robots get a fixed input each so they converge, collide and pile up against walls
+ * over the measurement; at 1 kHz a step must stay well under 1000 us.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimulatorWorldBenchmark {
+    @Param({"8", "32", "64"})
+    public int robots;
+
+    private SimulatorWorld world;
+
+    @Setup
+    public void setup() {
+        world = new SimulatorWorld(robots);
+        List<SimulatedRobot> all = world.getRobots();
+        for (int i = 0; i < all.size(); i++) {
+            all.get(i).setControllerInput(((i * 7) % 11 - 5) / 5.0, 1.0, ((i * 3) % 5 - 2) / 4.0);
+        }
+    }
+
+    @Benchmark
+    public double update() {
+        world.update(0.001);
+        return world.getBall().getX();
+    }
+}
@@ -4,6 +4,7 @@ import com.soccerbots.control.api.ApiServer;
 import com.soccerbots.control.controller.ControllerManager;
 import com.soccerbots.control.network.NetworkManager;
 import com.soccerbots.control.robot.RobotManager;
+import io.javalin.util.ConcurrencyUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +18,11 @@ public class HeadlessLauncher {
     public static void main(String[] args) {
         logger.info("Starting SoccerBots Control System (Headless Mode)");
 
+        // Javalin puts handlers on virtual threads when the JDK has them (21+) unless told not to.
+        // Process-wide, so set once here rather than by each server instance.
+        ConcurrencyUtil.INSTANCE.setUseLoom(Boolean.parseBoolean(
+            System.getProperty("soccerbots.control.virtualThreads", "true")));
+
         try {
             // Parse port from args if provided
             int apiPort = 8080;
@@ -30,6 +36,7 @@ public class HeadlessLauncher {
 
             // Initialize network manager
             NetworkManager networkManager = new NetworkManager();
+            networkManager.start();
 
             // Initialize robot manager
             RobotManager robotManager = new RobotManager(networkManager);
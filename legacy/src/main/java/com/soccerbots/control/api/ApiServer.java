@@ -2,15 +2,30 @@ package com.soccerbots.control.api;
 
 import com.soccerbots.control.controller.ControllerManager;
 import com.soccerbots.control.controller.GameController;
+import com.soccerbots.control.game.MatchClock;
+import com.soccerbots.control.metrics.LatencyHistogram;
+import com.soccerbots.control.network.CommandDispatcher;
+import com.soccerbots.control.network.CommandSender;
+import com.soccerbots.control.network.EmergencyStopDispatcher;
 import com.soccerbots.control.network.NetworkManager;
+import com.soccerbots.control.network.TelemetryReceiver;
+import com.soccerbots.control.robot.LinkQuality;
 import com.soccerbots.control.robot.Robot;
 import com.soccerbots.control.robot.RobotManager;
+import com.soccerbots.control.robot.RobotRegistry;
+import com.soccerbots.control.robot.TelemetryRing;
+import com.soccerbots.control.simulator.MatchReplay;
 import io.javalin.Javalin;
+import io.javalin.config.JavalinConfig;
 import io.javalin.http.Context;
+import io.javalin.util.ConcurrencyUtil;
 import io.javalin.websocket.WsConfig;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.function.Consumer;
@@ -18,38 +33,105 @@ import java.util.function.Consumer;
 public class ApiServer {
     private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
     private static final int DEFAULT_PORT = 8080;
+    // Threads of the emergency stop listener: a few requests at a time, never queued behind others
+    private static final int SAFETY_THREADS = 4;
 
     private final Javalin app;
+    // Emergency stop listener; only with soccerbots.control.safetyPort set, null otherwise
+    private Javalin safetyApp;
     private final RobotManager robotManager;
     private final ControllerManager controllerManager;
     private final NetworkManager networkManager;
-    private final Set<org.eclipse.jetty.websocket.api.Session> wsSessions;
-
-    // Match timer state
-    private long matchDurationMs = 120000; // Default: 2 minutes
-    private long matchStartTime = 0;
-    private boolean matchRunning = false;
+    private final WebSocketHub webSocketHub;
+    private final ControllerStream controllerStream;
+    private final JobRegistry jobs;
+    private final ReplaySession replaySession;
+    private final boolean virtualThreads;
+
+    // Match timer, possibly shared with the Swing timer panel
+    private static final long DEFAULT_MATCH_MS = 120000; // 2 minutes
+    private final MatchClock matchClock;
+    private final boolean ownsMatchClock;
     private final ScheduledExecutorService timerExecutor;
     private int lastControllerCount = 0;
+    // Telemetry sample count per robot at the last WebSocket push, pruned to the registry
+    private final Map<String, Long> lastTelemetryCount = new HashMap<>();
+
+    // Previous sample for the bandwidth rate in /api/network/stats
+    private long lastBandwidthBytes = 0;
+    private long lastBandwidthNanos = System.nanoTime();
 
     public ApiServer(RobotManager robotManager, ControllerManager controllerManager, NetworkManager networkManager) {
+        this(robotManager, controllerManager, networkManager,
+             new MatchClock(DEFAULT_MATCH_MS,
+                            TimeUnit.SECONDS.toMillis(Long.getLong("soccerbots.control.autonomousSeconds", 0))),
+             true);
+    }
+
+    /**
+     * Serve a match clock that other components (such as the GUI timer panel) also drive
+     */
+    public ApiServer(RobotManager robotManager, ControllerManager controllerManager, NetworkManager networkManager,
+                     MatchClock matchClock) {
+        this(robotManager, controllerManager, networkManager, matchClock, false);
+    }
+
+    private ApiServer(RobotManager robotManager, ControllerManager controllerManager, NetworkManager networkManager,
+                      MatchClock matchClock, boolean ownsMatchClock) {
         this.robotManager = robotManager;
+        this.matchClock = matchClock;
+        this.ownsMatchClock = ownsMatchClock;
         this.controllerManager = controllerManager;
         this.networkManager = networkManager;
-        this.wsSessions = new CopyOnWriteArraySet<>();
+        this.webSocketHub = new WebSocketHub();
         this.timerExecutor = Executors.newScheduledThreadPool(1);
+        this.controllerStream = new ControllerStream(controllerManager, webSocketHub, timerExecutor);
+        this.replaySession = new ReplaySession(robotManager.getJournal().getDirectory(), webSocketHub, timerExecutor);
 
-        this.app = Javalin.create(config -> {
-            config.plugins.enableCors(cors -> {
-                cors.add(it -> {
-                    it.anyHost();
+        // Loom is switched on or off once at startup (HeadlessLauncher), before any server exists
+        this.virtualThreads = ConcurrencyUtil.INSTANCE.getUseLoom() && ConcurrencyUtil.isLoomAvailable();
+        if (ConcurrencyUtil.INSTANCE.getUseLoom() && !virtualThreads) {
+            logger.info("Virtual threads need JDK 21; API handlers use the platform thread pool");
+        }
+        this.jobs = new JobRegistry(ConcurrencyUtil.executorService("api-jobs"),
+            job -> broadcastUpdate("job_completed", job.toMap()));
+
+        this.app = Javalin.create(ApiServer::configureCors);
+
+        // Optionally, emergency stop also gets a listener of its own, with its own acceptor
+        // and threads, so it never waits for a pool busy with other requests
+        if (Integer.getInteger("soccerbots.control.safetyPort") != null) {
+            this.safetyApp = Javalin.create(config -> {
+                configureCors(config);
+                config.jetty.server(() -> {
+                    QueuedThreadPool threads = new QueuedThreadPool(SAFETY_THREADS, 1);
+                    threads.setName("api-safety");
+                    return new Server(threads);
                 });
             });
-        });
+        }
 
         setupRoutes();
-        startTimerBroadcast();
+        // First, so a new match's file is open before the broadcaster switches the robots to teleop
+        matchClock.addListener(robotManager.getJournal());
+        matchClock.addListener(new MatchBroadcaster());
         startControllerMonitoring();
+        startTelemetryBroadcast();
+        controllerStream.start();
+        robotManager.addLifecycleListener((robot, from, to) ->
+            broadcastUpdate("robot_state_changed", Map.of(
+                "id", robot.getId(),
+                "from", from.name().toLowerCase(),
+                "state", to.name().toLowerCase()
+            )));
+    }
+
+    private static void configureCors(JavalinConfig config) {
+        config.plugins.enableCors(cors -> {
+            cors.add(it -> {
+                it.anyHost();
+            });
+        });
     }
 
     private void setupRoutes() {
@@ -57,6 +139,7 @@ public class ApiServer {
         app.get("/api/health", ctx -> {
             ctx.json(Map.of(
                 "status", "online",
+                "virtualThreads", virtualThreads,
                 "timestamp", System.currentTimeMillis()
             ));
         });
@@ -64,9 +147,15 @@ public class ApiServer {
         // Get all robots
         app.get("/api/robots", this::getRobots);
 
+        // Link, command and telemetry figures; they change every tick, so they carry no version
+        app.get("/api/robots/links", this::getRobotLinks);
+
         // Get robot by ID
         app.get("/api/robots/{id}", this::getRobotById);
 
+        // Recent telemetry samples, newest first
+        app.get("/api/robots/{id}/telemetry", this::getRobotTelemetry);
+
         // Connect to robot
         app.post("/api/robots/{id}/connect", this::connectRobot);
 
@@ -90,16 +179,51 @@ public class ApiServer {
         app.post("/api/controllers/{controllerId}/disable", this::disableController);
         app.post("/api/controllers/refresh", this::refreshControllers);
 
+        // Status of async jobs such as controller rescans
+        app.get("/api/jobs/{id}", this::getJob);
+
+        // Live input stream on the controllers WebSocket topic
+        app.get("/api/controllers/stream", ctx -> ctx.json(controllerStream.getStats()));
+        app.post("/api/controllers/stream/rate", this::setControllerStreamRate);
+
         // Emergency stop
         app.post("/api/emergency-stop", this::emergencyStop);
         app.post("/api/emergency-stop/deactivate", this::deactivateEmergencyStop);
+        app.get("/api/emergency-stop/stats", this::getEmergencyStopStats);
+        if (safetyApp != null) {
+            safetyApp.post("/api/emergency-stop", this::emergencyStop);
+            safetyApp.post("/api/emergency-stop/deactivate", this::deactivateEmergencyStop);
+        }
 
         // Network statistics
         app.get("/api/network/stats", this::getNetworkStats);
 
+        // WebSocket outbound queues and evictions
+        app.get("/api/websocket/stats", ctx -> ctx.json(webSocketHub.getStats()));
+
+        // Match journal file and record counts
+        app.get("/api/journal", ctx -> ctx.json(robotManager.getJournal().getStats()));
+
+        // Replay of journaled matches through the simulator
+        app.get("/api/replay", ctx -> ctx.json(replaySession.getState()));
+        app.get("/api/replay/matches", ctx -> ctx.json(replaySession.listMatches()));
+        app.post("/api/replay/load/{file}", this::loadReplay);
+        app.post("/api/replay/play", this::playReplay);
+        app.post("/api/replay/pause", ctx -> {
+            replaySession.pause();
+            ctx.json(replaySession.getState());
+        });
+        app.post("/api/replay/seek", this::seekReplay);
+        app.get("/api/replay/trajectory", this::getReplayTrajectory);
+
+        // Control loop timing
+        app.get("/api/control-loop/stats", ctx -> ctx.json(controllerManager.getControlLoop().getStats()));
+
         // Match timer endpoints
         app.get("/api/match/timer", this::getMatchTimer);
         app.post("/api/match/start", this::startMatch);
+        app.post("/api/match/pause", this::pauseMatch);
+        app.post("/api/match/resume", this::resumeMatch);
         app.post("/api/match/stop", this::stopMatch);
         app.post("/api/match/reset", this::resetMatch);
         app.post("/api/match/duration", this::setMatchDuration);
@@ -107,12 +231,15 @@ public class ApiServer {
         // WebSocket for real-time updates
         app.ws("/ws", ws -> {
             ws.onConnect(ctx -> {
-                wsSessions.add(ctx.session);
+                webSocketHub.register(ctx.session, ctx.queryParam("topics"), ctx.queryParam("format"));
                 logger.info("WebSocket client connected: {}", ctx.session.getRemoteAddress());
             });
 
+            // Subscription changes: {"subscribe":[...]}, {"unsubscribe":[...]}, {"topics":[...]}, {"format":"cbor"}
+            ws.onMessage(ctx -> webSocketHub.onClientMessage(ctx.session, ctx.message()));
+
             ws.onClose(ctx -> {
-                wsSessions.remove(ctx.session);
+                webSocketHub.unregister(ctx.session);
                 logger.info("WebSocket client disconnected");
             });
 
@@ -125,25 +252,42 @@ public class ApiServer {
     }
 
     private void getRobots(Context ctx) {
-        List<Map<String, Object>> robotsList = new ArrayList<>();
-        Set<String> addedRobots = new HashSet<>();
-
-        // Add all connected robots first
-        for (Robot robot : robotManager.getConnectedRobots()) {
-            robotsList.add(robotToMap(robot));
-            addedRobots.add(robot.getId());
-        }
-
-        // Add discovered robots that aren't already in the list
-        for (Robot robot : robotManager.getDiscoveredRobots()) {
-            if (!addedRobots.contains(robot.getId())) {
-                robotsList.add(robotToMap(robot));
+        // One consistent snapshot: connected robots first, then discovered ones, already de-duplicated
+        RobotRegistry.Snapshot snapshot = robotManager.getRobotSnapshot();
+        ctx.header("X-Robots-Version", String.valueOf(snapshot.getVersion()));
+
+        // ?since=N -> 304 when nothing changed after version N. The version only covers
+        // registry fields, so versioned replies leave out the live figures of /api/robots/links.
+        String since = ctx.queryParam("since");
+        if (since != null) {
+            try {
+                if (!snapshot.isNewerThan(Long.parseLong(since))) {
+                    ctx.status(304);
+                    return;
+                }
+            } catch (NumberFormatException e) {
+                ctx.status(400).json(Map.of("error", "since must be a registry version number"));
+                return;
             }
         }
 
+        List<Map<String, Object>> robotsList = new ArrayList<>(snapshot.getAll().size());
+        for (Robot robot : snapshot.getAll()) {
+            robotsList.add(since != null ? registryFieldsToMap(robot) : robotToMap(robot));
+        }
         ctx.json(robotsList);
     }
 
+    private void getRobotLinks(Context ctx) {
+        List<Map<String, Object>> links = new ArrayList<>();
+        for (Robot robot : robotManager.getRobotSnapshot().getAll()) {
+            Map<String, Object> map = liveFieldsToMap(robot);
+            map.put("id", robot.getId());
+            links.add(map);
+        }
+        ctx.json(links);
+    }
+
     private void getRobotById(Context ctx) {
         String id = ctx.pathParam("id");
         Robot robot = robotManager.getRobot(id);
@@ -155,6 +299,35 @@ public class ApiServer {
         }
     }
 
+    private void getRobotTelemetry(Context ctx) {
+        Robot robot = robotManager.getRobot(ctx.pathParam("id"));
+        if (robot == null) {
+            ctx.status(404).json(Map.of("error", "Robot not found"));
+            return;
+        }
+        int max = TelemetryRing.CAPACITY;
+        String samples = ctx.queryParam("samples");
+        if (samples != null) {
+            try {
+                max = Integer.parseInt(samples);
+            } catch (NumberFormatException e) {
+                ctx.status(400).json(Map.of("error", "Invalid samples: " + samples));
+                return;
+            }
+        }
+
+        long now = System.nanoTime();
+        List<Map<String, Object>> history = new ArrayList<>();
+        for (TelemetryRing.Sample sample : robot.getTelemetry().history(max)) {
+            history.add(TelemetryRing.sampleToMap(sample, now));
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("id", robot.getId());
+        response.put("summary", robot.getTelemetry().toMap());
+        response.put("samples", history);
+        ctx.json(response);
+    }
+
     private void connectRobot(Context ctx) {
         String id = ctx.pathParam("id");
         Robot robot = robotManager.getRobot(id);
@@ -229,6 +402,7 @@ public class ApiServer {
             controllerData.put("pairedRobotId", controllerManager.getPairedRobotId(controller.getId()));
             controllerData.put("enabled", controllerManager.isControllerEnabled(controller.getId()));
             controllerData.put("type", controller.getType());
+            controllerData.put("input", ControllerStream.toMap(controller.getLastInput()));
             controllersList.add(controllerData);
         }
 
@@ -284,116 +458,231 @@ public class ApiServer {
     }
 
     private void refreshControllers(Context ctx) {
-        controllerManager.refreshControllers();
-        ctx.json(Map.of(
+        // The JInput rescan takes seconds; answer now and report through the job
+        JobRegistry.Job job = jobs.submit("controller_rescan", () -> {
+            controllerManager.refreshControllers();
+            return Map.of("controllers", controllerManager.getConnectedControllerCount());
+        });
+        ctx.status(202).json(Map.of(
             "success", true,
-            "message", "Scanning for controllers"
+            "message", "Scanning for controllers",
+            "jobId", job.id
         ));
-        broadcastUpdate("controllers_refreshing", Map.of("timestamp", System.currentTimeMillis()));
+        broadcastUpdate("controllers_refreshing", Map.of("timestamp", System.currentTimeMillis(), "jobId", job.id));
+    }
+
+    private void getJob(Context ctx) {
+        JobRegistry.Job job = jobs.get(ctx.pathParam("id"));
+        if (job != null) {
+            ctx.json(job.toMap());
+        } else {
+            ctx.status(404).json(Map.of("error", "Job not found"));
+        }
     }
 
     private void emergencyStop(Context ctx) {
-        controllerManager.activateEmergencyStop();
-        ctx.json(Map.of(
-            "success", true,
-            "message", "Emergency stop activated"
-        ));
+        long requested = System.nanoTime();
+        EmergencyStopDispatcher.Burst burst = controllerManager.activateEmergencyStop(requested);
+        ctx.json(emergencyStopResponse(burst, "Emergency stop activated"));
         broadcastUpdate("emergency_stop", Map.of("active", true));
     }
 
     private void deactivateEmergencyStop(Context ctx) {
-        controllerManager.deactivateEmergencyStop();
-        ctx.json(Map.of(
-            "success", true,
-            "message", "Emergency stop deactivated"
-        ));
+        long requested = System.nanoTime();
+        EmergencyStopDispatcher.Burst burst = controllerManager.deactivateEmergencyStop(requested);
+        ctx.json(emergencyStopResponse(burst, "Emergency stop deactivated"));
         broadcastUpdate("emergency_stop", Map.of("active", false));
     }
 
+    /**
+     * Answer once the burst is on the wire (bounded by the dispatch budget) so the
+     * caller sees how long it took from this request to the last datagram
+     */
+    private Map<String, Object> emergencyStopResponse(EmergencyStopDispatcher.Burst burst, String message) {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("success", true);
+        response.put("message", message);
+        EmergencyStopDispatcher dispatcher = networkManager.getEmergencyStopDispatcher();
+        if (burst != null && dispatcher != null) {
+            burst.await(dispatcher.getBudgetMillis(), TimeUnit.MILLISECONDS);
+            response.put("dispatch", burst.toMap());
+        }
+        return response;
+    }
+
+    private void getEmergencyStopStats(Context ctx) {
+        EmergencyStopDispatcher dispatcher = networkManager.getEmergencyStopDispatcher();
+        if (dispatcher != null) {
+            ctx.json(dispatcher.getStats());
+        } else {
+            ctx.status(503).json(Map.of("error", "Emergency stop dispatcher unavailable"));
+        }
+    }
+
     private void getNetworkStats(Context ctx) {
         Map<String, Object> stats = new HashMap<>();
         stats.put("timestamp", System.currentTimeMillis());
-        stats.put("latency", Math.random() * 10 + 10); // Mock data for now
-        stats.put("bandwidth", Math.random() * 10 + 45); // Mock data for now
+
+        // Round trips measured from command ACKs (robots on the extended protocol only)
+        LatencyHistogram rtt = robotManager.getFleetRtt();
+        stats.put("latency", rtt.getPercentileNanos(50) / 1_000_000.0);
+        stats.put("latencyP99", rtt.getPercentileNanos(99) / 1_000_000.0);
+        stats.put("latencySamples", rtt.getCount());
+        double loss = robotManager.getFleetLossRatio();
+        stats.put("packetLoss", loss >= 0 ? loss * 100.0 : null);
         stats.put("activeConnections", robotManager.getDiscoveredRobots().size());
+        stats.put("discoveryProcessing", robotManager.getDiscoveryProcessing().toMap());
+
+        stats.put("commandsSent", robotManager.getCommandsSent());
+        stats.put("commandsSuppressed", robotManager.getCommandsSuppressed());
+        stats.put("keepaliveIntervalMs", robotManager.getKeepaliveIntervalMs());
+        stats.put("portAssignments", robotManager.getPortAssignments());
+
+        TelemetryReceiver telemetry = networkManager.getTelemetryReceiver();
+        if (telemetry != null) {
+            stats.put("telemetryPackets", telemetry.getPacketsReceived());
+            stats.put("telemetryMalformed", telemetry.getMalformed());
+        }
+
+        CommandSender sender = networkManager.getCommandSender();
+        if (sender != null) {
+            stats.put("commandPacketsSent", sender.getPacketsSent());
+            stats.put("commandPacketsDropped", sender.getPacketsDropped());
+            stats.put("commandSteadyStateAllocations", sender.getSteadyStateAllocations());
+            stats.put("bandwidth", outboundKbps(sender.getBytesSent()));
+        } else {
+            stats.put("bandwidth", 0.0);
+        }
+
+        CommandDispatcher dispatcher = networkManager.getCommandDispatcher();
+        if (dispatcher != null) {
+            stats.put("commandFramesCoalesced", dispatcher.getFramesCoalesced());
+            stats.put("movementQueueDelay", dispatcher.getMovementQueueDelay().toMap());
+            stats.put("priorityQueueDelay", dispatcher.getPriorityQueueDelay().toMap());
+            stats.put("fleetModeEnabled", networkManager.isFleetModeEnabled());
+            stats.put("fleetSize", dispatcher.getFleetSize());
+            stats.put("fleetFramesSent", dispatcher.getFleetFramesSent());
+            stats.put("fleetFramesDropped", dispatcher.getFleetFramesDropped());
+        }
 
         ctx.json(stats);
     }
 
+    /**
+     * Outbound command traffic in kbit/s since the previous stats request
+     */
+    private synchronized double outboundKbps(long bytesSent) {
+        long now = System.nanoTime();
+        long elapsed = now - lastBandwidthNanos;
+        double kbps = elapsed > 0 ? (bytesSent - lastBandwidthBytes) * 8.0 * 1_000_000.0 / elapsed : 0.0;
+        lastBandwidthBytes = bytesSent;
+        lastBandwidthNanos = now;
+        return kbps;
+    }
+
     private Map<String, Object> robotToMap(Robot robot) {
+        Map<String, Object> map = registryFieldsToMap(robot);
+        map.putAll(liveFieldsToMap(robot));
+        return map;
+    }
+
+    /**
+     * Fields that publish a new registry version when they change
+     */
+    private Map<String, Object> registryFieldsToMap(Robot robot) {
         Map<String, Object> map = new HashMap<>();
         map.put("id", robot.getId());
         map.put("name", robot.getName());
         map.put("ipAddress", robot.getIpAddress());
         map.put("status", robot.isConnected() ? "connected" : "disconnected");
-        map.put("signal", 85); // Mock signal strength for now
+        map.put("state", robot.getState().name().toLowerCase());
+        map.put("extendedProtocol", robot.isExtendedProtocol());
         map.put("disabled", false); // Can be extended later
         map.put("pairedControllerId", robot.getPairedControllerId());
+        map.put("fleetSlot", robot.getFleetSlot());
+        map.put("commandPort", robot.getCommandPort());
+        map.put("dedicatedChannel", robot.getDedicatedChannel() != null);
         return map;
     }
 
-    public void broadcastUpdate(String eventType, Object data) {
-        Map<String, Object> message = Map.of(
-            "type", eventType,
-            "data", data,
-            "timestamp", System.currentTimeMillis()
-        );
+    /**
+     * Figures that move with every command or ACK and never bump the registry version
+     */
+    private Map<String, Object> liveFieldsToMap(Robot robot) {
+        Map<String, Object> map = new HashMap<>();
+        // Link quality from command ACKs; absent until the robot speaks the extended protocol
+        LinkQuality link = robot.getLinkQuality();
+        double loss = link.getLossRatio();
+        map.put("signal", loss >= 0 ? (int) Math.round((1.0 - loss) * 100) : null);
+        map.put("latency", link.hasSamples() ? link.getRtt().getPercentileNanos(50) / 1_000_000.0 : null);
+        map.put("commandsSent", robot.getCommandsSent());
+        map.put("commandsSuppressed", robot.getCommandsSuppressed());
+        map.put("link", link.toMap());
+        map.put("telemetry", robot.getTelemetry().toMap());
+        return map;
+    }
 
-        String json;
-        try {
-            json = com.fasterxml.jackson.databind.ObjectMapper.class
-                .getDeclaredConstructor()
-                .newInstance()
-                .writeValueAsString(message);
-        } catch (Exception e) {
-            logger.error("Failed to serialize WebSocket message", e);
-            return;
-        }
+    public void broadcastUpdate(String eventType, Object data) {
+        webSocketHub.publish(eventType, data);
+    }
 
-        for (var session : wsSessions) {
-            try {
-                if (session.isOpen()) {
-                    session.getRemote().sendString(json);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to send WebSocket message", e);
-            }
-        }
+    public WebSocketHub getWebSocketHub() {
+        return webSocketHub;
     }
 
     private void getMatchTimer(Context ctx) {
-        long now = System.currentTimeMillis();
-        long timeRemainingMs = matchRunning
-            ? Math.max(0, matchDurationMs - (now - matchStartTime))
-            : matchDurationMs;
+        ctx.json(timerData(matchClock.getSnapshot()));
+    }
 
+    private static Map<String, Object> timerData(MatchClock.Snapshot snapshot) {
+        long timeRemainingMs = snapshot.remainingMs();
         Map<String, Object> timerData = new HashMap<>();
-        timerData.put("running", matchRunning);
+        timerData.put("running", snapshot.isRunning());
+        timerData.put("state", snapshot.state.name().toLowerCase());
+        timerData.put("phase", snapshot.phase().name().toLowerCase());
         timerData.put("timeRemainingMs", timeRemainingMs);
-        timerData.put("durationMs", matchDurationMs);
+        timerData.put("durationMs", snapshot.durationMs());
+        timerData.put("autonomousMs", snapshot.autonomousMs());
         timerData.put("timeRemainingSeconds", timeRemainingMs / 1000);
-
-        ctx.json(timerData);
+        return timerData;
     }
 
     private void startMatch(Context ctx) {
-        if (!matchRunning) {
-            matchStartTime = System.currentTimeMillis();
-            matchRunning = true;
-            robotManager.startTeleop();  // Enable robot movement
-            logger.info("Match started - {} seconds", matchDurationMs / 1000);
-            broadcastUpdate("match_start", Map.of(
-                "durationMs", matchDurationMs,
-                "timestamp", matchStartTime
+        MatchClock.State before = matchClock.getSnapshot().state;
+        if (matchClock.start()) {
+            MatchClock.Snapshot snapshot = matchClock.getSnapshot();
+            logger.info("Match started - {} seconds", snapshot.remainingMs() / 1000);
+            broadcastUpdate(before == MatchClock.State.PAUSED ? "match_resume" : "match_start", Map.of(
+                "durationMs", snapshot.durationMs(),
+                "timeRemainingMs", snapshot.remainingMs(),
+                "timestamp", System.currentTimeMillis()
             ));
         }
         ctx.json(Map.of("success", true, "message", "Match started"));
     }
 
+    private void pauseMatch(Context ctx) {
+        if (matchClock.pause()) {
+            broadcastUpdate("match_pause", Map.of(
+                "timeRemainingMs", matchClock.getSnapshot().remainingMs(),
+                "timestamp", System.currentTimeMillis()
+            ));
+        }
+        ctx.json(Map.of("success", true, "message", "Match paused"));
+    }
+
+    private void resumeMatch(Context ctx) {
+        if (matchClock.resume()) {
+            broadcastUpdate("match_resume", Map.of(
+                "timeRemainingMs", matchClock.getSnapshot().remainingMs(),
+                "timestamp", System.currentTimeMillis()
+            ));
+        }
+        ctx.json(Map.of("success", true, "message", "Match resumed"));
+    }
+
     private void stopMatch(Context ctx) {
-        if (matchRunning) {
-            matchRunning = false;
-            robotManager.stopTeleop();  // Disable robot movement
+        if (matchClock.stop()) {
             logger.info("Match stopped");
             broadcastUpdate("match_stop", Map.of("timestamp", System.currentTimeMillis()));
         }
@@ -401,8 +690,7 @@ public class ApiServer {
     }
 
     private void resetMatch(Context ctx) {
-        matchRunning = false;
-        matchStartTime = 0;
+        matchClock.stop();
         robotManager.stopTeleop();
         logger.info("Match reset");
         broadcastUpdate("match_reset", Map.of("timestamp", System.currentTimeMillis()));
@@ -410,53 +698,142 @@ public class ApiServer {
     }
 
     private void setMatchDuration(Context ctx) {
+        long durationSeconds;
         try {
-            long durationSeconds = Long.parseLong(ctx.body());
-            matchDurationMs = durationSeconds * 1000;
+            durationSeconds = Long.parseLong(ctx.body().trim());
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "Invalid duration format"));
+            return;
+        }
+        if (!matchClock.setDuration(durationSeconds * 1000)) {
+            ctx.status(409).json(Map.of("error", "Cannot change the duration while a match is running or paused"));
+            return;
+        }
+        long durationMs = matchClock.getSnapshot().durationMs();
+        logger.info("Match duration set to {} seconds", durationSeconds);
+        broadcastUpdate("match_duration_changed", Map.of("durationMs", durationMs));
+        ctx.json(Map.of("success", true, "durationMs", durationMs));
+    }
 
-            // If match is not running, reset the timer to new duration
-            if (!matchRunning) {
-                matchStartTime = 0;
-            }
+    private void setControllerStreamRate(Context ctx) {
+        try {
+            controllerStream.setRateHz(Integer.parseInt(ctx.body().trim()));
+            ctx.json(Map.of("success", true, "rateHz", controllerStream.getRateHz()));
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "Invalid rate format"));
+        }
+    }
 
-            logger.info("Match duration set to {} seconds", durationSeconds);
-            broadcastUpdate("match_duration_changed", Map.of("durationMs", matchDurationMs));
+    private void loadReplay(Context ctx) {
+        try {
+            ctx.json(replaySession.load(ctx.pathParam("file")));
+        } catch (IllegalArgumentException e) {
+            ctx.status(404).json(Map.of("error", e.getMessage()));
+        } catch (IOException e) {
+            logger.warn("Could not load replay {}: {}", ctx.pathParam("file"), e.getMessage());
+            ctx.status(422).json(Map.of("error", "Could not read journal: " + e.getMessage()));
+        }
+    }
 
-            // Broadcast updated timer state
-            broadcastUpdate("timer_update", Map.of(
-                "timeRemainingMs", matchDurationMs,
-                "timeRemainingSeconds", durationSeconds,
-                "running", matchRunning
-            ));
+    private void playReplay(Context ctx) {
+        double speed;
+        try {
+            String body = ctx.body().trim();
+            speed = body.isEmpty() ? 1.0 : Double.parseDouble(body);
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "Invalid speed format"));
+            return;
+        }
+        if (!replaySession.play(speed)) {
+            ctx.status(409).json(Map.of("error", "No replay loaded"));
+            return;
+        }
+        ctx.json(replaySession.getState());
+    }
 
-            ctx.json(Map.of("success", true, "durationMs", matchDurationMs));
+    private void seekReplay(Context ctx) {
+        long positionMs;
+        try {
+            positionMs = Long.parseLong(ctx.body().trim());
         } catch (NumberFormatException e) {
-            ctx.status(400).json(Map.of("error", "Invalid duration format"));
+            ctx.status(400).json(Map.of("error", "Invalid position format"));
+            return;
         }
+        if (!replaySession.seek(positionMs)) {
+            ctx.status(409).json(Map.of("error", "No replay loaded"));
+            return;
+        }
+        ctx.json(replaySession.getState());
     }
 
-    private void startTimerBroadcast() {
-        // Broadcast timer updates every second
-        timerExecutor.scheduleAtFixedRate(() -> {
-            if (matchRunning) {
-                long now = System.currentTimeMillis();
-                long timeRemainingMs = Math.max(0, matchDurationMs - (now - matchStartTime));
+    private void getReplayTrajectory(Context ctx) {
+        MatchReplay replay = replaySession.getReplay();
+        if (replay == null) {
+            ctx.status(409).json(Map.of("error", "No replay loaded"));
+            return;
+        }
+        String interval = ctx.queryParam("intervalMs");
+        try {
+            ctx.json(MatchReplay.trajectory(replay.getJournal(), interval != null ? Long.parseLong(interval) : 100));
+        } catch (NumberFormatException e) {
+            ctx.status(400).json(Map.of("error", "Invalid interval format"));
+        }
+    }
+
+    /**
+     * Match clock events to robots and WebSocket clients. Ticks carry the scheduled
+     * remaining time, so every timer_update is an exact whole second.
+     */
+    private class MatchBroadcaster implements MatchClock.Listener {
+        private volatile MatchClock.State lastState = MatchClock.State.STOPPED;
+
+        @Override
+        public void onStateChanged(MatchClock.State state, MatchClock.Snapshot snapshot) {
+            MatchClock.State previous = lastState;
+            lastState = state;
+            // A new match, not a resume: link figures start over
+            if (state == MatchClock.State.RUNNING && previous != MatchClock.State.PAUSED
+                    && previous != MatchClock.State.RUNNING) {
+                robotManager.resetLinkStats();
+            }
+            if (state == MatchClock.State.PAUSED || state == MatchClock.State.STOPPED) {
+                robotManager.stopTeleop();
+            }
+            if (state != MatchClock.State.FINISHED) {
+                broadcastUpdate("timer_update", timerData(snapshot));
+            }
+        }
 
-                // Auto-stop when time expires
-                if (timeRemainingMs == 0 && matchRunning) {
-                    matchRunning = false;
+        @Override
+        public void onPhase(MatchClock.Phase phase, MatchClock.Snapshot snapshot) {
+            switch (phase) {
+                case AUTONOMOUS:
+                    // Firmware only drives in teleop; robots hold still until then
+                    robotManager.stopTeleop();
+                    break;
+                case TELEOP:
+                    robotManager.startTeleop();  // Enable robot movement
+                    break;
+                case END:
                     robotManager.stopTeleop();
-                    broadcastUpdate("match_end", Map.of("timestamp", now));
+                    broadcastUpdate("match_end", Map.of("timestamp", System.currentTimeMillis()));
                     logger.info("Match ended - time expired");
-                }
-
-                broadcastUpdate("timer_update", Map.of(
-                    "timeRemainingMs", timeRemainingMs,
-                    "timeRemainingSeconds", timeRemainingMs / 1000,
-                    "running", matchRunning
-                ));
+                    break;
             }
-        }, 0, 1, TimeUnit.SECONDS);
+            broadcastUpdate("match_phase", Map.of(
+                "phase", phase.name().toLowerCase(),
+                "timeRemainingMs", phase == MatchClock.Phase.END ? 0L : snapshot.remainingMs()
+            ));
+        }
+
+        @Override
+        public void onTick(long remainingMs, MatchClock.Snapshot snapshot) {
+            broadcastUpdate("timer_update", Map.of(
+                "timeRemainingMs", remainingMs,
+                "timeRemainingSeconds", remainingMs / 1000,
+                "running", remainingMs > 0
+            ));
+        }
     }
 
     private void startControllerMonitoring() {
@@ -479,13 +856,62 @@ public class ApiServer {
         }, 0, 2, TimeUnit.SECONDS);
     }
 
+    private void startTelemetryBroadcast() {
+        // Push the newest telemetry of robots that reported since the last push, 5 times a second
+        timerExecutor.scheduleAtFixedRate(() -> {
+            try {
+                if (!webSocketHub.hasSubscribers(WebSocketHub.Topic.TELEMETRY)) {
+                    return;
+                }
+                RobotRegistry.Snapshot snapshot = robotManager.getRobotSnapshot();
+                if (lastTelemetryCount.size() > snapshot.getAll().size()) {
+                    // Robots that left the registry
+                    lastTelemetryCount.keySet().removeIf(id -> snapshot.get(id) == null);
+                }
+                List<Map<String, Object>> updates = new ArrayList<>();
+                for (Robot robot : snapshot.getAll()) {
+                    long count = robot.getTelemetry().getCount();
+                    Long previous = lastTelemetryCount.put(robot.getId(), count);
+                    if (count > 0 && (previous == null || previous != count)) {
+                        Map<String, Object> update = robot.getTelemetry().toMap();
+                        if (update != null) {
+                            update.put("id", robot.getId());
+                            updates.add(update);
+                        }
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    broadcastUpdate("telemetry", Map.of("robots", updates));
+                }
+            } catch (Exception e) {
+                logger.error("Error broadcasting telemetry", e);
+            }
+        }, 200, 200, TimeUnit.MILLISECONDS);
+    }
+
     public void start() {
         start(DEFAULT_PORT);
     }
 
+    /**
+     * Serve the API on {@code port}, and when {@code soccerbots.control.safetyPort} is set,
+     * the emergency stop endpoints on their own listener as well
+     */
     public void start(int port) {
         app.start(port);
         logger.info("API server started on port {}", port);
+        if (safetyApp != null) {
+            int safetyPort = Integer.getInteger("soccerbots.control.safetyPort");
+            try {
+                safetyApp.start(safetyPort);
+                logger.info("Emergency stop also served on port {}", safetyPort);
+            } catch (Exception e) {
+                logger.warn("Cannot open emergency stop listener on port {}, serving it on {} only: {}",
+                            safetyPort, port, e.getMessage());
+                safetyApp.stop();
+                safetyApp = null;
+            }
+        }
     }
 
     public void stop() {
@@ -500,6 +926,16 @@ public class ApiServer {
                 Thread.currentThread().interrupt();
             }
         }
+        controllerStream.stop();
+        replaySession.pause();
+        jobs.shutdown();
+        if (ownsMatchClock) {
+            matchClock.shutdown();
+        }
+        webSocketHub.shutdown();
+        if (safetyApp != null) {
+            safetyApp.stop();
+        }
         app.stop();
         logger.info("API server stopped");
     }
@@ -0,0 +1,157 @@
+package com.soccerbots.control.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Minimal CBOR (RFC 8949) writer for WebSocket payloads: maps, lists, arrays,
+ * strings, integers, floating point, booleans and null are written directly.
+ * Anything else is first converted by the JSON mapper, so beans and enums get the
+ * same fields in both formats; a type the mapper cannot convert throws
+ * IllegalArgumentException. Not thread-safe; use one per message.
+ */
+class CborEncoder {
+    private static final int MAJOR_UNSIGNED = 0;
+    private static final int MAJOR_NEGATIVE = 1;
+    private static final int MAJOR_TEXT = 3;
+    private static final int MAJOR_ARRAY = 4;
+    private static final int MAJOR_MAP = 5;
+    private static final byte FALSE = (byte) 0xF4;
+    private static final byte TRUE = (byte) 0xF5;
+    private static final byte NULL = (byte) 0xF6;
+    private static final byte FLOAT64 = (byte) 0xFB;
+
+    private byte[] buffer = new byte[256];
+    private int length = 0;
+
+    static byte[] encode(Object value) {
+        CborEncoder encoder = new CborEncoder();
+        encoder.write(value);
+        return Arrays.copyOf(encoder.buffer, encoder.length);
+    }
+
+    private void write(Object value) {
+        if (value == null) {
+            put(NULL);
+        } else if (value instanceof String) {
+            writeText((String) value);
+        } else if (value instanceof Boolean) {
+            put((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer || value instanceof Long
+                   || value instanceof Short || value instanceof Byte) {
+            writeInteger(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            writeDouble(((Number) value).doubleValue());
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeHeader(MAJOR_MAP, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeText(String.valueOf(entry.getKey()));
+                write(entry.getValue());
+            }
+        } else if (value instanceof Collection) {
+            Collection<?> items = (Collection<?>) value;
+            writeHeader(MAJOR_ARRAY, items.size());
+            for (Object item : items) {
+                write(item);
+            }
+        } else if (value instanceof Object[]) {
+            Object[] items = (Object[]) value;
+            writeHeader(MAJOR_ARRAY, items.length);
+            for (Object item : items) {
+                write(item);
+            }
+        } else if (value instanceof int[]) {
+            int[] items = (int[]) value;
+            writeHeader(MAJOR_ARRAY, items.length);
+            for (int item : items) {
+                writeInteger(item);
+            }
+        } else if (value instanceof long[]) {
+            long[] items = (long[]) value;
+            writeHeader(MAJOR_ARRAY, items.length);
+            for (long item : items) {
+                writeInteger(item);
+            }
+        } else if (value instanceof double[]) {
+            double[] items = (double[]) value;
+            writeHeader(MAJOR_ARRAY, items.length);
+            for (double item : items) {
+                writeDouble(item);
+            }
+        } else {
+            // Beans, enums and the rest: take the same shape the JSON frames get
+            Object converted = WebSocketHub.MAPPER.convertValue(value, Object.class);
+            if (converted != null && converted.getClass() == value.getClass()) {
+                throw new IllegalArgumentException("Cannot encode " + value.getClass().getName() + " as CBOR");
+            }
+            write(converted);
+        }
+    }
+
+    private void writeInteger(long value) {
+        if (value >= 0) {
+            writeHeader(MAJOR_UNSIGNED, value);
+        } else {
+            writeHeader(MAJOR_NEGATIVE, -1 - value);
+        }
+    }
+
+    private void writeDouble(double value) {
+        ensure(9);
+        buffer[length++] = FLOAT64;
+        long bits = Double.doubleToLongBits(value);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[length++] = (byte) (bits >>> shift);
+        }
+    }
+
+    private void writeText(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        writeHeader(MAJOR_TEXT, utf8.length);
+        ensure(utf8.length);
+        System.arraycopy(utf8, 0, buffer, length, utf8.length);
+        length += utf8.length;
+    }
+
+    /**
+     * Major type plus argument in the shortest encoding
+     */
+    private void writeHeader(int major, long argument) {
+        ensure(9);
+        int type = major << 5;
+        if (argument < 24) {
+            buffer[length++] = (byte) (type | argument);
+        } else if (argument < 0x100) {
+            buffer[length++] = (byte) (type | 24);
+            buffer[length++] = (byte) argument;
+        } else if (argument < 0x10000) {
+            buffer[length++] = (byte) (type | 25);
+            buffer[length++] = (byte) (argument >>> 8);
+            buffer[length++] = (byte) argument;
+        } else if (argument < 0x100000000L) {
+            buffer[length++] = (byte) (type | 26);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (argument >>> shift);
+            }
+        } else {
+            buffer[length++] = (byte) (type | 27);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[length++] = (byte) (argument >>> shift);
+            }
+        }
+    }
+
+    private void put(byte value) {
+        ensure(1);
+        buffer[length++] = value;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + extra));
+        }
+    }
+}
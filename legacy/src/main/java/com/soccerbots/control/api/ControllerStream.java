@@ -0,0 +1,229 @@
+package com.soccerbots.control.api;
+
+import com.soccerbots.control.controller.ControllerInput;
+import com.soccerbots.control.controller.ControllerManager;
+import com.soccerbots.control.controller.GameController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams controller input to WebSocket clients as "controller_input" events.
+ *
+ * Each tick samples every controller's published input, quantizes it (sticks and
+ * triggers to hundredths as integers, the D-pad to eighths) and sends only the
+ * fields that changed since the previous frame. Ticks where nothing changed send
+ * nothing. A keyframe with every field is sent once a second and whenever a client
+ * connects or changes its subscription, so late joiners catch up; frames carry a
+ * sequence number so a client can tell it missed one and wait for the next keyframe.
+ *
+ * Frame: {@code {"seq":n,"keyframe":bool,"controllers":[{"id":"...","lx":-42,"buttons":5}],"removed":["..."]}}
+ */
+class ControllerStream {
+    private static final Logger logger = LoggerFactory.getLogger(ControllerStream.class);
+
+    public static final int MAX_RATE_HZ = 60;
+    public static final int DEFAULT_RATE_HZ = 30;
+    static final int AXIS_STEPS = 100;
+    static final int DPAD_STEPS = 8;
+    private static final long KEYFRAME_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Field order in the quantized state arrays
+    private static final String[] FIELDS = {"lx", "ly", "rx", "ry", "lt", "rt", "dpad", "buttons"};
+
+    private final ControllerManager controllerManager;
+    private final WebSocketHub hub;
+    private final ScheduledExecutorService executor;
+    // Scheduler thread only
+    private final Map<String, int[]> lastSent = new HashMap<>();
+    private final ControllerInput scratch = new ControllerInput();
+    private final int[] current = new int[FIELDS.length];
+
+    private ScheduledFuture<?> task;
+    private volatile int rateHz;
+    private volatile long sequence = 0;
+    private volatile long framesSent = 0;
+    private long lastKeyframeNanos = 0;
+    private long lastSubscriptionVersion = -1;
+
+    ControllerStream(ControllerManager controllerManager, WebSocketHub hub, ScheduledExecutorService executor) {
+        this.controllerManager = controllerManager;
+        this.hub = hub;
+        this.executor = executor;
+        this.rateHz = clamp(Integer.getInteger("soccerbots.control.controllerStreamHz", DEFAULT_RATE_HZ));
+    }
+
+    synchronized void start() {
+        if (task != null) {
+            task.cancel(false);
+        }
+        long periodNanos = TimeUnit.SECONDS.toNanos(1) / rateHz;
+        task = executor.scheduleAtFixedRate(this::tick, periodNanos, periodNanos, TimeUnit.NANOSECONDS);
+    }
+
+    synchronized void stop() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    int getRateHz() {
+        return rateHz;
+    }
+
+    /**
+     * Change the stream rate (1 to {@value #MAX_RATE_HZ} Hz); restarts the tick if running
+     */
+    synchronized void setRateHz(int hz) {
+        int clamped = clamp(hz);
+        if (clamped == rateHz) {
+            return;
+        }
+        rateHz = clamped;
+        if (task != null) {
+            start();
+        }
+        logger.info("Controller stream rate set to {} Hz", clamped);
+    }
+
+    private static int clamp(int hz) {
+        return Math.max(1, Math.min(MAX_RATE_HZ, hz));
+    }
+
+    private void tick() {
+        try {
+            if (!hub.hasSubscribers(WebSocketHub.Topic.CONTROLLERS)) {
+                // Everyone who subscribes later gets a keyframe first
+                lastSent.clear();
+                return;
+            }
+            long now = System.nanoTime();
+            long subscriptionVersion = hub.getSubscriptionVersion();
+            boolean keyframe = subscriptionVersion != lastSubscriptionVersion
+                               || now - lastKeyframeNanos >= KEYFRAME_INTERVAL_NANOS;
+
+            List<Map<String, Object>> changes = new ArrayList<>();
+            List<GameController> controllers = controllerManager.getConnectedControllers();
+            for (GameController controller : controllers) {
+                quantize(controller.readInput(scratch), current);
+                int[] previous = lastSent.get(controller.getId());
+                Map<String, Object> delta = diff(controller.getId(), previous, current, keyframe);
+                if (delta != null) {
+                    changes.add(delta);
+                    if (previous == null) {
+                        lastSent.put(controller.getId(), current.clone());
+                    } else {
+                        System.arraycopy(current, 0, previous, 0, current.length);
+                    }
+                }
+            }
+            List<String> removed = removedSince(controllers);
+
+            if (changes.isEmpty() && removed.isEmpty() && !keyframe) {
+                return;
+            }
+            Map<String, Object> frame = new LinkedHashMap<>();
+            frame.put("seq", ++sequence);
+            frame.put("keyframe", keyframe);
+            frame.put("controllers", changes);
+            if (!removed.isEmpty()) {
+                frame.put("removed", removed);
+            }
+            hub.publish("controller_input", frame);
+            framesSent++;
+            if (keyframe) {
+                lastKeyframeNanos = now;
+                lastSubscriptionVersion = subscriptionVersion;
+            }
+        } catch (Exception e) {
+            logger.error("Error streaming controller input", e);
+        }
+    }
+
+    /**
+     * The id plus changed fields keyed by name, or null if nothing changed
+     */
+    private static Map<String, Object> diff(String id, int[] previous, int[] current, boolean full) {
+        Map<String, Object> delta = null;
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (full || previous == null || previous[i] != current[i]) {
+                if (delta == null) {
+                    delta = new LinkedHashMap<>();
+                    delta.put("id", id);
+                }
+                delta.put(FIELDS[i], current[i]);
+            }
+        }
+        return delta;
+    }
+
+    private List<String> removedSince(List<GameController> controllers) {
+        if (lastSent.size() <= controllers.size()) {
+            return List.of();
+        }
+        List<String> removed = new ArrayList<>();
+        Iterator<String> ids = lastSent.keySet().iterator();
+        while (ids.hasNext()) {
+            String id = ids.next();
+            boolean present = false;
+            for (GameController controller : controllers) {
+                if (controller.getId().equals(id)) {
+                    present = true;
+                    break;
+                }
+            }
+            if (!present) {
+                removed.add(id);
+                ids.remove();
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Quantized values in {@link #FIELDS} order: deadzone-applied sticks and triggers in
+     * hundredths, the D-pad hat position in eighths (0 centered) and the button mask
+     */
+    static void quantize(ControllerInput input, int[] into) {
+        into[0] = Math.round(input.getLeftStickX() * AXIS_STEPS);
+        into[1] = Math.round(input.getLeftStickY() * AXIS_STEPS);
+        into[2] = Math.round(input.getRightStickX() * AXIS_STEPS);
+        into[3] = Math.round(input.getRightStickY() * AXIS_STEPS);
+        into[4] = Math.round(input.getLeftTrigger() * AXIS_STEPS);
+        into[5] = Math.round(input.getRightTrigger() * AXIS_STEPS);
+        into[6] = Math.round(input.getDPad() * DPAD_STEPS);
+        into[7] = input.getButtonMask();
+    }
+
+    /**
+     * Quantized input of one controller keyed like the stream fields, for REST responses
+     */
+    static Map<String, Object> toMap(ControllerInput input) {
+        int[] values = new int[FIELDS.length];
+        quantize(input, values);
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < FIELDS.length; i++) {
+            map.put(FIELDS[i], values[i]);
+        }
+        return map;
+    }
+
+    Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rateHz", rateHz);
+        stats.put("axisSteps", AXIS_STEPS);
+        stats.put("framesSent", framesSent);
+        stats.put("sequence", sequence);
+        return stats;
+    }
+}
@@ -0,0 +1,128 @@
+package com.soccerbots.control.api;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Slow operations run off the request thread as jobs.
+ *
+ * An endpoint submits the work and answers 202 with the job id straight away;
+ * clients poll {@code GET /api/jobs/{id}} or wait for the "job_completed" event.
+ * Submitting a type that already has a job running returns that job instead of
+ * starting a second one, so repeated clicks on "rescan" share a single scan.
+ */
+class JobRegistry {
+    private static final Logger logger = LoggerFactory.getLogger(JobRegistry.class);
+
+    // Finished jobs kept for polling
+    private static final int HISTORY = 64;
+
+    enum State { RUNNING, SUCCEEDED, FAILED }
+
+    static final class Job {
+        final String id;
+        final String type;
+        final long submittedAt = System.currentTimeMillis();
+        private volatile State state = State.RUNNING;
+        private volatile long finishedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        private Job(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        State getState() {
+            return state;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("id", id);
+            map.put("type", type);
+            map.put("state", state.name().toLowerCase());
+            map.put("submittedAt", submittedAt);
+            if (state != State.RUNNING) {
+                map.put("finishedAt", finishedAt);
+                map.put("durationMs", finishedAt - submittedAt);
+            }
+            if (result != null) {
+                map.put("result", result);
+            }
+            if (error != null) {
+                map.put("error", error);
+            }
+            return map;
+        }
+    }
+
+    private final ExecutorService executor;
+    private final Consumer<Job> onComplete;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Map<String, Job> running = new HashMap<>();
+    private final Map<String, Job> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job> eldest) {
+            return size() > HISTORY && eldest.getValue().state != State.RUNNING;
+        }
+    };
+
+    JobRegistry(ExecutorService executor, Consumer<Job> onComplete) {
+        this.executor = executor;
+        this.onComplete = onComplete;
+    }
+
+    /**
+     * Start a job of this type, or return the one already running
+     */
+    Job submit(String type, Callable<?> work) {
+        Job job;
+        synchronized (this) {
+            Job current = running.get(type);
+            if (current != null) {
+                return current;
+            }
+            job = new Job(Long.toString(nextId.getAndIncrement()), type);
+            running.put(type, job);
+            jobs.put(job.id, job);
+        }
+        executor.execute(() -> run(job, work));
+        return job;
+    }
+
+    private void run(Job job, Callable<?> work) {
+        State outcome;
+        try {
+            job.result = work.call();
+            outcome = State.SUCCEEDED;
+        } catch (Exception e) {
+            logger.error("Job {} ({}) failed", job.id, job.type, e);
+            job.error = String.valueOf(e.getMessage());
+            outcome = State.FAILED;
+        }
+        job.finishedAt = System.currentTimeMillis();
+        // Last, so a reader that sees the outcome also sees the rest
+        job.state = outcome;
+        synchronized (this) {
+            running.remove(job.type);
+        }
+        onComplete.accept(job);
+    }
+
+    synchronized Job get(String id) {
+        return jobs.get(id);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
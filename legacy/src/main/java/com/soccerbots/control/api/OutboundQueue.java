@@ -0,0 +1,212 @@
+package com.soccerbots.control.api;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Bounded outbound queue for one WebSocket client.
+ *
+ * Publishers only enqueue; an idle queue hands its first frame to the sender
+ * executor, frames are written with Jetty's async send one in flight at a time,
+ * and the completion callback starts the next one, so the publisher's thread
+ * never touches the socket. A client that lets its queue fill with messages
+ * that must not be lost, or leaves a write unfinished for
+ * {@link #SEND_TIMEOUT_NANOS}, is closed and evicted instead of holding up
+ * anyone else.
+ */
+class OutboundQueue implements WriteCallback {
+    static final int CAPACITY = 256;
+    // DROP messages are discarded once this many are waiting
+    static final int DROP_THRESHOLD = CAPACITY / 4;
+    static final long SEND_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    enum Policy {
+        // Always delivered; overflowing the queue evicts the client
+        RELIABLE,
+        // Replaces a queued message of the same event type (only the latest value matters)
+        COALESCE,
+        // Discarded while the client is behind
+        DROP
+    }
+
+    private static final class Entry {
+        final String eventType;
+        Object payload;
+        long enqueuedNanos;
+
+        Entry(String eventType, Object payload, long enqueuedNanos) {
+            this.eventType = eventType;
+            this.payload = payload;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+
+    private final Session session;
+    private final Executor sender;
+    private final BiConsumer<OutboundQueue, String> onEvict;
+    private final ArrayDeque<Entry> queue = new ArrayDeque<>(CAPACITY);
+    // Enqueue to write completion
+    private final LatencyHistogram sendLatency = new LatencyHistogram();
+
+    private Entry inFlight;
+    private long inFlightSince;
+    private boolean closed = false;
+    private long sent = 0;
+    private long coalesced = 0;
+    private long dropped = 0;
+    private int maxDepth = 0;
+
+    OutboundQueue(Session session, Executor sender, BiConsumer<OutboundQueue, String> onEvict) {
+        this.session = session;
+        this.sender = sender;
+        this.onEvict = onEvict;
+    }
+
+    Session getSession() {
+        return session;
+    }
+
+    /**
+     * Queue a serialized frame (String for text, byte[] for binary). Never blocks.
+     */
+    void offer(String eventType, Policy policy, Object payload) {
+        long now = System.nanoTime();
+        Entry next;
+        String evictReason = null;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (inFlight != null && now - inFlightSince > SEND_TIMEOUT_NANOS) {
+                evictReason = "send stalled for " + TimeUnit.NANOSECONDS.toMillis(now - inFlightSince) + " ms";
+            } else if (policy == Policy.COALESCE && coalesce(eventType, payload, now)) {
+                return;
+            } else if (policy == Policy.DROP && queue.size() >= DROP_THRESHOLD) {
+                dropped++;
+                return;
+            } else if (queue.size() >= CAPACITY) {
+                evictReason = "outbound queue full (" + CAPACITY + ")";
+            }
+
+            if (evictReason != null) {
+                closeLocked();
+                next = null;
+            } else {
+                queue.add(new Entry(eventType, payload, now));
+                maxDepth = Math.max(maxDepth, queue.size());
+                if (inFlight != null) {
+                    return;
+                }
+                next = inFlight = queue.poll();
+                inFlightSince = now;
+            }
+        }
+        if (evictReason != null) {
+            String reason = evictReason;
+            sender.execute(() -> evict(reason));
+        } else {
+            sender.execute(() -> write(next));
+        }
+    }
+
+    private boolean coalesce(String eventType, Object payload, long now) {
+        for (Entry entry : queue) {
+            if (entry.eventType.equals(eventType)) {
+                entry.payload = payload;
+                entry.enqueuedNanos = now;
+                coalesced++;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(Entry entry) {
+        try {
+            if (entry.payload instanceof byte[]) {
+                session.getRemote().sendBytes(ByteBuffer.wrap((byte[]) entry.payload), this);
+            } else {
+                session.getRemote().sendString((String) entry.payload, this);
+            }
+        } catch (Exception e) {
+            writeFailed(e);
+        }
+    }
+
+    @Override
+    public void writeSuccess() {
+        long now = System.nanoTime();
+        Entry next;
+        synchronized (this) {
+            if (inFlight != null) {
+                sent++;
+                sendLatency.record(now - inFlight.enqueuedNanos);
+            }
+            if (closed) {
+                return;
+            }
+            next = inFlight = queue.poll();
+            inFlightSince = now;
+        }
+        if (next != null) {
+            write(next);
+        }
+    }
+
+    @Override
+    public void writeFailed(Throwable cause) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closeLocked();
+        }
+        evict("write failed: " + cause.getMessage());
+    }
+
+    /**
+     * Stop sending; the session itself is closed by the caller or already gone
+     */
+    synchronized void close() {
+        closeLocked();
+    }
+
+    private void closeLocked() {
+        closed = true;
+        queue.clear();
+    }
+
+    private void evict(String reason) {
+        // Before closing, which unregisters the client through the close handler
+        onEvict.accept(this, reason);
+        try {
+            if (session.isOpen()) {
+                session.close(StatusCode.TRY_AGAIN_LATER, "Slow consumer: " + reason);
+            }
+        } catch (Exception e) {
+            // Already closing
+        }
+    }
+
+    synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("remote", String.valueOf(session.getRemoteAddress()));
+        map.put("depth", queue.size() + (inFlight != null ? 1 : 0));
+        map.put("maxDepth", maxDepth);
+        map.put("sent", sent);
+        map.put("coalesced", coalesced);
+        map.put("dropped", dropped);
+        map.put("sendLatency", sendLatency.toMap());
+        return map;
+    }
+}
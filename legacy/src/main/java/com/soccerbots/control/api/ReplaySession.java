@@ -0,0 +1,152 @@
+package com.soccerbots.control.api;
+
+import com.soccerbots.control.journal.JournalReader;
+import com.soccerbots.control.simulator.MatchReplay;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The match replay the frontend scrubs through.
+ *
+ * One journaled match is loaded at a time. While playing, a tick advances the replay
+ * by the wall-clock time since the last tick times the speed and publishes a
+ * "replay_frame" with every robot's pose; seeking works whether playing or not.
+ */
+class ReplaySession {
+    private static final Logger logger = LoggerFactory.getLogger(ReplaySession.class);
+
+    static final int FRAME_RATE_HZ = 30;
+    static final double MAX_SPEED = 100.0;
+
+    private final Path directory;
+    private final WebSocketHub hub;
+    private final ScheduledExecutorService executor;
+
+    private MatchReplay replay;
+    private ScheduledFuture<?> task;
+    private double speed = 1.0;
+    private long lastTickNanos;
+    // Unrounded match time; the replay itself moves in whole physics steps
+    private long playheadNanos;
+
+    ReplaySession(Path directory, WebSocketHub hub, ScheduledExecutorService executor) {
+        this.directory = directory;
+        this.hub = hub;
+        this.executor = executor;
+    }
+
+    /**
+     * Journaled matches, oldest first
+     */
+    List<Map<String, Object>> listMatches() throws IOException {
+        List<Map<String, Object>> matches = new ArrayList<>();
+        for (Path file : JournalReader.listMatches(directory)) {
+            Map<String, Object> match = new LinkedHashMap<>();
+            match.put("file", file.getFileName().toString());
+            match.put("modified", Files.getLastModifiedTime(file).toMillis());
+            matches.add(match);
+        }
+        return matches;
+    }
+
+    /**
+     * Load a match from the journal directory by file name, replacing the current one
+     *
+     * @throws IllegalArgumentException if the name is not a journal file in the directory
+     */
+    synchronized Map<String, Object> load(String fileName) throws IOException {
+        Path file = directory.resolve(fileName).normalize();
+        if (!directory.normalize().equals(file.getParent()) || !Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No journaled match named " + fileName);
+        }
+        pause();
+        replay = MatchReplay.open(file);
+        playheadNanos = 0;
+        logger.info("Loaded replay of {}: {} robots, {} s", fileName, replay.getRobotCount(),
+                    TimeUnit.NANOSECONDS.toSeconds(replay.getDurationNanos()));
+        return replay.toMap();
+    }
+
+    synchronized MatchReplay getReplay() {
+        return replay;
+    }
+
+    /**
+     * Play from the current position at this multiple of real time
+     */
+    synchronized boolean play(double speed) {
+        if (replay == null) {
+            return false;
+        }
+        this.speed = Math.max(0.1, Math.min(MAX_SPEED, speed));
+        if (replay.isFinished()) {
+            replay.seek(0);
+            playheadNanos = 0;
+        }
+        if (task == null) {
+            lastTickNanos = System.nanoTime();
+            long periodNanos = TimeUnit.SECONDS.toNanos(1) / FRAME_RATE_HZ;
+            task = executor.scheduleAtFixedRate(this::tick, 0, periodNanos, TimeUnit.NANOSECONDS);
+        }
+        return true;
+    }
+
+    synchronized void pause() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+    }
+
+    synchronized boolean seek(long positionMs) {
+        if (replay == null) {
+            return false;
+        }
+        replay.seekMillis(positionMs);
+        playheadNanos = replay.getPositionNanos();
+        lastTickNanos = System.nanoTime();
+        hub.publish("replay_frame", replay.toMap());
+        return true;
+    }
+
+    private synchronized void tick() {
+        try {
+            long now = System.nanoTime();
+            playheadNanos += (long) ((now - lastTickNanos) * speed);
+            lastTickNanos = now;
+            replay.seek(playheadNanos);
+            if (hub.hasSubscribers(WebSocketHub.Topic.REPLAY)) {
+                Map<String, Object> frame = replay.toMap();
+                frame.put("playing", !replay.isFinished());
+                frame.put("speed", speed);
+                hub.publish("replay_frame", frame);
+            }
+            if (replay.isFinished()) {
+                pause();
+                logger.info("Replay of {} finished", replay.getJournal().getFile().getFileName());
+            }
+        } catch (Exception e) {
+            logger.error("Error advancing replay", e);
+        }
+    }
+
+    synchronized Map<String, Object> getState() {
+        Map<String, Object> state = replay != null ? replay.toMap() : new LinkedHashMap<>();
+        state.put("loaded", replay != null);
+        state.put("playing", task != null);
+        state.put("speed", speed);
+        state.put("directory", directory.toAbsolutePath().toString());
+        return state;
+    }
+}
@@ -0,0 +1,325 @@
+package com.soccerbots.control.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.eclipse.jetty.websocket.api.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of server events to WebSocket clients.
+ *
+ * Each event belongs to a {@link Topic}; clients choose the topics they render
+ * and whether frames arrive as JSON text or CBOR binary. A published message is
+ * serialized at most once per format, however many clients receive it.
+ *
+ * Clients configure their subscription on connect ({@code /ws?topics=timer,robots&format=cbor})
+ * or later with a text message such as {@code {"subscribe":["telemetry"]}},
+ * {@code {"unsubscribe":["robots"]}}, {@code {"topics":["timer"]}} or {@code {"format":"json"}}.
+ *
+ * Publishing never blocks: frames go onto each client's {@link OutboundQueue}, where timer
+ * updates coalesce, telemetry is dropped while a client is behind, and clients that fall too
+ * far behind are evicted.
+ */
+public class WebSocketHub {
+    private static final Logger logger = LoggerFactory.getLogger(WebSocketHub.class);
+
+    // Shared and thread-safe once configured
+    static final ObjectMapper MAPPER = new ObjectMapper()
+        .disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+
+    public enum Topic {
+        TIMER, ROBOTS, CONTROLLERS, TELEMETRY, REPLAY,
+        // Emergency stop and other alerts; always delivered
+        SYSTEM;
+
+        static Topic forEvent(String eventType) {
+            if (eventType.startsWith("timer") || eventType.startsWith("match")) {
+                return TIMER;
+            } else if (eventType.startsWith("robot")) {
+                return ROBOTS;
+            } else if (eventType.startsWith("controller")) {
+                return CONTROLLERS;
+            } else if (eventType.startsWith("telemetry")) {
+                return TELEMETRY;
+            } else if (eventType.startsWith("replay")) {
+                return REPLAY;
+            }
+            return SYSTEM;
+        }
+
+        static Topic parse(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    public enum Format { JSON, CBOR }
+
+    /**
+     * Per-client settings, replaced wholesale so the publisher reads them without locking
+     */
+    private static final class Subscription {
+        final Set<Topic> topics;
+        final Format format;
+
+        Subscription(Set<Topic> topics, Format format) {
+            this.topics = Collections.unmodifiableSet(topics);
+            this.format = format;
+        }
+
+        boolean wants(Topic topic) {
+            return topic == Topic.SYSTEM || topics.contains(topic);
+        }
+    }
+
+    /**
+     * One event, serialized lazily and at most once per format
+     */
+    public static final class Message {
+        private final String eventType;
+        private final Map<String, Object> envelope;
+        private String json;
+        private byte[] cbor;
+
+        public Message(String eventType, Object data, long timestamp) {
+            this.eventType = eventType;
+            this.envelope = new LinkedHashMap<>(4);
+            envelope.put("type", eventType);
+            envelope.put("data", data);
+            envelope.put("timestamp", timestamp);
+        }
+
+        public String getEventType() {
+            return eventType;
+        }
+
+        public String json() throws JsonProcessingException {
+            if (json == null) {
+                json = MAPPER.writeValueAsString(envelope);
+            }
+            return json;
+        }
+
+        public byte[] cbor() {
+            if (cbor == null) {
+                cbor = CborEncoder.encode(envelope);
+            }
+            return cbor;
+        }
+    }
+
+    private static final class Client {
+        final OutboundQueue outbound;
+        volatile Subscription subscription;
+
+        Client(OutboundQueue outbound, Subscription subscription) {
+            this.outbound = outbound;
+            this.subscription = subscription;
+        }
+    }
+
+    private final Map<Session, Client> clients = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    // Bumped when a client connects or changes topics, so streams know to resend full state
+    private final AtomicLong subscriptionVersion = new AtomicLong();
+    // Starts writes for idle clients; Jetty's callbacks continue them, so this never blocks
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "ws-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Register a client; without parameters it gets every topic as JSON, as before subscriptions existed
+     */
+    public void register(Session session, String topics, String format) {
+        Subscription subscription = new Subscription(EnumSet.allOf(Topic.class), Format.JSON);
+        try {
+            subscription = new Subscription(
+                topics != null && !topics.isEmpty() ? parseTopics(List.of(topics.split(","))) : subscription.topics,
+                format != null && !format.isEmpty() ? Format.valueOf(format.trim().toUpperCase(Locale.ROOT))
+                                                    : subscription.format);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring bad WebSocket subscription '{}' / '{}': {}", topics, format, e.getMessage());
+        }
+        clients.put(session, new Client(new OutboundQueue(session, sender, this::evict), subscription));
+        subscriptionVersion.incrementAndGet();
+    }
+
+    public void unregister(Session session) {
+        Client client = clients.remove(session);
+        if (client != null) {
+            client.outbound.close();
+        }
+    }
+
+    private void evict(OutboundQueue outbound, String reason) {
+        if (clients.remove(outbound.getSession()) != null) {
+            evictions.incrementAndGet();
+            logger.warn("Evicted WebSocket client {}: {}", outbound.getSession().getRemoteAddress(), reason);
+        }
+    }
+
+    public int getClientCount() {
+        return clients.size();
+    }
+
+    public long getSubscriptionVersion() {
+        return subscriptionVersion.get();
+    }
+
+    /**
+     * True if any client would receive events of this topic; lets producers skip building them
+     */
+    public boolean hasSubscribers(Topic topic) {
+        for (Client client : clients.values()) {
+            if (client.subscription.wants(topic)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Apply a subscription change sent by the client and acknowledge the resulting settings
+     */
+    public void onClientMessage(Session session, String text) {
+        Client client = clients.get(session);
+        if (client == null) {
+            return;
+        }
+        Subscription current = client.subscription;
+        Set<Topic> topics = EnumSet.noneOf(Topic.class);
+        topics.addAll(current.topics);
+        Format format = current.format;
+        try {
+            JsonNode request = MAPPER.readTree(text);
+            if (request.has("topics")) {
+                topics = parseTopics(textValues(request.get("topics")));
+            }
+            if (request.has("subscribe")) {
+                topics.addAll(parseTopics(textValues(request.get("subscribe"))));
+            }
+            if (request.has("unsubscribe")) {
+                topics.removeAll(parseTopics(textValues(request.get("unsubscribe"))));
+            }
+            if (request.has("format")) {
+                format = Format.valueOf(request.get("format").asText().toUpperCase(Locale.ROOT));
+            }
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            send(client, current.format, new Message("error", Map.of("message", "Bad subscription: " + text),
+                                                     System.currentTimeMillis()));
+            return;
+        }
+
+        Subscription updated = new Subscription(topics, format);
+        client.subscription = updated;
+        subscriptionVersion.incrementAndGet();
+        List<String> names = new ArrayList<>();
+        for (Topic topic : updated.topics) {
+            names.add(topic.name().toLowerCase(Locale.ROOT));
+        }
+        send(client, format, new Message("subscribed", Map.of("topics", names,
+                                                               "format", format.name().toLowerCase(Locale.ROOT)),
+                                          System.currentTimeMillis()));
+    }
+
+    /**
+     * Deliver an event to every client subscribed to its topic
+     */
+    public void publish(String eventType, Object data) {
+        if (clients.isEmpty()) {
+            return;
+        }
+        Topic topic = Topic.forEvent(eventType);
+        Message message = new Message(eventType, data, System.currentTimeMillis());
+        for (Client client : clients.values()) {
+            Subscription subscription = client.subscription;
+            if (subscription.wants(topic)) {
+                send(client, subscription.format, message);
+            }
+        }
+    }
+
+    /**
+     * Timer updates only matter at their latest value; telemetry arrives again a moment later
+     */
+    private static OutboundQueue.Policy policyFor(String eventType) {
+        if ("timer_update".equals(eventType)) {
+            return OutboundQueue.Policy.COALESCE;
+        } else if (Topic.forEvent(eventType) == Topic.TELEMETRY) {
+            return OutboundQueue.Policy.DROP;
+        }
+        return OutboundQueue.Policy.RELIABLE;
+    }
+
+    /**
+     * Serialize on the caller's thread (once per format, cached in the message) and enqueue
+     */
+    private void send(Client client, Format format, Message message) {
+        Object payload;
+        try {
+            payload = format == Format.CBOR ? message.cbor() : message.json();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            logger.error("Failed to serialize WebSocket message", e);
+            return;
+        }
+        client.outbound.offer(message.getEventType(), policyFor(message.getEventType()), payload);
+    }
+
+    /**
+     * Queue depth, send latency and drop counts per client, plus evictions so far
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> perClient = new ArrayList<>();
+        for (Client client : clients.values()) {
+            perClient.add(client.outbound.toMap());
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("clients", perClient);
+        stats.put("evictions", evictions.get());
+        stats.put("queueCapacity", OutboundQueue.CAPACITY);
+        return stats;
+    }
+
+    public void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private static Set<Topic> parseTopics(Iterable<String> names) {
+        Set<Topic> topics = EnumSet.noneOf(Topic.class);
+        for (String name : names) {
+            if (!name.isBlank()) {
+                topics.add(Topic.parse(name));
+            }
+        }
+        return topics;
+    }
+
+    private static List<String> textValues(JsonNode node) {
+        List<String> values = new ArrayList<>();
+        if (node.isArray()) {
+            for (JsonNode item : node) {
+                values.add(item.asText());
+            }
+        } else {
+            values.add(node.asText());
+        }
+        return values;
+    }
+}
@@ -0,0 +1,170 @@
+package com.soccerbots.control.controller;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-rate control loop on its own thread.
+ * Ticks are scheduled against absolute System.nanoTime() deadlines, so a slow tick
+ * never shifts later ones (no drift); deadlines that are missed entirely are skipped
+ * rather than replayed in a burst.
+ */
+public class ControlLoop implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(ControlLoop.class);
+
+    public static final int[] SUPPORTED_RATES_HZ = {50, 100, 200};
+    // Faster than the ~62.5 Hz of the old fixed 16 ms schedule, so no setup gets a slower loop
+    public static final int DEFAULT_RATE_HZ = 100;
+
+    private final Runnable tick;
+    private final int rateHz;
+    private final long periodNanos;
+
+    // Time spent inside the tick body
+    private final LatencyHistogram tickLatency = new LatencyHistogram();
+    // How late each tick started relative to its deadline (jitter)
+    private final LatencyHistogram startLateness = new LatencyHistogram();
+    private final AtomicLong ticks = new AtomicLong();
+    private final AtomicLong overruns = new AtomicLong();
+    private final AtomicLong missedDeadlines = new AtomicLong();
+
+    private volatile boolean running = false;
+    private volatile long loopStartNanos;
+    private Thread thread;
+
+    public ControlLoop(int rateHz, Runnable tick) {
+        if (!isSupportedRate(rateHz)) {
+            throw new IllegalArgumentException("Unsupported control rate: " + rateHz + " Hz (use 50, 100 or 200)");
+        }
+        this.rateHz = rateHz;
+        this.periodNanos = 1_000_000_000L / rateHz;
+        this.tick = tick;
+    }
+
+    public static boolean isSupportedRate(int rateHz) {
+        for (int supported : SUPPORTED_RATES_HZ) {
+            if (supported == rateHz) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this, "control-loop");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        logger.info("Control loop started at {} Hz", rateHz);
+    }
+
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        logger.info("Control loop stopped");
+    }
+
+    @Override
+    public void run() {
+        loopStartNanos = System.nanoTime();
+        long deadline = loopStartNanos + periodNanos;
+
+        while (running) {
+            long now;
+            while ((now = System.nanoTime()) < deadline) {
+                LockSupport.parkNanos(this, deadline - now);
+                if (!running) {
+                    return;
+                }
+            }
+
+            startLateness.record(now - deadline);
+            try {
+                tick.run();
+            } catch (Exception e) {
+                logger.error("Control loop tick failed", e);
+            }
+            long end = System.nanoTime();
+            long elapsed = end - now;
+            tickLatency.record(elapsed);
+            ticks.incrementAndGet();
+            if (elapsed > periodNanos) {
+                overruns.incrementAndGet();
+            }
+
+            deadline += periodNanos;
+            if (end >= deadline) {
+                // Skip every deadline we already blew through instead of bursting to catch up
+                long missed = (end - deadline) / periodNanos + 1;
+                missedDeadlines.addAndGet(missed);
+                deadline += missed * periodNanos;
+            }
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public int getRateHz() {
+        return rateHz;
+    }
+
+    public long getPeriodNanos() {
+        return periodNanos;
+    }
+
+    public long getTicks() {
+        return ticks.get();
+    }
+
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    public long getMissedDeadlines() {
+        return missedDeadlines.get();
+    }
+
+    public LatencyHistogram getTickLatency() {
+        return tickLatency;
+    }
+
+    public LatencyHistogram getStartLateness() {
+        return startLateness;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long expectedTicks = running ? (System.nanoTime() - loopStartNanos) / periodNanos : ticks.get();
+        stats.put("rateHz", rateHz);
+        stats.put("running", running);
+        stats.put("ticks", ticks.get());
+        stats.put("expectedTicks", expectedTicks);
+        stats.put("overruns", overruns.get());
+        stats.put("missedDeadlines", missedDeadlines.get());
+        stats.put("tickLatency", tickLatency.toMap());
+        stats.put("startLateness", startLateness.toMap());
+        return stats;
+    }
+}
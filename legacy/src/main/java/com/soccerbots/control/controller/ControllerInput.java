@@ -8,16 +8,28 @@ public class ControllerInput {
     private float leftTrigger = 0.0f;
     private float rightTrigger = 0.0f;
     private float dPad = 0.0f;
-    private boolean[] buttons = new boolean[16];
+    private int buttons = 0; // bit i = button i pressed
+
+    public static final int MAX_BUTTONS = 16;
     
     private static final float DEADZONE = 0.1f;
     private static final float MOVEMENT_THRESHOLD = 0.05f;
     
     public ControllerInput() {
-        // Initialize all buttons to false
-        for (int i = 0; i < buttons.length; i++) {
-            buttons[i] = false;
-        }
+    }
+
+    /**
+     * Copy all raw values from another input (no allocation)
+     */
+    public void copyFrom(ControllerInput other) {
+        this.leftStickX = other.leftStickX;
+        this.leftStickY = other.leftStickY;
+        this.rightStickX = other.rightStickX;
+        this.rightStickY = other.rightStickY;
+        this.leftTrigger = other.leftTrigger;
+        this.rightTrigger = other.rightTrigger;
+        this.dPad = other.dPad;
+        this.buttons = other.buttons;
     }
     
     public float getLeftStickX() {
@@ -77,14 +89,26 @@ public class ControllerInput {
     }
     
     public boolean getButton(int index) {
-        return index >= 0 && index < buttons.length ? buttons[index] : false;
+        return index >= 0 && index < MAX_BUTTONS && (buttons & (1 << index)) != 0;
     }
     
     public void setButton(int index, boolean pressed) {
-        if (index >= 0 && index < buttons.length) {
-            buttons[index] = pressed;
+        if (index >= 0 && index < MAX_BUTTONS) {
+            if (pressed) {
+                buttons |= 1 << index;
+            } else {
+                buttons &= ~(1 << index);
+            }
         }
     }
+
+    public int getButtonMask() {
+        return buttons;
+    }
+
+    public void setButtonMask(int buttons) {
+        this.buttons = buttons & ((1 << MAX_BUTTONS) - 1);
+    }
     
     private float applyDeadzone(float value) {
         return Math.abs(value) < DEADZONE ? 0.0f : value;
@@ -1,5 +1,7 @@
 package com.soccerbots.control.controller;
 
+import com.soccerbots.control.journal.MatchJournal;
+import com.soccerbots.control.network.EmergencyStopDispatcher;
 import com.soccerbots.control.robot.RobotManager;
 import net.java.games.input.*;
 import org.slf4j.Logger;
@@ -20,17 +22,45 @@ public class ControllerManager {
     private final Map<String, Boolean> controllerEnabled; // Track enabled/disabled state
     private final ExecutorService executorService;
     private final ScheduledExecutorService scheduledExecutor;
+    private volatile ControlLoop controlLoop;
 
-    private boolean isPolling = false;
     private volatile boolean emergencyStopActive = false;
     
     public ControllerManager(RobotManager robotManager) {
+        this(robotManager, configuredRateHz());
+    }
+
+    /**
+     * -Dsoccerbots.control.rateHz, or the default when unset; a bad value is logged and ignored
+     * rather than failing startup
+     */
+    private static int configuredRateHz() {
+        String configured = System.getProperty("soccerbots.control.rateHz");
+        if (configured == null || configured.isBlank()) {
+            return ControlLoop.DEFAULT_RATE_HZ;
+        }
+        try {
+            int rateHz = Integer.parseInt(configured.trim());
+            if (ControlLoop.isSupportedRate(rateHz)) {
+                return rateHz;
+            }
+        } catch (NumberFormatException e) {
+            // Fall through to the warning
+        }
+        logger.warn("Ignoring soccerbots.control.rateHz={} (use 50, 100 or 200), running at {} Hz",
+                    configured, ControlLoop.DEFAULT_RATE_HZ);
+        return ControlLoop.DEFAULT_RATE_HZ;
+    }
+
+    public ControllerManager(RobotManager robotManager, int controlRateHz) {
         this.robotManager = robotManager;
         this.connectedControllers = new ConcurrentHashMap<>();
         this.controllerRobotPairings = new ConcurrentHashMap<>();
         this.controllerEnabled = new ConcurrentHashMap<>();
         this.executorService = Executors.newCachedThreadPool();
-        this.scheduledExecutor = Executors.newScheduledThreadPool(2);
+        // Controller detection only - input polling runs on the dedicated control loop
+        this.scheduledExecutor = Executors.newSingleThreadScheduledExecutor();
+        this.controlLoop = new ControlLoop(controlRateHz, this::pollControllerInputs);
 
         startControllerDetection();
         startInputPolling();
@@ -150,12 +180,7 @@ public class ControllerManager {
     }
     
     private void startInputPolling() {
-        if (isPolling) {
-            return;
-        }
-        
-        isPolling = true;
-        scheduledExecutor.scheduleAtFixedRate(this::pollControllerInputs, 0, 16, TimeUnit.MILLISECONDS);
+        controlLoop.start();
     }
     
     private void pollControllerInputs() {
@@ -172,8 +197,8 @@ public class ControllerManager {
                     continue; // Skip disabled controllers
                 }
 
-                ControllerInput input = readControllerInput(controller);
-                gameController.updateInput(input);
+                // Reads into the controller's preallocated buffer and publishes a snapshot for readers
+                ControllerInput input = gameController.pollInput();
 
                 String pairedRobotId = controllerRobotPairings.get(gameController.getId());
                 if (pairedRobotId != null && !emergencyStopActive && input.hasMovement()) {
@@ -194,59 +219,10 @@ public class ControllerManager {
         }
     }
     
-    private ControllerInput readControllerInput(Controller controller) {
-        ControllerInput input = new ControllerInput();
-        
-        Component[] components = controller.getComponents();
-        for (Component component : components) {
-            float value = component.getPollData();
-            String name = component.getName();
-            
-            switch (name.toLowerCase()) {
-                case "x":
-                case "x axis":
-                    input.setLeftStickX(value);
-                    break;
-                case "y":
-                case "y axis":
-                    input.setLeftStickY(-value); // Invert Y axis
-                    break;
-                case "rx":
-                case "z rotation":
-                    input.setRightStickX(value);
-                    break;
-                case "ry":
-                case "z axis":
-                    input.setRightStickY(-value); // Invert Y axis
-                    break;
-                case "z":
-                case "left trigger":
-                    input.setLeftTrigger(value);
-                    break;
-                case "rz":
-                case "right trigger":
-                    input.setRightTrigger(value);
-                    break;
-                case "pov":
-                case "hat switch":
-                    input.setDPad(value);
-                    break;
-                default:
-                    if (component.getIdentifier() instanceof Component.Identifier.Button) {
-                        Component.Identifier.Button button = (Component.Identifier.Button) component.getIdentifier();
-                        int buttonIndex = button.toString().hashCode() % 16; // Simple mapping for up to 16 buttons
-                        input.setButton(buttonIndex, value > 0.5f);
-                    }
-                    break;
-            }
-        }
-        
-        return input;
-    }
-    
     public void pairControllerWithRobot(String controllerId, String robotId) {
         if (connectedControllers.containsKey(controllerId)) {
             controllerRobotPairings.put(controllerId, robotId);
+            robotManager.getJournal().recordController(MatchJournal.Type.CONTROLLER_PAIRED, controllerId, robotId);
             
             if (robotManager.getRobot(robotId) != null) {
                 robotManager.getRobot(robotId).setPairedControllerId(controllerId);
@@ -261,6 +237,7 @@ public class ControllerManager {
     public void unpairController(String controllerId) {
         String robotId = controllerRobotPairings.remove(controllerId);
         if (robotId != null) {
+            robotManager.getJournal().recordController(MatchJournal.Type.CONTROLLER_UNPAIRED, controllerId, robotId);
             if (robotManager.getRobot(robotId) != null) {
                 robotManager.getRobot(robotId).setPairedControllerId(null);
             }
@@ -291,6 +268,8 @@ public class ControllerManager {
     public void enableController(String controllerId) {
         if (connectedControllers.containsKey(controllerId)) {
             controllerEnabled.put(controllerId, true);
+            robotManager.getJournal().recordController(MatchJournal.Type.CONTROLLER_ENABLED, controllerId,
+                                                       controllerRobotPairings.get(controllerId));
             logger.info("Enabled controller: {}", controllerId);
         }
     }
@@ -298,6 +277,8 @@ public class ControllerManager {
     public void disableController(String controllerId) {
         if (connectedControllers.containsKey(controllerId)) {
             controllerEnabled.put(controllerId, false);
+            robotManager.getJournal().recordController(MatchJournal.Type.CONTROLLER_DISABLED, controllerId,
+                                                       controllerRobotPairings.get(controllerId));
             logger.info("Disabled controller: {}", controllerId);
 
             // Stop robot if it was paired
@@ -314,25 +295,56 @@ public class ControllerManager {
     }
 
     public void stopPolling() {
-        isPolling = false;
+        controlLoop.stop();
     }
     
     public void startPolling() {
-        if (!isPolling) {
-            startInputPolling();
+        startInputPolling();
+    }
+
+    /**
+     * Change the control loop tick rate (50, 100 or 200 Hz). Restarts the loop if running.
+     */
+    public synchronized void setControlRate(int rateHz) {
+        if (rateHz == controlLoop.getRateHz()) {
+            return;
         }
+        ControlLoop replacement = new ControlLoop(rateHz, this::pollControllerInputs);
+        boolean wasRunning = controlLoop.isRunning();
+        controlLoop.stop();
+        controlLoop = replacement;
+        if (wasRunning) {
+            replacement.start();
+        }
+    }
+
+    public ControlLoop getControlLoop() {
+        return controlLoop;
+    }
+
+    public EmergencyStopDispatcher.Burst activateEmergencyStop() {
+        return activateEmergencyStop(System.nanoTime());
     }
 
-    public void activateEmergencyStop() {
+    /**
+     * @param requestedNanos System.nanoTime() when the stop was requested, for the dispatch latency
+     */
+    public EmergencyStopDispatcher.Burst activateEmergencyStop(long requestedNanos) {
         emergencyStopActive = true;
+        EmergencyStopDispatcher.Burst burst = robotManager.emergencyStopAll(requestedNanos);
         logger.warn("Emergency stop activated - controller inputs disabled");
-        robotManager.emergencyStopAll();
+        return burst;
+    }
+
+    public EmergencyStopDispatcher.Burst deactivateEmergencyStop() {
+        return deactivateEmergencyStop(System.nanoTime());
     }
 
-    public void deactivateEmergencyStop() {
+    public EmergencyStopDispatcher.Burst deactivateEmergencyStop(long requestedNanos) {
         emergencyStopActive = false;
-        robotManager.deactivateEmergencyStop();
+        EmergencyStopDispatcher.Burst burst = robotManager.deactivateEmergencyStop(requestedNanos);
         logger.info("Emergency stop deactivated - controller inputs re-enabled");
+        return burst;
     }
 
     public boolean isEmergencyStopActive() {
@@ -466,7 +478,7 @@ public class ControllerManager {
     
     public void shutdown() {
         logger.info("Shutting down controller manager");
-        isPolling = false;
+        controlLoop.stop();
         
         if (scheduledExecutor != null) {
             scheduledExecutor.shutdown();
@@ -0,0 +1,231 @@
+package com.soccerbots.control.controller;
+
+import net.java.games.input.Component;
+import net.java.games.input.Controller;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+
+/**
+ * Per-device component mapping, built once when a controller is detected.
+ *
+ * Resolves every axis role and button to an int index into the controller's
+ * component array, so the per-tick read is a loop over primitive arrays with
+ * no string work. Button slots follow the robot convention
+ * (0 = A/Cross, 1 = B/Circle, 2 = X/Square, 3 = Y/Triangle).
+ */
+public class ControllerMapping {
+    private static final Logger logger = LoggerFactory.getLogger(ControllerMapping.class);
+
+    // Axis roles
+    public static final int LEFT_X = 0;
+    public static final int LEFT_Y = 1;
+    public static final int RIGHT_X = 2;
+    public static final int RIGHT_Y = 3;
+    public static final int LEFT_TRIGGER = 4;
+    public static final int RIGHT_TRIGGER = 5;
+    public static final int DPAD = 6;
+    private static final int AXIS_ROLES = 7;
+
+    public static final int MAX_BUTTONS = ControllerInput.MAX_BUTTONS;
+
+    // DirectInput DualShock/DualSense order: Square, Cross, Circle, Triangle, then shoulders etc.
+    private static final int[] PLAYSTATION_DIRECTINPUT_SLOTS = {2, 0, 1, 3};
+
+    private final String profile;
+    private final Component[] components;
+    private final int[] axisIndex;
+    private final int[] buttonIndex;
+    private final int[] buttonSlot;
+
+    private ControllerMapping(String profile, Component[] components, int[] axisIndex,
+                              int[] buttonIndex, int[] buttonSlot) {
+        this.profile = profile;
+        this.components = components;
+        this.axisIndex = axisIndex;
+        this.buttonIndex = buttonIndex;
+        this.buttonSlot = buttonSlot;
+    }
+
+    /**
+     * Build the mapping table for a controller using the profile for its type
+     * ("ps4", "ps5", "playstation", "xbox" or "gamepad").
+     */
+    public static ControllerMapping forController(Controller controller, String type) {
+        boolean playstation = type.startsWith("ps") || "playstation".equals(type);
+        Component[] components = controller.getComponents();
+
+        int[] axisIndex = new int[AXIS_ROLES];
+        Arrays.fill(axisIndex, -1);
+        int[] buttonIndex = new int[MAX_BUTTONS];
+        int[] buttonSlot = new int[MAX_BUTTONS];
+        boolean[] slotTaken = new boolean[MAX_BUTTONS];
+        int buttonCount = 0;
+        int buttonOrdinal = 0;
+
+        for (int i = 0; i < components.length; i++) {
+            Component component = components[i];
+            Component.Identifier identifier = component.getIdentifier();
+
+            if (identifier instanceof Component.Identifier.Button) {
+                int slot = buttonSlot(identifier, buttonOrdinal++, playstation);
+                if (slot < 0 || slot >= MAX_BUTTONS || slotTaken[slot]) {
+                    // Collision or out of range - fall back to the first free slot
+                    int requested = slot;
+                    slot = firstFreeSlot(slotTaken);
+                    if (slot < 0) {
+                        logger.debug("Ignoring button '{}' on {} - all {} slots used",
+                                     component.getName(), controller.getName(), MAX_BUTTONS);
+                        continue;
+                    }
+                    logger.debug("Button '{}' on {} remapped from slot {} to {}",
+                                 component.getName(), controller.getName(), requested, slot);
+                }
+                slotTaken[slot] = true;
+                buttonIndex[buttonCount] = i;
+                buttonSlot[buttonCount] = slot;
+                buttonCount++;
+                continue;
+            }
+
+            int role = axisRole(component.getName().toLowerCase(), playstation);
+            if (role >= 0) {
+                axisIndex[role] = i;
+            }
+        }
+
+        String profile = playstation ? "playstation" : ("xbox".equals(type) ? "xbox" : "generic");
+        logger.info("Built {} controller mapping for {}: {} axes, {} buttons", profile, controller.getName(),
+                    Arrays.stream(axisIndex).filter(index -> index >= 0).count(), buttonCount);
+
+        return new ControllerMapping(profile, components,
+                                     axisIndex, Arrays.copyOf(buttonIndex, buttonCount),
+                                     Arrays.copyOf(buttonSlot, buttonCount));
+    }
+
+    private static int axisRole(String name, boolean playstation) {
+        if (playstation) {
+            // DirectInput DualShock/DualSense: right stick on Z/RZ, triggers on RX/RY
+            switch (name) {
+                case "z axis":
+                    return RIGHT_X;
+                case "z rotation":
+                    return RIGHT_Y;
+                case "x rotation":
+                    return LEFT_TRIGGER;
+                case "y rotation":
+                    return RIGHT_TRIGGER;
+                default:
+                    break;
+            }
+        }
+
+        switch (name) {
+            case "x":
+            case "x axis":
+                return LEFT_X;
+            case "y":
+            case "y axis":
+                return LEFT_Y;
+            case "rx":
+            case "z rotation":
+                return RIGHT_X;
+            case "ry":
+            case "z axis":
+                return RIGHT_Y;
+            case "z":
+            case "left trigger":
+                return LEFT_TRIGGER;
+            case "rz":
+            case "right trigger":
+                return RIGHT_TRIGGER;
+            case "pov":
+            case "hat switch":
+                return DPAD;
+            default:
+                return -1;
+        }
+    }
+
+    private static int buttonSlot(Component.Identifier identifier, int ordinal, boolean playstation) {
+        // Numbered buttons (DirectInput, most HID pads) carry their raw index in the name
+        int raw = parseButtonNumber(identifier.getName());
+        if (raw >= 0) {
+            if (playstation && raw < PLAYSTATION_DIRECTINPUT_SLOTS.length) {
+                return PLAYSTATION_DIRECTINPUT_SLOTS[raw];
+            }
+            return raw;
+        }
+
+        // Named buttons (Linux evdev): A/B are south/east, X/Y are north/west on PlayStation pads
+        if (identifier == Component.Identifier.Button.A) {
+            return 0;
+        } else if (identifier == Component.Identifier.Button.B) {
+            return 1;
+        } else if (identifier == Component.Identifier.Button.X) {
+            return playstation ? 3 : 2;
+        } else if (identifier == Component.Identifier.Button.Y) {
+            return playstation ? 2 : 3;
+        }
+        return ordinal;
+    }
+
+    private static int parseButtonNumber(String name) {
+        if (name == null || name.isEmpty()) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int firstFreeSlot(boolean[] slotTaken) {
+        for (int slot = 0; slot < slotTaken.length; slot++) {
+            if (!slotTaken[slot]) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Read the latest poll data into the given input. Call after controller.poll().
+     */
+    public void read(ControllerInput input) {
+        input.setLeftStickX(axisValue(LEFT_X));
+        input.setLeftStickY(-axisValue(LEFT_Y)); // Invert Y axis
+        input.setRightStickX(axisValue(RIGHT_X));
+        input.setRightStickY(-axisValue(RIGHT_Y)); // Invert Y axis
+        input.setLeftTrigger(axisValue(LEFT_TRIGGER));
+        input.setRightTrigger(axisValue(RIGHT_TRIGGER));
+        input.setDPad(axisValue(DPAD));
+
+        int buttons = 0;
+        for (int i = 0; i < buttonIndex.length; i++) {
+            if (components[buttonIndex[i]].getPollData() > 0.5f) {
+                buttons |= 1 << buttonSlot[i];
+            }
+        }
+        input.setButtonMask(buttons);
+    }
+
+    private float axisValue(int role) {
+        int index = axisIndex[role];
+        return index >= 0 ? components[index].getPollData() : 0.0f;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    public int getButtonCount() {
+        return buttonIndex.length;
+    }
+}
@@ -2,17 +2,27 @@ package com.soccerbots.control.controller;
 
 import net.java.games.input.Controller;
 
+import java.lang.invoke.VarHandle;
+
 public class GameController {
     private final String id;
     private final Controller controller;
-    private ControllerInput lastInput;
-    private long lastUpdateTime;
-    private boolean isConnected;
+    private final ControllerMapping mapping;
+
+    // Poller-owned buffer, then copied into the seqlock-protected snapshot for readers
+    private final ControllerInput writeBuffer;
+    private final ControllerInput published;
+    private volatile long sequence; // odd while a publish is in progress
+
+    private volatile long lastUpdateTime;
+    private volatile boolean isConnected;
     
     public GameController(String id, Controller controller) {
         this.id = id;
         this.controller = controller;
-        this.lastInput = new ControllerInput();
+        this.mapping = ControllerMapping.forController(controller, getType());
+        this.writeBuffer = new ControllerInput();
+        this.published = new ControllerInput();
         this.lastUpdateTime = System.currentTimeMillis();
         this.isConnected = true;
     }
@@ -28,14 +38,60 @@ public class GameController {
     public String getName() {
         return controller.getName();
     }
+
+    /**
+     * Component index table built once at detection time
+     */
+    public ControllerMapping getMapping() {
+        return mapping;
+    }
     
+    /**
+     * Consistent copy of the latest published input. Safe from any thread.
+     */
     public ControllerInput getLastInput() {
-        return lastInput;
+        return readInput(new ControllerInput());
+    }
+
+    /**
+     * Copy the latest published input into the caller's buffer without tearing
+     */
+    public ControllerInput readInput(ControllerInput into) {
+        while (true) {
+            long before = sequence;
+            if ((before & 1) == 0) {
+                into.copyFrom(published);
+                VarHandle.loadLoadFence();
+                if (sequence == before) {
+                    return into;
+                }
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * Read the device into the preallocated buffer and publish it.
+     * Polling thread only; the returned buffer is reused on the next call.
+     */
+    public ControllerInput pollInput() {
+        mapping.read(writeBuffer);
+        publish();
+        return writeBuffer;
     }
     
     public void updateInput(ControllerInput input) {
-        this.lastInput = input;
-        this.lastUpdateTime = System.currentTimeMillis();
+        writeBuffer.copyFrom(input);
+        publish();
+    }
+
+    private void publish() {
+        long current = sequence;
+        sequence = current + 1;
+        VarHandle.storeStoreFence();
+        published.copyFrom(writeBuffer);
+        sequence = current + 2;
+        lastUpdateTime = System.currentTimeMillis();
     }
     
     public long getLastUpdateTime() {
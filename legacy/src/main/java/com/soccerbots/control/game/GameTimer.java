@@ -3,16 +3,22 @@ package com.soccerbots.control.game;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.swing.SwingUtilities;
 import javax.swing.Timer;
-import java.awt.event.ActionListener;
 import java.time.Duration;
-import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
-public class GameTimer {
+/**
+ * Swing-facing view of a {@link MatchClock}. The clock keeps the time; the Swing
+ * timer here only repaints, so a late or skipped repaint never changes the result.
+ */
+public class GameTimer implements MatchClock.Listener {
     private static final Logger logger = LoggerFactory.getLogger(GameTimer.class);
 
+    // Repaint interval for listeners; has no effect on timekeeping
+    private static final int REPAINT_MS = 100;
+
     public enum TimerState {
         STOPPED, RUNNING, PAUSED, FINISHED
     }
@@ -24,17 +30,30 @@ public class GameTimer {
     }
 
     private final List<GameTimerListener> listeners;
+    private final MatchClock clock;
+    private final boolean ownsClock;
     private Timer swingTimer;
-    private Duration gameDuration;
-    private Duration remainingTime;
-    private TimerState currentState;
-    private LocalTime lastTickTime;
 
     public GameTimer() {
-        this.listeners = new ArrayList<>();
-        this.currentState = TimerState.STOPPED;
-        this.gameDuration = Duration.ofMinutes(10); // Default 10 minutes
-        this.remainingTime = this.gameDuration;
+        this(new MatchClock(), true);
+    }
+
+    /**
+     * View a clock that is shared with other consumers (for example the API server)
+     */
+    public GameTimer(MatchClock clock) {
+        this(clock, false);
+    }
+
+    private GameTimer(MatchClock clock, boolean ownsClock) {
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.clock = clock;
+        this.ownsClock = ownsClock;
+        clock.addListener(this);
+    }
+
+    public MatchClock getClock() {
+        return clock;
     }
 
     public void addListener(GameTimerListener listener) {
@@ -46,95 +65,66 @@ public class GameTimer {
     }
 
     public void setGameDuration(Duration duration) {
-        if (currentState == TimerState.STOPPED) {
-            this.gameDuration = duration;
-            this.remainingTime = duration;
-            notifyListeners();
-        } else {
-            logger.warn("Cannot change game duration while timer is active");
-        }
+        clock.setDuration(duration.toMillis());
     }
 
     public void startTimer() {
-        if (currentState == TimerState.STOPPED || currentState == TimerState.PAUSED) {
-            logger.info("Starting game timer with {} remaining", formatDuration(remainingTime));
-
-            currentState = TimerState.RUNNING;
-            lastTickTime = LocalTime.now();
-
-            if (swingTimer == null) {
-                swingTimer = new Timer(100, this::handleTick); // Update every 100ms
-            }
-            swingTimer.start();
-
-            notifyStateChanged();
-        }
+        clock.start();
     }
 
     public void pauseTimer() {
-        if (currentState == TimerState.RUNNING) {
-            logger.info("Pausing game timer");
-            currentState = TimerState.PAUSED;
-
-            if (swingTimer != null) {
-                swingTimer.stop();
-            }
-
-            notifyStateChanged();
-        }
+        clock.pause();
     }
 
     public void stopTimer() {
-        logger.info("Stopping game timer");
-        currentState = TimerState.STOPPED;
-        remainingTime = gameDuration;
+        clock.stop();
+    }
 
-        if (swingTimer != null) {
-            swingTimer.stop();
+    public void resetTimer() {
+        if (!clock.stop()) {
+            notifyStateChanged();
         }
-
-        notifyStateChanged();
     }
 
-    public void resetTimer() {
-        stopTimer();
-        remainingTime = gameDuration;
+    @Override
+    public void onStateChanged(MatchClock.State state, MatchClock.Snapshot snapshot) {
+        if (state == MatchClock.State.RUNNING) {
+            startRepaint();
+        } else {
+            stopRepaint();
+        }
         notifyStateChanged();
     }
 
-    private void handleTick(java.awt.event.ActionEvent e) {
-        if (currentState != TimerState.RUNNING) {
-            return;
+    @Override
+    public void onPhase(MatchClock.Phase phase, MatchClock.Snapshot snapshot) {
+        if (phase == MatchClock.Phase.END) {
+            logger.info("Game timer finished");
+            notifyTimerFinished();
         }
+    }
 
-        LocalTime now = LocalTime.now();
-        Duration elapsed = Duration.between(lastTickTime, now);
-        lastTickTime = now;
-
-        remainingTime = remainingTime.minus(elapsed);
-
-        if (remainingTime.isNegative() || remainingTime.isZero()) {
-            // Timer finished
-            remainingTime = Duration.ZERO;
-            currentState = TimerState.FINISHED;
+    private void startRepaint() {
+        SwingUtilities.invokeLater(() -> {
+            if (swingTimer == null) {
+                swingTimer = new Timer(REPAINT_MS, e -> notifyTimerTick());
+            }
+            swingTimer.start();
+        });
+    }
 
+    private void stopRepaint() {
+        SwingUtilities.invokeLater(() -> {
             if (swingTimer != null) {
                 swingTimer.stop();
             }
-
-            logger.info("Game timer finished");
-            notifyTimerFinished();
-            notifyStateChanged();
-        } else {
-            // Regular tick
-            notifyTimerTick();
-        }
+        });
     }
 
     private void notifyStateChanged() {
         for (GameTimerListener listener : listeners) {
             try {
-                listener.onTimerStateChanged(currentState, remainingTime);
+                listener.onTimerStateChanged(getCurrentState(), getRemainingTime());
             } catch (Exception e) {
                 logger.error("Error notifying timer state change", e);
             }
@@ -154,43 +144,40 @@ public class GameTimer {
     private void notifyTimerTick() {
         for (GameTimerListener listener : listeners) {
             try {
-                listener.onTimerTick(remainingTime);
+                listener.onTimerTick(getRemainingTime());
             } catch (Exception e) {
                 logger.error("Error notifying timer tick", e);
             }
         }
     }
 
-    private void notifyListeners() {
-        notifyStateChanged();
-    }
-
     // Getters
     public TimerState getCurrentState() {
-        return currentState;
+        return TimerState.valueOf(clock.getSnapshot().state.name());
     }
 
     public Duration getRemainingTime() {
-        return remainingTime;
+        return Duration.ofMillis(clock.getSnapshot().remainingMs());
     }
 
     public Duration getGameDuration() {
-        return gameDuration;
+        return Duration.ofMillis(clock.getSnapshot().durationMs());
     }
 
     public Duration getElapsedTime() {
-        return gameDuration.minus(remainingTime);
+        return Duration.ofMillis(clock.getSnapshot().elapsedMs());
     }
 
     public double getProgressPercentage() {
-        if (gameDuration.isZero()) {
+        MatchClock.Snapshot snapshot = clock.getSnapshot();
+        if (snapshot.durationMs() == 0) {
             return 0.0;
         }
-        return (double) getElapsedTime().toMillis() / gameDuration.toMillis() * 100.0;
+        return (double) snapshot.elapsedMs() / snapshot.durationMs() * 100.0;
     }
 
     public String getFormattedRemainingTime() {
-        return formatDuration(remainingTime);
+        return formatDuration(getRemainingTime());
     }
 
     public String getFormattedElapsedTime() {
@@ -208,6 +195,10 @@ public class GameTimer {
         if (swingTimer != null) {
             swingTimer.stop();
         }
+        clock.removeListener(this);
+        if (ownsClock) {
+            clock.shutdown();
+        }
         listeners.clear();
     }
 }
\ No newline at end of file
@@ -0,0 +1,364 @@
+package com.soccerbots.control.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * The one match clock, shared by the API server and the Swing timer panel.
+ *
+ * Time is measured with {@link System#nanoTime()} from the moment the match started
+ * (minus time spent paused), never by summing tick intervals, so it cannot drift and
+ * does not care about wall-clock changes or midnight. State lives in an immutable
+ * {@link Snapshot} swapped with compare-and-set, so start, pause, resume and stop are
+ * atomic no matter which thread calls them.
+ *
+ * A match is an optional autonomous period followed by teleop. Phase callbacks and
+ * once-a-second ticks are scheduled for the exact instant they fall due rather than
+ * polled, and ticks report the scheduled remaining time, a whole number of seconds.
+ */
+public class MatchClock {
+    private static final Logger logger = LoggerFactory.getLogger(MatchClock.class);
+
+    public static final long DEFAULT_DURATION_MS = TimeUnit.MINUTES.toMillis(10);
+    private static final long TICK_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    public enum State { STOPPED, RUNNING, PAUSED, FINISHED }
+
+    public enum Phase { AUTONOMOUS, TELEOP, END }
+
+    public interface Listener {
+        default void onStateChanged(State state, Snapshot snapshot) {
+        }
+
+        default void onPhase(Phase phase, Snapshot snapshot) {
+        }
+
+        /**
+         * Once per whole second of remaining time while running
+         */
+        default void onTick(long remainingMs, Snapshot snapshot) {
+        }
+    }
+
+    /**
+     * Immutable clock state. While running, elapsed time is derived from {@code startNanos}.
+     */
+    public static final class Snapshot {
+        public final State state;
+        public final long durationNanos;
+        public final long autonomousNanos;
+        // nanoTime at which the match would have started had it never paused
+        final long startNanos;
+        // Elapsed time while not running
+        final long frozenElapsedNanos;
+        // Changes on every transition; scheduled callbacks from an older generation are ignored
+        final long generation;
+
+        Snapshot(State state, long durationNanos, long autonomousNanos, long startNanos,
+                 long frozenElapsedNanos, long generation) {
+            this.state = state;
+            this.durationNanos = durationNanos;
+            this.autonomousNanos = autonomousNanos;
+            this.startNanos = startNanos;
+            this.frozenElapsedNanos = frozenElapsedNanos;
+            this.generation = generation;
+        }
+
+        public long elapsedNanos(long nowNanos) {
+            long elapsed = state == State.RUNNING ? nowNanos - startNanos : frozenElapsedNanos;
+            return Math.max(0, Math.min(durationNanos, elapsed));
+        }
+
+        public long elapsedMs() {
+            return TimeUnit.NANOSECONDS.toMillis(elapsedNanos(System.nanoTime()));
+        }
+
+        /**
+         * Rounded up, so the full duration reads exactly at the start and 0 only at the end
+         */
+        public long remainingMs() {
+            long remaining = durationNanos - elapsedNanos(System.nanoTime());
+            return (remaining + 999_999) / 1_000_000;
+        }
+
+        public long durationMs() {
+            return TimeUnit.NANOSECONDS.toMillis(durationNanos);
+        }
+
+        public long autonomousMs() {
+            return TimeUnit.NANOSECONDS.toMillis(autonomousNanos);
+        }
+
+        public boolean isRunning() {
+            return state == State.RUNNING;
+        }
+
+        public Phase phase() {
+            return phaseAt(elapsedNanos(System.nanoTime()));
+        }
+
+        Phase phaseAt(long elapsedNanos) {
+            if (state == State.FINISHED || elapsedNanos >= durationNanos) {
+                return Phase.END;
+            }
+            return elapsedNanos < autonomousNanos ? Phase.AUTONOMOUS : Phase.TELEOP;
+        }
+
+        Snapshot with(State state, long startNanos, long frozenElapsedNanos) {
+            return new Snapshot(state, durationNanos, autonomousNanos, startNanos, frozenElapsedNanos, generation + 1);
+        }
+    }
+
+    private final AtomicReference<Snapshot> current;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler;
+    private final List<Pending> pending = new CopyOnWriteArrayList<>();
+
+    private static final class Pending {
+        final long generation;
+        final ScheduledFuture<?> future;
+
+        Pending(long generation, ScheduledFuture<?> future) {
+            this.generation = generation;
+            this.future = future;
+        }
+    }
+
+    public MatchClock() {
+        this(DEFAULT_DURATION_MS, 0);
+    }
+
+    public MatchClock(long durationMs, long autonomousMs) {
+        long duration = TimeUnit.MILLISECONDS.toNanos(durationMs);
+        this.current = new AtomicReference<>(new Snapshot(State.STOPPED, duration,
+            Math.min(duration, TimeUnit.MILLISECONDS.toNanos(autonomousMs)), 0, 0, 0));
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "match-clock");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY + 1);
+            return thread;
+        });
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public Snapshot getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Start from the beginning (stopped or finished) or resume a paused match
+     *
+     * @return false if the match was already running
+     */
+    public boolean start() {
+        long now = System.nanoTime();
+        Snapshot started = transition(s -> {
+            switch (s.state) {
+                case STOPPED:
+                case FINISHED:
+                    return s.with(State.RUNNING, now, 0);
+                case PAUSED:
+                    return s.with(State.RUNNING, now - s.frozenElapsedNanos, 0);
+                default:
+                    return null;
+            }
+        });
+        if (started == null) {
+            return false;
+        }
+        long elapsed = started.elapsedNanos(now);
+        logger.info("Match clock running, {} ms remaining", TimeUnit.NANOSECONDS.toMillis(started.durationNanos - elapsed));
+        fireStateChanged(started);
+        // The phase in progress, then the boundaries still ahead
+        firePhase(started.phaseAt(elapsed), started);
+        schedule(started, elapsed);
+        return true;
+    }
+
+    /**
+     * @return false if the match was not running
+     */
+    public boolean pause() {
+        long now = System.nanoTime();
+        Snapshot paused = transition(s -> s.state == State.RUNNING
+            ? s.with(State.PAUSED, 0, s.elapsedNanos(now)) : null);
+        if (paused == null) {
+            return false;
+        }
+        cancelPending(paused.generation);
+        logger.info("Match clock paused at {} ms remaining", paused.remainingMs());
+        fireStateChanged(paused);
+        return true;
+    }
+
+    public boolean resume() {
+        return current.get().state == State.PAUSED && start();
+    }
+
+    /**
+     * Back to the full duration, not running
+     *
+     * @return false if already stopped
+     */
+    public boolean stop() {
+        Snapshot stopped = transition(s -> s.state != State.STOPPED ? s.with(State.STOPPED, 0, 0) : null);
+        if (stopped == null) {
+            return false;
+        }
+        cancelPending(stopped.generation);
+        logger.info("Match clock stopped");
+        fireStateChanged(stopped);
+        return true;
+    }
+
+    /**
+     * Change the match length; only while stopped or finished, which also resets the clock
+     *
+     * @return false if the match is running or paused
+     */
+    public boolean setDuration(long durationMs, long autonomousMs) {
+        long duration = TimeUnit.MILLISECONDS.toNanos(Math.max(0, durationMs));
+        long autonomous = Math.min(duration, TimeUnit.MILLISECONDS.toNanos(Math.max(0, autonomousMs)));
+        Snapshot updated = transition(s -> s.state == State.STOPPED || s.state == State.FINISHED
+            ? new Snapshot(State.STOPPED, duration, autonomous, 0, 0, s.generation + 1) : null);
+        if (updated == null) {
+            logger.warn("Cannot change match duration while the match is active");
+            return false;
+        }
+        fireStateChanged(updated);
+        return true;
+    }
+
+    public boolean setDuration(long durationMs) {
+        return setDuration(durationMs, current.get().autonomousMs());
+    }
+
+    private Snapshot transition(UnaryOperator<Snapshot> change) {
+        while (true) {
+            Snapshot before = current.get();
+            Snapshot after = change.apply(before);
+            if (after == null) {
+                return null;
+            }
+            if (current.compareAndSet(before, after)) {
+                return after;
+            }
+        }
+    }
+
+    /**
+     * Schedule the teleop boundary, the end and the next whole-second tick of this generation
+     */
+    private void schedule(Snapshot running, long elapsedNanos) {
+        cancelPending(running.generation);
+        if (elapsedNanos < running.autonomousNanos) {
+            at(running, running.autonomousNanos, () -> firePhase(Phase.TELEOP, running));
+        }
+        at(running, running.durationNanos, () -> finish(running));
+        scheduleTick(running, elapsedNanos);
+    }
+
+    private void scheduleTick(Snapshot running, long elapsedNanos) {
+        long remaining = running.durationNanos - elapsedNanos;
+        // Next instant the remaining time is a whole number of seconds (the end has its own task)
+        long nextRemaining = ((remaining - 1) / TICK_NANOS) * TICK_NANOS;
+        if (nextRemaining <= 0) {
+            return;
+        }
+        long tickAt = running.durationNanos - nextRemaining;
+        at(running, tickAt, () -> {
+            fireTick(TimeUnit.NANOSECONDS.toMillis(nextRemaining), running);
+            scheduleTick(running, tickAt);
+        });
+    }
+
+    /**
+     * Run the task when the match has been running for elapsedNanos, unless the generation has moved on
+     */
+    private void at(Snapshot running, long elapsedNanos, Runnable task) {
+        long delay = running.startNanos + elapsedNanos - System.nanoTime();
+        pending.removeIf(p -> p.future.isDone());
+        pending.add(new Pending(running.generation, scheduler.schedule(() -> {
+            if (current.get().generation == running.generation) {
+                task.run();
+            }
+        }, Math.max(0, delay), TimeUnit.NANOSECONDS)));
+    }
+
+    private void finish(Snapshot running) {
+        Snapshot finished = transition(s -> s.generation == running.generation
+            ? s.with(State.FINISHED, 0, s.durationNanos) : null);
+        if (finished == null) {
+            return;
+        }
+        cancelPending(finished.generation);
+        logger.info("Match clock finished");
+        fireTick(0, finished);
+        fireStateChanged(finished);
+        firePhase(Phase.END, finished);
+    }
+
+    /**
+     * Cancel callbacks scheduled before this generation; a concurrent start's newer ones stay
+     */
+    private void cancelPending(long generation) {
+        for (Pending p : pending) {
+            if (p.generation < generation) {
+                p.future.cancel(false);
+                pending.remove(p);
+            }
+        }
+    }
+
+    private void fireStateChanged(Snapshot snapshot) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onStateChanged(snapshot.state, snapshot);
+            } catch (Exception e) {
+                logger.error("Error notifying match state change", e);
+            }
+        }
+    }
+
+    private void firePhase(Phase phase, Snapshot snapshot) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onPhase(phase, snapshot);
+            } catch (Exception e) {
+                logger.error("Error notifying match phase {}", phase, e);
+            }
+        }
+    }
+
+    private void fireTick(long remainingMs, Snapshot snapshot) {
+        for (Listener listener : listeners) {
+            try {
+                listener.onTick(remainingMs, snapshot);
+            } catch (Exception e) {
+                logger.error("Error notifying match tick", e);
+            }
+        }
+    }
+
+    public void shutdown() {
+        cancelPending(Long.MAX_VALUE);
+        scheduler.shutdownNow();
+        listeners.clear();
+    }
+}
@@ -1,5 +1,6 @@
 package com.soccerbots.control.gui;
 
+import com.soccerbots.control.controller.ControllerInput;
 import com.soccerbots.control.controller.ControllerManager;
 import com.soccerbots.control.controller.GameController;
 import javafx.animation.FadeTransition;
@@ -145,13 +146,16 @@ public class ControllerPanel {
         HBox joysticks = new HBox(30);
         joysticks.setAlignment(Pos.CENTER);
 
+        // One consistent snapshot for the whole visual
+        ControllerInput input = controller.getLastInput();
+
         // Left joystick
         VBox leftJoystick = createJoystickVisual("Left Stick",
-            controller.getLastInput().getLeftStickX(), controller.getLastInput().getLeftStickY());
+            input.getLeftStickX(), input.getLeftStickY());
 
         // Right joystick
         VBox rightJoystick = createJoystickVisual("Right Stick",
-            controller.getLastInput().getRightStickX(), controller.getLastInput().getRightStickY());
+            input.getRightStickX(), input.getRightStickY());
 
         joysticks.getChildren().addAll(leftJoystick, rightJoystick);
 
@@ -162,7 +166,7 @@ public class ControllerPanel {
         for (int i = 0; i < 4; i++) {
             Circle buttonIndicator = new Circle(8);
             buttonIndicator.getStyleClass().add("button-indicator");
-            if (controller.getLastInput().getButton(i)) {
+            if (input.getButton(i)) {
                 buttonIndicator.setFill(Color.LIGHTBLUE);
             } else {
                 buttonIndicator.setFill(Color.GRAY);
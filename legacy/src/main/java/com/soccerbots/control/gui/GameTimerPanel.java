@@ -2,6 +2,7 @@ package com.soccerbots.control.gui;
 
 import com.soccerbots.control.controller.ControllerManager;
 import com.soccerbots.control.game.GameTimer;
+import com.soccerbots.control.game.MatchClock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,8 +30,19 @@ public class GameTimerPanel extends JPanel implements GameTimer.GameTimerListene
     private JCheckBox emergencyStopOnFinishCheckBox;
 
     public GameTimerPanel(ControllerManager controllerManager) {
+        this(controllerManager, new GameTimer());
+    }
+
+    /**
+     * Panel on a clock shared with other consumers, such as the API server in the same process
+     */
+    public GameTimerPanel(ControllerManager controllerManager, MatchClock clock) {
+        this(controllerManager, new GameTimer(clock));
+    }
+
+    private GameTimerPanel(ControllerManager controllerManager, GameTimer gameTimer) {
         this.controllerManager = controllerManager;
-        this.gameTimer = new GameTimer();
+        this.gameTimer = gameTimer;
         this.gameTimer.addListener(this);
 
         initializeComponents();
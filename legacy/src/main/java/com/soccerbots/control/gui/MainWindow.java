@@ -56,6 +56,7 @@ public class MainWindow {
 
     private void initializeManagers() {
         networkManager = new NetworkManager();
+        networkManager.start();
         robotManager = new RobotManager(networkManager);
         controllerManager = new ControllerManager(robotManager);
     }
@@ -1,7 +1,10 @@
 package com.soccerbots.control.gui;
 
+import com.soccerbots.control.metrics.LatencyHistogram;
+import com.soccerbots.control.robot.LinkQuality;
 import com.soccerbots.control.robot.Robot;
 import com.soccerbots.control.robot.RobotManager;
+import com.soccerbots.control.robot.TelemetryRing;
 import javafx.animation.FadeTransition;
 import javafx.animation.ScaleTransition;
 import javafx.application.Platform;
@@ -162,6 +165,10 @@ public class RobotPanel {
         Label lastSeenLabel = new Label("Last seen " + timeSinceLastSeen + "s ago");
         lastSeenLabel.getStyleClass().add("robot-last-seen");
 
+        // Link quality from command ACKs (this match only) and battery from telemetry
+        Label linkLabel = new Label(formatLink(robot));
+        linkLabel.getStyleClass().add("robot-last-seen");
+
         // Action buttons with Grok styling
         HBox buttonRow = new HBox(8);
         buttonRow.setAlignment(Pos.CENTER);
@@ -180,7 +187,7 @@ public class RobotPanel {
 
         buttonRow.getChildren().addAll(testButton, stopButton, removeButton);
 
-        card.getChildren().addAll(nameRow, ipLabel, statusLabel, lastSeenLabel, buttonRow);
+        card.getChildren().addAll(nameRow, ipLabel, statusLabel, lastSeenLabel, linkLabel, buttonRow);
 
         // Add Grok hover animation
         addCardAnimations(card);
@@ -188,6 +195,28 @@ public class RobotPanel {
         return card;
     }
 
+    /**
+     * "p50 4.2ms  p99 11.0ms  loss 0.5%  7.4V", with parts left out until measured
+     */
+    private static String formatLink(Robot robot) {
+        StringBuilder text = new StringBuilder();
+        LinkQuality link = robot.getLinkQuality();
+        if (link.hasSamples()) {
+            LatencyHistogram rtt = link.getRtt();
+            text.append(String.format("p50 %.1fms  p99 %.1fms",
+                rtt.getPercentileNanos(50) / 1_000_000.0, rtt.getPercentileNanos(99) / 1_000_000.0));
+        }
+        double loss = link.getLossRatio();
+        if (loss >= 0) {
+            text.append(String.format("  loss %.1f%%", loss * 100.0));
+        }
+        TelemetryRing.Sample telemetry = new TelemetryRing.Sample();
+        if (robot.getTelemetry().latest(telemetry)) {
+            text.append(String.format("  %.1fV", telemetry.batteryMillivolts / 1000.0));
+        }
+        return text.length() > 0 ? text.toString().trim() : "Link not measured";
+    }
+
     private void addCardAnimations(VBox card) {
         // Grok-style subtle animations (150ms)
         ScaleTransition scaleIn = new ScaleTransition(Duration.millis(150), card);
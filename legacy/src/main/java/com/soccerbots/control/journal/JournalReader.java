@@ -0,0 +1,235 @@
+package com.soccerbots.control.journal;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static com.soccerbots.control.journal.MatchJournal.*;
+
+/**
+ * Read-only view of one journaled match: its first file plus the {@code -1}, {@code -2}...
+ * segments it continued in.
+ *
+ * Segments are memory-mapped and records are read in place by index, so iterating a
+ * match allocates nothing. A segment that was never closed (the host died mid-match)
+ * has no record count; it is read up to the first record that was never written.
+ */
+public class JournalReader {
+    // match-yyyyMMdd-HHmmss[_n], without the -1, -2... of continuation segments
+    private static final Pattern FIRST_FILE = Pattern.compile("[a-z]+-\\d{8}-\\d{6}(_\\d+)?");
+
+    private final Path file;
+    private final MappedByteBuffer[] segments;
+    // Index of the first record of each segment, plus the total at the end
+    private final int[] firstRecord;
+    private final long startEpochMs;
+    private final String[] slotNames = new String[NO_SLOT];
+    private final long durationNanos;
+
+    private JournalReader(Path file, List<MappedByteBuffer> segments) {
+        this.file = file;
+        this.segments = segments.toArray(new MappedByteBuffer[0]);
+        this.firstRecord = new int[this.segments.length + 1];
+        for (int i = 0; i < this.segments.length; i++) {
+            firstRecord[i + 1] = firstRecord[i] + countRecords(this.segments[i]);
+        }
+        this.startEpochMs = this.segments.length > 0 ? this.segments[0].getLong(16) : 0;
+
+        long last = 0;
+        for (int i = 0; i < size(); i++) {
+            if (type(i) == Type.ROBOT_NAME && slot(i) < NO_SLOT) {
+                slotNames[slot(i)] = name(i);
+            }
+            last = Math.max(last, timeNanos(i));
+        }
+        this.durationNanos = last;
+    }
+
+    /**
+     * Open a match by its first file; later segments are picked up automatically
+     */
+    public static JournalReader open(Path file) throws IOException {
+        List<MappedByteBuffer> segments = new ArrayList<>();
+        segments.add(map(file));
+        String base = baseName(file);
+        for (int index = 1; ; index++) {
+            Path next = file.resolveSibling(base + "-" + index + FILE_SUFFIX);
+            if (!Files.exists(next)) {
+                break;
+            }
+            segments.add(map(next));
+        }
+        return new JournalReader(file, segments);
+    }
+
+    /**
+     * First files of every journaled match and session in a directory, oldest first
+     */
+    public static List<Path> listMatches(Path directory) throws IOException {
+        List<Path> matches = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return matches;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                 .filter(path -> FIRST_FILE.matcher(baseName(path)).matches())
+                 .sorted()
+                 .forEach(matches::add);
+        }
+        return matches;
+    }
+
+    private static String baseName(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(FILE_SUFFIX) ? name.substring(0, name.length() - FILE_SUFFIX.length()) : name;
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not a match journal: " + path);
+            }
+            if (buffer.getShort(6) != RECORD_SIZE || buffer.getInt(8) != HEADER_SIZE) {
+                throw new IOException("Unsupported journal layout (version " + buffer.getShort(4) + "): " + path);
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * The count from the header, or a scan to the first unwritten record if it was never closed
+     */
+    private static int countRecords(MappedByteBuffer buffer) {
+        int capacity = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE;
+        long count = buffer.getLong(32);
+        if (count > 0) {
+            return (int) Math.min(count, capacity);
+        }
+        int scanned = 0;
+        while (scanned < capacity && buffer.get(HEADER_SIZE + scanned * RECORD_SIZE + 8) != 0) {
+            scanned++;
+        }
+        return scanned;
+    }
+
+    private MappedByteBuffer segmentOf(int record) {
+        for (int i = 1; i < firstRecord.length; i++) {
+            if (record < firstRecord[i]) {
+                return segments[i - 1];
+            }
+        }
+        throw new IndexOutOfBoundsException("Record " + record + " of " + size());
+    }
+
+    private int offsetOf(int record) {
+        for (int i = 1; i < firstRecord.length; i++) {
+            if (record < firstRecord[i]) {
+                return HEADER_SIZE + (record - firstRecord[i - 1]) * RECORD_SIZE;
+            }
+        }
+        throw new IndexOutOfBoundsException("Record " + record + " of " + size());
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public int size() {
+        return firstRecord[firstRecord.length - 1];
+    }
+
+    public int getSegmentCount() {
+        return segments.length;
+    }
+
+    /**
+     * Wall-clock time of record time zero (the match start)
+     */
+    public long getStartEpochMs() {
+        return startEpochMs;
+    }
+
+    /**
+     * Time of the last record
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * The robot id journaled for a slot, or null if the match never named it
+     */
+    public String robotName(int slot) {
+        return slot >= 0 && slot < slotNames.length ? slotNames[slot] : null;
+    }
+
+    // ---- Record fields by index ----
+
+    public long timeNanos(int record) {
+        return segmentOf(record).getLong(offsetOf(record));
+    }
+
+    /**
+     * @return the type, or null for a code this version does not know
+     */
+    public Type type(int record) {
+        return Type.fromCode(segmentOf(record).get(offsetOf(record) + 8));
+    }
+
+    public int slot(int record) {
+        return segmentOf(record).get(offsetOf(record) + 9) & 0xFF;
+    }
+
+    public int buttons(int record) {
+        return segmentOf(record).getShort(offsetOf(record) + 10) & 0xFFFF;
+    }
+
+    public int leftX(int record) {
+        return segmentOf(record).get(offsetOf(record) + 12) & 0xFF;
+    }
+
+    public int leftY(int record) {
+        return segmentOf(record).get(offsetOf(record) + 13) & 0xFF;
+    }
+
+    public int rightX(int record) {
+        return segmentOf(record).get(offsetOf(record) + 14) & 0xFF;
+    }
+
+    public int rightY(int record) {
+        return segmentOf(record).get(offsetOf(record) + 15) & 0xFF;
+    }
+
+    public int value(int record) {
+        return segmentOf(record).getInt(offsetOf(record) + 16);
+    }
+
+    public int aux(int record) {
+        return segmentOf(record).getInt(offsetOf(record) + 20);
+    }
+
+    /**
+     * The id carried by robot name and controller records
+     */
+    public String name(int record) {
+        MappedByteBuffer segment = segmentOf(record);
+        int offset = offsetOf(record) + NAME_OFFSET;
+        byte[] bytes = new byte[NAME_LENGTH];
+        int length = 0;
+        while (length < NAME_LENGTH && (bytes[length] = segment.get(offset + length)) != 0) {
+            length++;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
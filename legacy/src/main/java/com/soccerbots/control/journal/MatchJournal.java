@@ -0,0 +1,627 @@
+package com.soccerbots.control.journal;
+
+import com.soccerbots.control.game.MatchClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only binary log of what happened in a match: every command frame, robot
+ * state change, emergency stop, game state and match clock event.
+ *
+ * Records are fixed-size and written with absolute puts into a memory-mapped file
+ * segment, so recording allocates nothing and costs a few nanoseconds on the calling
+ * thread; the OS writes the pages back. Writers claim a slot with one atomic add, so
+ * the control loop, the discovery thread and the API never wait on each other.
+ *
+ * Only a running match is recorded: a new file is started every time a match starts,
+ * and when a segment fills up; pausing stops recording until the match resumes, and
+ * stopping or finishing closes the file. Once the directory holds more than the
+ * retention limit, the oldest files are deleted.
+ *
+ * File layout (little-endian): a {@value #HEADER_SIZE}-byte header, then
+ * {@value #RECORD_SIZE}-byte records.
+ * <pre>
+ * header  0 magic "SBJ1"   4 version u16   6 record size u16   8 header size i32
+ *        12 segment index i32  16 start epoch ms i64  24 reserved
+ *        32 record count i64 (written when the segment is closed, 0 while open)  40 reserved
+ * record  0 nanos since match start i64   8 type u8 (0 = never written)   9 robot slot u8
+ *        10 buttons u16  12 left x, left y, right x, right y u8
+ *        16 value i32  20 aux i32  24 reserved
+ * </pre>
+ * Robots are identified by a slot number; a {@link Type#ROBOT_NAME} record carrying the
+ * id in bytes 16-31 precedes a slot's first use in every segment.
+ */
+public class MatchJournal implements MatchClock.Listener {
+    private static final Logger logger = LoggerFactory.getLogger(MatchJournal.class);
+
+    public static final int MAGIC = 0x314A4253; // "SBJ1" little-endian
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 64;
+    public static final int RECORD_SIZE = 32;
+    public static final int NAME_OFFSET = 16;
+    public static final int NAME_LENGTH = 16;
+    public static final int NO_SLOT = 255;
+    public static final long DEFAULT_SEGMENT_MB = 16;
+    // 64 full segments, roughly 19 hours of 8 robots at 60 Hz
+    public static final long DEFAULT_RETAIN_MB = 1024;
+    public static final String FILE_SUFFIX = ".sbj";
+    private static final long RETRY_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Record types; the code is the byte on disk
+     */
+    public enum Type {
+        // Frame sent to a robot after game-state gating: axes and buttons
+        COMMAND(1),
+        // value: new RobotState ordinal, aux: previous
+        ROBOT_STATE(2),
+        // value: number of robots addressed
+        ESTOP(3),
+        ESTOP_OFF(4),
+        // value: GAME_STATE_* code
+        GAME_STATE(5),
+        // value: MatchClock.State ordinal, aux: remaining ms
+        MATCH_STATE(6),
+        // value: MatchClock.Phase ordinal, aux: remaining ms
+        MATCH_PHASE(7),
+        // aux: remaining ms
+        MATCH_TICK(8),
+        // Slot to robot id; the id is in the name bytes
+        ROBOT_NAME(9),
+        // Controller events for the paired robot's slot; the controller id is in the name bytes
+        CONTROLLER_PAIRED(10),
+        CONTROLLER_UNPAIRED(11),
+        CONTROLLER_ENABLED(12),
+        CONTROLLER_DISABLED(13);
+
+        public final byte code;
+
+        private static final Type[] BY_CODE = new Type[16];
+
+        static {
+            for (Type type : values()) {
+                BY_CODE[type.code] = type;
+            }
+        }
+
+        Type(int code) {
+            this.code = (byte) code;
+        }
+
+        /**
+         * @return the type, or null for 0 (unwritten) and unknown codes
+         */
+        public static Type fromCode(int code) {
+            return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        }
+    }
+
+    public static final int GAME_STATE_STANDBY = 0;
+    public static final int GAME_STATE_TELEOP = 1;
+    public static final int GAME_STATE_OTHER = 2;
+
+    /**
+     * One mapped file. Writers claim record offsets with {@link #claim}; once full or
+     * retired, every claim fails and the writer moves to the current segment.
+     */
+    private static final class Segment {
+        final Path path;
+        final int index;
+        final MappedByteBuffer buffer;
+        final int capacity;
+        final AtomicLong next = new AtomicLong(HEADER_SIZE);
+
+        Segment(Path path, int index, MappedByteBuffer buffer) {
+            this.path = path;
+            this.index = index;
+            this.buffer = buffer;
+            this.capacity = buffer.capacity();
+        }
+
+        /**
+         * @return offset of a free record, or -1 if the segment is full or retired
+         */
+        int claim() {
+            long offset = next.getAndAdd(RECORD_SIZE);
+            return offset + RECORD_SIZE <= capacity ? (int) offset : -1;
+        }
+
+        long recordCount() {
+            return (Math.min(next.get(), capacity) - HEADER_SIZE) / RECORD_SIZE;
+        }
+    }
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long retainBytes;
+    private final boolean enabled;
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();
+    private final String[] slotNames = new String[NO_SLOT];
+    private final ExecutorService closer;
+
+    private volatile Segment current;
+    private volatile boolean closed = false;
+    // True while a match runs; nothing is recorded otherwise
+    private volatile boolean recording = false;
+    // After a failed open, records are dropped until this time instead of retrying each one
+    private volatile long retryAtNanos;
+    // Record timestamps count from here; reset when a match starts
+    private volatile long baseNanos = System.nanoTime();
+    private volatile long baseEpochMs = System.currentTimeMillis();
+    private String baseName;
+    private int nextSegmentIndex;
+    private MatchClock.State lastMatchState;
+
+    private final AtomicLong recordsWritten = new AtomicLong();
+    private volatile long segmentsOpened = 0;
+    private volatile long segmentsDeleted = 0;
+    private volatile long failures = 0;
+
+    /**
+     * Configured by {@code soccerbots.control.journal} (default false),
+     * {@code soccerbots.control.journalDir} (default "journal"),
+     * {@code soccerbots.control.journalSegmentMb} (default {@value #DEFAULT_SEGMENT_MB}) and
+     * {@code soccerbots.control.journalRetainMb} (default {@value #DEFAULT_RETAIN_MB})
+     */
+    public MatchJournal() {
+        this(Boolean.getBoolean("soccerbots.control.journal"),
+             Paths.get(System.getProperty("soccerbots.control.journalDir", "journal")),
+             Long.getLong("soccerbots.control.journalSegmentMb", DEFAULT_SEGMENT_MB),
+             Long.getLong("soccerbots.control.journalRetainMb", DEFAULT_RETAIN_MB));
+    }
+
+    public MatchJournal(boolean enabled, Path directory, long segmentMb) {
+        this(enabled, directory, segmentMb, DEFAULT_RETAIN_MB);
+    }
+
+    /**
+     * @param retainMb total size of journal files to keep; never less than one segment
+     */
+    public MatchJournal(boolean enabled, Path directory, long segmentMb, long retainMb) {
+        this.enabled = enabled;
+        this.directory = directory;
+        long bytes = Math.max(1, Math.min(1024, segmentMb)) * 1024 * 1024;
+        this.segmentBytes = (int) bytes;
+        this.retainBytes = Math.max(bytes, retainMb * 1024 * 1024);
+        this.closer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "match-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            logger.info("Match journal writing to {} ({} MB segments, keeping {} MB)",
+                        directory.toAbsolutePath(), bytes >> 20, retainBytes >> 20);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * True while a match runs and records are being kept
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    // ---- Recording ----
+
+    /**
+     * A command frame that went on the wire to a robot, as quantized for the wire
+     */
+    public void recordCommand(String robotId, int leftX, int leftY, int rightX, int rightY, int buttons) {
+        if (recording) {
+            int axes = (leftX & 0xFF) | (leftY & 0xFF) << 8 | (rightX & 0xFF) << 16 | (rightY & 0xFF) << 24;
+            write(Type.COMMAND, slotOf(robotId), buttons, axes, 0, 0);
+        }
+    }
+
+    public void recordRobotState(String robotId, int from, int to) {
+        if (recording) {
+            write(Type.ROBOT_STATE, slotOf(robotId), 0, 0, to, from);
+        }
+    }
+
+    public void recordEmergencyStop(boolean engage, int robots) {
+        if (recording) {
+            write(engage ? Type.ESTOP : Type.ESTOP_OFF, NO_SLOT, 0, 0, robots, 0);
+        }
+    }
+
+    public void recordGameState(String gameState) {
+        if (recording) {
+            int code = "teleop".equals(gameState) ? GAME_STATE_TELEOP
+                     : "standby".equals(gameState) ? GAME_STATE_STANDBY : GAME_STATE_OTHER;
+            write(Type.GAME_STATE, NO_SLOT, 0, 0, code, 0);
+        }
+    }
+
+    /**
+     * A controller event for the robot it drives (null if unpaired)
+     */
+    public void recordController(Type type, String controllerId, String robotId) {
+        if (!recording) {
+            return;
+        }
+        int slot = robotId != null ? slotOf(robotId) : NO_SLOT;
+        Segment segment = current;
+        int offset;
+        while (segment == null || (offset = segment.claim()) < 0) {
+            if ((segment = roll(segment)) == null) {
+                return;
+            }
+        }
+        writeName(segment.buffer, offset, type, slot, controllerId);
+    }
+
+    /**
+     * Claim a record in the current segment, rolling to a new one when it is full
+     */
+    private void write(Type type, int slot, int buttons, int axes, int value, int aux) {
+        Segment segment = current;
+        int offset;
+        while (segment == null || (offset = segment.claim()) < 0) {
+            if ((segment = roll(segment)) == null) {
+                return;
+            }
+        }
+        MappedByteBuffer buffer = segment.buffer;
+        buffer.putLong(offset, System.nanoTime() - baseNanos);
+        buffer.put(offset + 9, (byte) slot);
+        buffer.putShort(offset + 10, (short) buttons);
+        buffer.putInt(offset + 12, axes);
+        buffer.putInt(offset + 16, value);
+        buffer.putInt(offset + 20, aux);
+        commit(buffer, offset, type);
+    }
+
+    /**
+     * The type byte goes in last, so a reader never takes a half-written record for a whole one
+     */
+    private void commit(MappedByteBuffer buffer, int offset, Type type) {
+        buffer.put(offset + 8, type.code);
+        recordsWritten.incrementAndGet();
+    }
+
+    private void writeName(MappedByteBuffer buffer, int offset, Type type, int slot, String name) {
+        buffer.putLong(offset, System.nanoTime() - baseNanos);
+        buffer.put(offset + 9, (byte) slot);
+        buffer.putShort(offset + 10, (short) 0);
+        buffer.putInt(offset + 12, 0);
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(NAME_LENGTH, bytes.length);
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            buffer.put(offset + NAME_OFFSET + i, i < length ? bytes[i] : 0);
+        }
+        commit(buffer, offset, type);
+    }
+
+    /**
+     * The robot's slot, assigning the next free one (and naming it) on first sight
+     */
+    private int slotOf(String robotId) {
+        Integer slot = slots.get(robotId);
+        if (slot != null) {
+            return slot;
+        }
+        synchronized (this) {
+            slot = slots.get(robotId);
+            if (slot != null) {
+                return slot;
+            }
+            int assigned = slots.size();
+            if (assigned >= NO_SLOT) {
+                return NO_SLOT;
+            }
+            slotNames[assigned] = robotId;
+            slots.put(robotId, assigned);
+            Segment segment = current;
+            if (segment != null) {
+                nameSlot(segment, assigned);
+            }
+            return assigned;
+        }
+    }
+
+    private void nameSlot(Segment segment, int slot) {
+        int offset = segment.claim();
+        if (offset >= 0) {
+            writeName(segment.buffer, offset, Type.ROBOT_NAME, slot, slotNames[slot]);
+        }
+    }
+
+    /**
+     * Replace a full segment (or reopen after a failure); null if closed, outside a match
+     * or no file can be opened
+     */
+    private synchronized Segment roll(Segment full) {
+        Segment segment = current;
+        if (segment != full) {
+            // Another writer already rolled
+            return segment;
+        }
+        if (closed || !recording || baseName == null
+                || (segment == null && System.nanoTime() < retryAtNanos)) {
+            return null;
+        }
+        return openSegment();
+    }
+
+    /**
+     * Start a new file for a new match and start recording; later records are timed from now
+     */
+    public void rotate() {
+        rotate(System.nanoTime());
+    }
+
+    /**
+     * Start a new file for a match that started at this System.nanoTime()
+     */
+    public synchronized void rotate(long startNanos) {
+        if (!enabled || closed) {
+            return;
+        }
+        baseNanos = startNanos;
+        baseEpochMs = System.currentTimeMillis() - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        newBaseName("match-");
+        recording = true;
+        openSegment();
+    }
+
+    /**
+     * The match is over: stop recording and close its file
+     */
+    private synchronized void finishMatch() {
+        recording = false;
+        Segment segment = current;
+        current = null;
+        if (segment != null) {
+            retire(segment);
+        }
+    }
+
+    /**
+     * A timestamped name no earlier file uses, for the segments to come
+     */
+    private void newBaseName(String prefix) {
+        String name = prefix + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        String unique = name;
+        for (int n = 2; Files.exists(directory.resolve(unique + FILE_SUFFIX)); n++) {
+            unique = name + "_" + n;
+        }
+        baseName = unique;
+        nextSegmentIndex = 0;
+    }
+
+    /**
+     * Map the next file of this match, name every known slot in it and retire the old one
+     */
+    private Segment openSegment() {
+        Segment previous = current;
+        try {
+            Files.createDirectories(directory);
+            int index = nextSegmentIndex++;
+            Path path = directory.resolve(index == 0 ? baseName + FILE_SUFFIX : baseName + "-" + index + FILE_SUFFIX);
+
+            MappedByteBuffer buffer;
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                     StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+            }
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC);
+            buffer.putShort(4, (short) VERSION);
+            buffer.putShort(6, (short) RECORD_SIZE);
+            buffer.putInt(8, HEADER_SIZE);
+            buffer.putInt(12, index);
+            buffer.putLong(16, baseEpochMs);
+
+            Segment segment = new Segment(path, index, buffer);
+            for (int slot = 0; slot < slots.size() && slotNames[slot] != null; slot++) {
+                nameSlot(segment, slot);
+            }
+            current = segment;
+            segmentsOpened++;
+            logger.info("Match journal segment opened: {}", path);
+        } catch (IOException e) {
+            failures++;
+            retryAtNanos = System.nanoTime() + RETRY_NANOS;
+            logger.error("Could not open match journal segment in {}: {}", directory, e.getMessage());
+            current = null;
+        }
+        if (previous != null) {
+            retire(previous);
+        }
+        Segment opened = current;
+        if (opened != null) {
+            // Queued after the retirement, so the previous segment is flushed before it can go
+            closer.execute(() -> deleteOldSegments(opened.path));
+        }
+        return opened;
+    }
+
+    /**
+     * Stop new claims, then write the record count and flush off the caller's thread.
+     * The file keeps its full size; the tail after the last record is zeros.
+     */
+    private void retire(Segment segment) {
+        long claimed = segment.next.getAndSet(Integer.MAX_VALUE);
+        long count = (Math.min(claimed, segment.capacity) - HEADER_SIZE) / RECORD_SIZE;
+        closer.execute(() -> {
+            segment.buffer.putLong(32, count);
+            segment.buffer.force();
+            logger.info("Match journal segment closed: {} ({} records)", segment.path, count);
+        });
+    }
+
+    /**
+     * Delete the oldest journal files until the directory fits the retention limit.
+     * Runs on the closer thread; the segment just opened is always kept.
+     */
+    private void deleteOldSegments(Path keep) {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(FILE_SUFFIX))
+                           .collect(Collectors.toList());
+        } catch (IOException e) {
+            logger.warn("Could not list match journal directory {}: {}", directory, e.getMessage());
+            return;
+        }
+        Map<Path, FileTime> modified = new HashMap<>();
+        long total = 0;
+        for (Path file : files) {
+            try {
+                modified.put(file, Files.getLastModifiedTime(file));
+                total += Files.size(file);
+            } catch (IOException e) {
+                // Deleted meanwhile
+            }
+        }
+        files.removeIf(file -> !modified.containsKey(file) || file.equals(keep));
+        files.sort(Comparator.comparing(modified::get));
+        for (Path file : files) {
+            if (total <= retainBytes) {
+                break;
+            }
+            try {
+                long size = Files.size(file);
+                Files.deleteIfExists(file);
+                total -= size;
+                segmentsDeleted++;
+                logger.info("Match journal segment deleted to stay under {} MB: {}", retainBytes >> 20, file);
+            } catch (IOException e) {
+                logger.warn("Could not delete old match journal segment {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    // ---- Match clock ----
+
+    @Override
+    public void onStateChanged(MatchClock.State state, MatchClock.Snapshot snapshot) {
+        MatchClock.State previous;
+        synchronized (this) {
+            previous = lastMatchState;
+            lastMatchState = state;
+        }
+        if (!enabled) {
+            return;
+        }
+        if (state == MatchClock.State.RUNNING) {
+            if (previous != MatchClock.State.PAUSED && previous != MatchClock.State.RUNNING) {
+                // A new match, not a resume
+                long now = System.nanoTime();
+                rotate(now - snapshot.elapsedNanos(now));
+            } else {
+                recording = true;
+            }
+        }
+        // Still recording when leaving RUNNING, so the pause or the end is in the file
+        if (recording) {
+            write(Type.MATCH_STATE, NO_SLOT, 0, 0, state.ordinal(), (int) snapshot.remainingMs());
+        }
+        if (state == MatchClock.State.PAUSED) {
+            recording = false;
+        } else if (state == MatchClock.State.STOPPED || state == MatchClock.State.FINISHED) {
+            finishMatch();
+        }
+    }
+
+    @Override
+    public void onPhase(MatchClock.Phase phase, MatchClock.Snapshot snapshot) {
+        if (recording) {
+            write(Type.MATCH_PHASE, NO_SLOT, 0, 0, phase.ordinal(), (int) snapshot.remainingMs());
+        }
+    }
+
+    @Override
+    public void onTick(long remainingMs, MatchClock.Snapshot snapshot) {
+        if (recording) {
+            write(Type.MATCH_TICK, NO_SLOT, 0, 0, 0, (int) remainingMs);
+        }
+    }
+
+    // ---- Status ----
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * The file currently being written, or null outside a match
+     */
+    public Path getCurrentFile() {
+        Segment segment = current;
+        return segment != null ? segment.path : null;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("recording", recording);
+        stats.put("directory", directory.toAbsolutePath().toString());
+        stats.put("segmentBytes", segmentBytes);
+        stats.put("recordSize", RECORD_SIZE);
+        stats.put("recordsWritten", recordsWritten.get());
+        stats.put("segmentsOpened", segmentsOpened);
+        stats.put("segmentsDeleted", segmentsDeleted);
+        stats.put("retainBytes", retainBytes);
+        stats.put("failures", failures);
+        stats.put("robotSlots", slots.size());
+        Segment segment = current;
+        if (segment != null) {
+            stats.put("file", segment.path.toString());
+            stats.put("segment", segment.index);
+            stats.put("segmentRecords", segment.recordCount());
+            stats.put("segmentCapacity", (segment.capacity - HEADER_SIZE) / RECORD_SIZE);
+        }
+        return stats;
+    }
+
+    /**
+     * Close the current segment and wait for it to reach the disk
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            recording = false;
+            Segment segment = current;
+            current = null;
+            if (segment != null) {
+                retire(segment);
+            }
+        }
+        closer.shutdown();
+        try {
+            closer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
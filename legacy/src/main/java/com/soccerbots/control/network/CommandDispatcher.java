@@ -0,0 +1,288 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+import com.soccerbots.control.robot.ESP32Command;
+import com.soccerbots.control.robot.Robot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Dedicated sender thread for all host-to-robot UDP traffic.
+ *
+ * Movement frames go through a per-robot {@link CommandMailbox} and are coalesced
+ * so only the newest stick position is ever sent. Safety and status messages
+ * (ESTOP, ESTOP_OFF, game status) use a separate FIFO priority lane that is never
+ * coalesced and is always drained before movement frames. Robots that negotiated
+ * fleet mode share a single broadcast {@link FleetFrame} instead of a mailbox.
+ */
+public class CommandDispatcher implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(CommandDispatcher.class);
+
+    // Upper bound on how long the thread sleeps when it misses a wake-up
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final CommandSender sender;
+    private final Queue<PriorityMessage> priorityLane;
+    private final Map<String, CommandMailbox> mailboxesById;
+    private volatile CommandMailbox[] mailboxes;
+    private final FleetFrame fleetFrame;
+    private final LatencyHistogram movementQueueDelay;
+    private final LatencyHistogram priorityQueueDelay;
+    private final Thread thread;
+
+    private volatile boolean running = false;
+
+    public CommandDispatcher(CommandSender sender, InetSocketAddress fleetTarget) {
+        this.sender = sender;
+        this.fleetFrame = new FleetFrame(fleetTarget);
+        this.priorityLane = new ConcurrentLinkedQueue<>();
+        this.mailboxesById = new ConcurrentHashMap<>();
+        this.mailboxes = new CommandMailbox[0];
+        this.movementQueueDelay = new LatencyHistogram();
+        this.priorityQueueDelay = new LatencyHistogram();
+        this.thread = new Thread(this, "command-dispatcher");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info("Command dispatcher started");
+    }
+
+    /**
+     * Post a movement frame; replaces any frame for the same robot that has not been sent yet
+     */
+    public void postMovement(Robot robot, int leftX, int leftY, int rightX, int rightY,
+                             boolean cross, boolean circle, boolean square, boolean triangle) {
+        int slot = robot.getFleetSlot();
+        if (slot >= 0) {
+            int buttons = (cross ? ESP32Command.BUTTON_CROSS : 0) | (circle ? ESP32Command.BUTTON_CIRCLE : 0)
+                        | (square ? ESP32Command.BUTTON_SQUARE : 0) | (triangle ? ESP32Command.BUTTON_TRIANGLE : 0);
+            fleetFrame.post(slot, leftX, leftY, rightX, rightY, buttons);
+            LockSupport.unpark(thread);
+            return;
+        }
+
+        CommandMailbox mailbox = mailboxesById.get(robot.getId());
+        if (mailbox == null) {
+            mailbox = registerMailbox(robot);
+        }
+        mailbox.post(robot, leftX, leftY, rightX, rightY, cross, circle, square, triangle);
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Queue a safety or status message on the priority lane. Never coalesced or dropped.
+     */
+    public void postPriority(byte[] data, InetSocketAddress target, String description) {
+        priorityLane.offer(new PriorityMessage(data, target, description));
+        LockSupport.unpark(thread);
+    }
+
+    /**
+     * Reserve a fleet frame slot for the robot. The robot keeps receiving unicast
+     * frames until it confirms the slot and {@link Robot#setFleetSlot} is called.
+     *
+     * @return slot index, or -1 if every slot is taken
+     */
+    public int reserveFleetSlot(Robot robot) {
+        return fleetFrame.assignSlot(robot);
+    }
+
+    /**
+     * Slot reserved for the robot, or -1 if it holds none
+     */
+    public int getReservedFleetSlot(Robot robot) {
+        return fleetFrame.slotOf(robot);
+    }
+
+    /**
+     * Return the robot to unicast and free its fleet slot
+     */
+    public void releaseFleetSlot(Robot robot) {
+        robot.setFleetSlot(-1);
+        fleetFrame.releaseSlot(robot);
+    }
+
+    public void setFleetTarget(InetSocketAddress target) {
+        fleetFrame.setTarget(target);
+    }
+
+    /**
+     * Drop a robot's mailbox once it left the registry; a later frame registers a new one
+     */
+    public synchronized void removeMailbox(Robot robot) {
+        CommandMailbox mailbox = mailboxesById.remove(robot.getId());
+        if (mailbox == null) {
+            return;
+        }
+        CommandMailbox[] updated = new CommandMailbox[mailboxes.length - 1];
+        int next = 0;
+        for (CommandMailbox current : mailboxes) {
+            if (current != mailbox) {
+                updated[next++] = current;
+            }
+        }
+        mailboxes = updated;
+    }
+
+    private synchronized CommandMailbox registerMailbox(Robot robot) {
+        CommandMailbox mailbox = mailboxesById.get(robot.getId());
+        if (mailbox == null) {
+            mailbox = new CommandMailbox(robot);
+            mailboxesById.put(robot.getId(), mailbox);
+            CommandMailbox[] updated = Arrays.copyOf(mailboxes, mailboxes.length + 1);
+            updated[updated.length - 1] = mailbox;
+            mailboxes = updated;
+        }
+        return mailbox;
+    }
+
+    @Override
+    public void run() {
+        while (running || !priorityLane.isEmpty()) {
+            try {
+                if (!drainPriorityLane()) {
+                    // Socket buffer full - back off briefly and retry safety messages first
+                    LockSupport.parkNanos(RETRY_PARK_NANOS);
+                    continue;
+                }
+
+                boolean sentAny = false;
+                CommandMailbox[] current = mailboxes;
+                for (CommandMailbox mailbox : current) {
+                    long delay = mailbox.drainTo(sender);
+                    if (delay >= 0) {
+                        movementQueueDelay.record(delay);
+                        sentAny = true;
+                    }
+                }
+
+                // All fleet robots share one datagram per pass
+                long fleetDelay = fleetFrame.drainTo(sender);
+                if (fleetDelay >= 0) {
+                    movementQueueDelay.record(fleetDelay);
+                    sentAny = true;
+                }
+
+                if (!sentAny && priorityLane.isEmpty() && running) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+            } catch (Exception e) {
+                logger.error("Command dispatcher error", e);
+            }
+        }
+        logger.info("Command dispatcher stopped");
+    }
+
+    /**
+     * @return false if a message could not be written and must be retried
+     */
+    private boolean drainPriorityLane() {
+        PriorityMessage message;
+        while ((message = priorityLane.peek()) != null) {
+            try {
+                if (message.target.isUnresolved()) {
+                    logger.error("Failed to send {} - unresolved address {}", message.description, message.target);
+                } else if (!sender.sendRaw(message.data, message.target)) {
+                    return false;
+                } else {
+                    logger.info("Sent {} to {}", message.description, message.target);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to send " + message.description + " to " + message.target, e);
+            }
+            priorityLane.poll();
+            priorityQueueDelay.record(System.nanoTime() - message.enqueuedNanos);
+        }
+        return true;
+    }
+
+    public long getFramesCoalesced() {
+        long total = 0;
+        for (CommandMailbox mailbox : mailboxes) {
+            total += mailbox.getFramesCoalesced();
+        }
+        return total;
+    }
+
+    public long getFramesPosted() {
+        long total = 0;
+        for (CommandMailbox mailbox : mailboxes) {
+            total += mailbox.getFramesPosted();
+        }
+        return total;
+    }
+
+    public long getFleetFramesSent() {
+        return fleetFrame.getFramesSent();
+    }
+
+    public long getFleetFramesDropped() {
+        return fleetFrame.getFramesDropped();
+    }
+
+    public long getFleetSlotUpdates() {
+        return fleetFrame.getSlotUpdates();
+    }
+
+    public int getFleetSize() {
+        return fleetFrame.getAssignedSlots();
+    }
+
+    public InetSocketAddress getFleetTarget() {
+        return fleetFrame.getTarget();
+    }
+
+    public int getPriorityLaneDepth() {
+        return priorityLane.size();
+    }
+
+    public LatencyHistogram getMovementQueueDelay() {
+        return movementQueueDelay;
+    }
+
+    public LatencyHistogram getPriorityQueueDelay() {
+        return priorityQueueDelay;
+    }
+
+    /**
+     * Stop after flushing any queued priority messages
+     */
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PriorityMessage {
+        final ByteBuffer data;
+        final InetSocketAddress target;
+        final String description;
+        final long enqueuedNanos;
+
+        PriorityMessage(byte[] data, InetSocketAddress target, String description) {
+            this.data = ByteBuffer.wrap(data);
+            this.target = target;
+            this.description = description;
+            this.enqueuedNanos = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.robot.Robot;
+
+/**
+ * Single-slot, latest-value-wins mailbox for one robot's movement frames.
+ * A frame posted before the previous one was sent replaces it, so a stalled
+ * link never replays stale stick positions.
+ */
+class CommandMailbox {
+    private Robot robot;
+    private int leftX;
+    private int leftY;
+    private int rightX;
+    private int rightY;
+    private boolean cross;
+    private boolean circle;
+    private boolean square;
+    private boolean triangle;
+
+    private boolean pending = false;
+    private long postedNanos;
+
+    private long framesPosted = 0;
+    private long framesCoalesced = 0;
+
+    CommandMailbox(Robot robot) {
+        this.robot = robot;
+    }
+
+    /**
+     * Store the newest frame, overwriting any frame that has not been sent yet
+     */
+    synchronized void post(Robot robot, int leftX, int leftY, int rightX, int rightY,
+                           boolean cross, boolean circle, boolean square, boolean triangle) {
+        if (pending) {
+            framesCoalesced++;
+        } else {
+            pending = true;
+            postedNanos = System.nanoTime();
+        }
+        framesPosted++;
+
+        this.robot = robot;
+        this.leftX = leftX;
+        this.leftY = leftY;
+        this.rightX = rightX;
+        this.rightY = rightY;
+        this.cross = cross;
+        this.circle = circle;
+        this.square = square;
+        this.triangle = triangle;
+    }
+
+    /**
+     * Send the pending frame, if any. Runs on the dispatcher thread only.
+     *
+     * @return queueing delay in nanoseconds, or -1 if nothing was pending
+     */
+    long drainTo(CommandSender sender) {
+        Robot target;
+        int lx, ly, rx, ry;
+        boolean x, o, s, t;
+        long delay;
+
+        synchronized (this) {
+            if (!pending) {
+                return -1;
+            }
+            pending = false;
+            delay = System.nanoTime() - postedNanos;
+            target = robot;
+            lx = leftX;
+            ly = leftY;
+            rx = rightX;
+            ry = rightY;
+            x = cross;
+            o = circle;
+            s = square;
+            t = triangle;
+        }
+
+        sender.send(target, lx, ly, rx, ry, x, o, s, t);
+        return delay;
+    }
+
+    synchronized long getFramesPosted() {
+        return framesPosted;
+    }
+
+    synchronized long getFramesCoalesced() {
+        return framesCoalesced;
+    }
+}
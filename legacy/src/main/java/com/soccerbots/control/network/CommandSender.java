@@ -0,0 +1,195 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.robot.ESP32Command;
+import com.soccerbots.control.robot.LinkQuality;
+import com.soccerbots.control.robot.Robot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Sender stage for binary ESP32 movement commands.
+ * Encodes into each robot's reusable direct buffer and writes it through a
+ * non-blocking DatagramChannel, so the steady-state path allocates nothing.
+ */
+public class CommandSender {
+    private static final Logger logger = LoggerFactory.getLogger(CommandSender.class);
+
+    // Packets sent before allocation accounting starts (class loading, JIT, address caching)
+    private static final long WARMUP_PACKETS = 10_000;
+
+    private final DatagramChannel channel;
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private long packetsSent = 0;
+    private long packetsDropped = 0;
+    private long sendFailures = 0;
+    private long bytesSent = 0;
+    private long steadyStateAllocations = 0;
+
+    public CommandSender() throws IOException {
+        this.channel = DatagramChannel.open();
+        this.channel.configureBlocking(false);
+        this.channel.setOption(StandardSocketOptions.SO_BROADCAST, true);
+        this.threadBean = allocationTracker();
+        logger.info("Command sender initialized (non-blocking DatagramChannel, allocation tracking {})",
+                    threadBean != null ? "enabled" : "unavailable");
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTracker() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    return sunBean;
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("Thread allocation tracking not available: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Encode and send a movement command.
+     * Format: robotName(16 bytes) + axes(6 bytes) + buttons(2 bytes) [+ sequence(2) + timestamp(4)]
+     */
+    public synchronized void send(Robot robot, int leftX, int leftY, int rightX, int rightY,
+                                  boolean cross, boolean circle, boolean square, boolean triangle) {
+        long allocatedBefore = threadBean != null ? threadBean.getCurrentThreadAllocatedBytes() : 0;
+
+        InetSocketAddress target = robot.getCommandAddress();
+        if (target == null || target.isUnresolved()) {
+            sendFailures++;
+            return;
+        }
+
+        ByteBuffer packet = robot.getCommandBuffer();
+
+        // Axes data (6 bytes) - 0-255 range
+        packet.put(16, (byte) Math.max(0, Math.min(255, leftX)));
+        packet.put(17, (byte) Math.max(0, Math.min(255, leftY)));
+        packet.put(18, (byte) Math.max(0, Math.min(255, rightX)));
+        packet.put(19, (byte) Math.max(0, Math.min(255, rightY)));
+        packet.put(20, (byte) 125); // unused axis
+        packet.put(21, (byte) 125); // unused axis
+
+        // Button data (2 bytes)
+        byte button1 = 0;
+        if (cross) button1 |= 0x01;
+        if (circle) button1 |= 0x02;
+        if (square) button1 |= 0x04;
+        if (triangle) button1 |= 0x08;
+
+        packet.put(22, button1);
+        packet.put(23, (byte) 0); // unused buttons
+
+        // Extended format: sequence + host timestamp, echoed back by the robot in an ACK
+        int length = ESP32Command.PACKET_SIZE;
+        int sequence = -1;
+        long now = 0;
+        if (robot.isExtendedProtocol()) {
+            now = System.nanoTime();
+            sequence = robot.nextCommandSequence();
+            packet.putShort(24, (short) sequence);
+            packet.putInt(26, LinkQuality.timestampMicros(now));
+            length = ESP32Command.EXTENDED_PACKET_SIZE;
+        }
+
+        packet.clear();
+        packet.limit(length);
+        try {
+            // Robots on an assigned port may have their own connected channel
+            RobotChannel dedicated = robot.getDedicatedChannel();
+            int written = dedicated != null && dedicated.isOpen()
+                ? dedicated.write(packet) : channel.send(packet, target);
+            if (written == 0) {
+                // Socket buffer full - drop rather than block the control loop
+                packetsDropped++;
+            } else {
+                packetsSent++;
+                bytesSent += length;
+                if (sequence >= 0) {
+                    robot.getLinkQuality().onSent(sequence, now);
+                }
+            }
+        } catch (IOException e) {
+            sendFailures++;
+            logger.error("Failed to send robot command to " + robot.getIpAddress(), e);
+            return;
+        }
+
+        // Check the allocation first so the warmup branch never turns hot code cold
+        if (threadBean != null && threadBean.getCurrentThreadAllocatedBytes() != allocatedBefore
+                && packetsSent > WARMUP_PACKETS) {
+            steadyStateAllocations++;
+        }
+    }
+
+    /**
+     * Send a pre-built datagram such as a safety or status message.
+     *
+     * @return false if the socket buffer was full and the message must be retried
+     */
+    public synchronized boolean sendRaw(ByteBuffer data, InetSocketAddress target) throws IOException {
+        data.rewind();
+        int sent = channel.send(data, target);
+        bytesSent += sent;
+        return sent > 0;
+    }
+
+    /**
+     * Total UDP payload bytes written, movement and priority traffic combined
+     */
+    /**
+     * Install a robot's dedicated channel (null for the shared one) and close the channel it
+     * replaces. Under the send lock, so a send that already picked up the old channel finishes
+     * its write before the channel closes.
+     */
+    public synchronized void replaceDedicatedChannel(Robot robot, RobotChannel channel) {
+        RobotChannel previous = robot.getDedicatedChannel();
+        robot.setDedicatedChannel(channel);
+        if (previous != null && previous != channel) {
+            previous.close();
+        }
+    }
+
+    public synchronized long getBytesSent() {
+        return bytesSent;
+    }
+
+    public synchronized long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public synchronized long getPacketsDropped() {
+        return packetsDropped;
+    }
+
+    public synchronized long getSendFailures() {
+        return sendFailures;
+    }
+
+    /**
+     * Number of post-warmup packets whose encode/send path allocated on the heap.
+     * Expected to stay at zero; -1 if the JVM cannot measure per-thread allocation.
+     */
+    public synchronized long getSteadyStateAllocations() {
+        return threadBean != null ? steadyStateAllocations : -1;
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing command channel: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.soccerbots.control.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * SSID probe that runs an OS tool and parses its output.
+ * Forking is slow, so this only runs on the background refresher, never on a request path.
+ */
+class CommandSsidProbe implements SsidProbe {
+    private static final Logger logger = LoggerFactory.getLogger(CommandSsidProbe.class);
+
+    private static final long TIMEOUT_SECONDS = 3;
+
+    private final String[] command;
+    private final Function<List<String>, String> parser;
+    private volatile boolean available = true;
+
+    CommandSsidProbe(String[] command, Function<List<String>, String> parser) {
+        this.command = command;
+        this.parser = parser;
+    }
+
+    static CommandSsidProbe windows() {
+        return new CommandSsidProbe(new String[] {"netsh", "wlan", "show", "interfaces"}, lines -> {
+            boolean connected = false;
+            String ssid = null;
+            for (String line : lines) {
+                if (line.contains("State") && line.contains("connected") && !line.contains("disconnected")) {
+                    connected = true;
+                } else if (line.contains("SSID") && !line.contains("BSSID")) {
+                    int colon = line.indexOf(':');
+                    if (colon >= 0) {
+                        ssid = line.substring(colon + 1).trim();
+                    }
+                }
+            }
+            return connected ? ssid : null;
+        });
+    }
+
+    static CommandSsidProbe linux() {
+        // Prints just the SSID, or nothing (non-zero exit) when not associated
+        return new CommandSsidProbe(new String[] {"iwgetid", "-r"},
+            lines -> lines.isEmpty() ? null : lines.get(0).trim());
+    }
+
+    static CommandSsidProbe macOs() {
+        return new CommandSsidProbe(new String[] {"networksetup", "-getairportnetwork", "en0"}, lines -> {
+            for (String line : lines) {
+                int marker = line.indexOf("Current Wi-Fi Network:");
+                if (marker >= 0) {
+                    return line.substring(marker + "Current Wi-Fi Network:".length()).trim();
+                }
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public String currentSsid() {
+        if (!available) {
+            return null;
+        }
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            // Drain on a side thread so the timeout below still applies to a tool that hangs
+            List<String> lines = Collections.synchronizedList(new ArrayList<>());
+            Thread drainer = new Thread(() -> drain(process, lines), "ssid-probe-output");
+            drainer.setDaemon(true);
+            drainer.start();
+            if (!process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                logger.debug("SSID probe '{}' timed out after {}s", command[0], TIMEOUT_SECONDS);
+                return null;
+            }
+            // A child the tool left behind can hold the pipe open; don't wait on it forever
+            drainer.join(TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+            if (process.exitValue() != 0) {
+                return null;
+            }
+            String ssid;
+            synchronized (lines) {
+                ssid = parser.apply(new ArrayList<>(lines));
+            }
+            return ssid == null || ssid.isEmpty() ? null : ssid;
+        } catch (java.io.IOException e) {
+            // Tool not installed - stop forking for the rest of the session
+            available = false;
+            logger.info("SSID probe '{}' unavailable: {}", command[0], e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private static void drain(Process process, List<String> lines) {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        } catch (java.io.IOException e) {
+            // Stream closed by destroyForcibly after a timeout
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.soccerbots.control.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Dedicated receiver for the discovery port.
+ *
+ * Blocks on a DatagramChannel and hands every datagram to the listener as soon
+ * as it arrives, so bursts of pings are drained instead of one per poll. The
+ * receive buffer is reused and messages are parsed straight from its bytes;
+ * robot ids are interned in a small cache so steady-state ACKs do not allocate.
+ * The timestamp handed to the listener is taken when the datagram is read off the
+ * socket, before parsing.
+ */
+public class DiscoveryReceiver implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(DiscoveryReceiver.class);
+
+    private static final byte[] DISCOVER_PREFIX = "DISCOVER:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ACK_PREFIX = "ACK:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CAPABILITY_SEQ = "SEQ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CAPABILITY_PORT = "PORT".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] CAPABILITY_FLEET = "FLEET".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_DATAGRAM = 512;
+    private static final int ID_CACHE_SIZE = 64;
+
+    // Argument of a capability the ping does not list; -1 means listed without a usable number
+    public static final int NOT_ADVERTISED = -2;
+
+    public interface Listener {
+        /**
+         * "DISCOVER:<robotId>:<IP>[:<capabilities>]", the comma-separated capabilities already
+         * parsed: SEQ, and the argument of PORT[@<port>] and FLEET[@<slot>] ({@link #NOT_ADVERTISED}
+         * when absent, -1 when bare). Legacy firmware sends no capabilities.
+         */
+        void onDiscoveryPing(String robotId, String ipAddress, boolean sequenced, int portArgument,
+                             int fleetArgument, long receivedNanos);
+
+        /**
+         * "ACK:<robotId>:<sequence>:<timestampMicros>" echoed for extended commands
+         */
+        void onCommandAck(String robotId, int sequence, int timestampMicros, long receivedNanos);
+    }
+
+    private final DatagramChannel channel;
+    private final Listener listener;
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+    private final IdInterner ids = new IdInterner(ID_CACHE_SIZE);
+    private final Thread thread;
+
+    private volatile boolean running = false;
+    private volatile long datagramsReceived = 0;
+    private volatile long malformed = 0;
+
+    public DiscoveryReceiver(int port, Listener listener) throws IOException {
+        this.channel = DatagramChannel.open();
+        // No SO_REUSEADDR: a second host instance would silently get a share of the pings
+        // and each would see part of the fleet, so its bind has to fail instead
+        this.channel.bind(new InetSocketAddress(port));
+        this.channel.configureBlocking(true);
+        this.listener = listener;
+        this.thread = new Thread(this, "discovery-receiver");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info("Discovery receiver listening on {}", channel.socket().getLocalPort());
+    }
+
+    @Override
+    public void run() {
+        byte[] data = buffer.array();
+        while (running) {
+            try {
+                buffer.clear();
+                if (channel.receive(buffer) == null) {
+                    continue;
+                }
+                long receivedNanos = System.nanoTime();
+                datagramsReceived++;
+                dispatch(data, buffer.position(), receivedNanos);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Error receiving discovery message", e);
+            }
+        }
+        logger.info("Discovery receiver stopped");
+    }
+
+    void dispatch(byte[] data, int length, long receivedNanos) {
+        if (startsWith(data, length, ACK_PREFIX)) {
+            parseAck(data, length, receivedNanos);
+        } else if (startsWith(data, length, DISCOVER_PREFIX)) {
+            parseDiscover(data, length, receivedNanos);
+        } else {
+            logger.debug("Ignoring unknown discovery message ({} bytes)", length);
+        }
+    }
+
+    private void parseDiscover(byte[] data, int length, long receivedNanos) {
+        int idStart = DISCOVER_PREFIX.length;
+        int idEnd = indexOf(data, idStart, length, (byte) ':');
+        if (idEnd <= idStart) {
+            malformed++;
+            return;
+        }
+        int ipStart = idEnd + 1;
+        int ipEnd = indexOf(data, ipStart, length, (byte) ':');
+        int capabilitiesEnd = -1;
+        if (ipEnd < 0) {
+            ipEnd = trimEnd(data, ipStart, length);
+        } else {
+            capabilitiesEnd = trimEnd(data, ipEnd + 1, length);
+        }
+        if (ipEnd <= ipStart) {
+            malformed++;
+            return;
+        }
+
+        // Capabilities straight from the buffer: "SEQ,PORT@12346,FLEET"; unknown entries are skipped
+        boolean sequenced = false;
+        int portArgument = NOT_ADVERTISED;
+        int fleetArgument = NOT_ADVERTISED;
+        for (int from = ipEnd + 1; from < capabilitiesEnd; ) {
+            int entryEnd = indexOf(data, from, capabilitiesEnd, (byte) ',');
+            if (entryEnd < 0) {
+                entryEnd = capabilitiesEnd;
+            }
+            int at = indexOf(data, from, entryEnd, (byte) '@');
+            int nameEnd = at < 0 ? entryEnd : at;
+            if (regionEquals(data, from, nameEnd, CAPABILITY_SEQ)) {
+                sequenced = true;
+            } else if (regionEquals(data, from, nameEnd, CAPABILITY_PORT)) {
+                portArgument = capabilityArgument(data, at, entryEnd);
+            } else if (regionEquals(data, from, nameEnd, CAPABILITY_FLEET)) {
+                fleetArgument = capabilityArgument(data, at, entryEnd);
+            }
+            from = entryEnd + 1;
+        }
+
+        String robotId = ids.intern(data, idStart, idEnd);
+        String ipAddress = new String(data, ipStart, ipEnd - ipStart, StandardCharsets.US_ASCII);
+        listener.onDiscoveryPing(robotId, ipAddress, sequenced, portArgument, fleetArgument, receivedNanos);
+    }
+
+    /**
+     * The number after '@' at {@code at}, or -1 when there is no '@' or no usable number
+     */
+    private static int capabilityArgument(byte[] data, int at, int to) {
+        if (at < 0) {
+            return -1;
+        }
+        long value = parseDecimal(data, at + 1, to);
+        return value <= Integer.MAX_VALUE ? (int) value : -1;
+    }
+
+    private void parseAck(byte[] data, int length, long receivedNanos) {
+        int idStart = ACK_PREFIX.length;
+        int idEnd = indexOf(data, idStart, length, (byte) ':');
+        int seqEnd = idEnd > idStart ? indexOf(data, idEnd + 1, length, (byte) ':') : -1;
+        if (seqEnd < 0) {
+            malformed++;
+            return;
+        }
+        long sequence = parseDecimal(data, idEnd + 1, seqEnd);
+        long timestamp = parseDecimal(data, seqEnd + 1, trimEnd(data, seqEnd + 1, length));
+        if (sequence < 0 || timestamp < 0) {
+            malformed++;
+            return;
+        }
+        listener.onCommandAck(ids.intern(data, idStart, idEnd), (int) (sequence & 0xFFFF), (int) timestamp,
+                              receivedNanos);
+    }
+
+    private static boolean startsWith(byte[] data, int length, byte[] prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean regionEquals(byte[] data, int from, int to, byte[] expected) {
+        if (to - from != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (data[from + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] data, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (data[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * End of the field with trailing NUL/CR/LF/space removed (some firmware pads packets)
+     */
+    private static int trimEnd(byte[] data, int from, int to) {
+        while (to > from && (data[to - 1] == 0 || data[to - 1] == '\r' || data[to - 1] == '\n'
+                             || data[to - 1] == ' ')) {
+            to--;
+        }
+        return to;
+    }
+
+    /**
+     * @return the unsigned decimal value of data[from, to), or -1 if it is empty or not a number
+     */
+    private static long parseDecimal(byte[] data, int from, int to) {
+        if (from >= to || to - from > 10) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = data[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    public long getDatagramsReceived() {
+        return datagramsReceived;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            // Closing the channel unblocks the pending receive
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing discovery channel: {}", e.getMessage());
+        }
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Emergency stop and release, kept off every other send path.
+ *
+ * A dedicated max-priority thread with its own socket writes pre-built ESTOP /
+ * ESTOP_OFF datagrams to pre-resolved robot addresses in a tight loop, so a stop
+ * never waits behind movement frames, status messages or log output. Each request
+ * is a redundant burst: {@code copies} rounds to every robot, {@code spacing} apart,
+ * so a single lost datagram does not leave a robot driving. Bursts run in order, so
+ * a release can never overtake the stop before it.
+ *
+ * Every burst is timed from the caller's timestamp (the API request) to the last
+ * datagram written; bursts that miss the budget are counted and logged.
+ */
+public class EmergencyStopDispatcher implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(EmergencyStopDispatcher.class);
+
+    public static final int DEFAULT_COPIES = 3;
+    public static final long DEFAULT_SPACING_MS = 5;
+    public static final long DEFAULT_BUDGET_MS = 50;
+
+    private final ByteBuffer stopDatagram = prebuilt("ESTOP");
+    private final ByteBuffer releaseDatagram = prebuilt("ESTOP_OFF");
+    private final DatagramChannel channel;
+    private final BlockingQueue<Burst> bursts = new LinkedBlockingQueue<>();
+    private final int copies;
+    private final long spacingNanos;
+    private final long budgetNanos;
+    private final Thread thread;
+
+    // API call to first round written, and to last datagram written
+    private final LatencyHistogram firstCopyLatency = new LatencyHistogram();
+    private final LatencyHistogram dispatchLatency = new LatencyHistogram();
+    private volatile long burstsSent = 0;
+    private volatile long datagramsSent = 0;
+    private volatile long sendFailures = 0;
+    private volatile long overBudget = 0;
+    private volatile Burst lastBurst;
+    private volatile boolean running = false;
+
+    /**
+     * One stop or release request; {@link #await} lets the caller report the outcome
+     */
+    public static final class Burst {
+        final boolean engage;
+        final InetSocketAddress[] targets;
+        final long requestedNanos;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile long firstCopyNanos;
+        private volatile long lastDatagramNanos;
+        private volatile int failures;
+
+        Burst(boolean engage, InetSocketAddress[] targets, long requestedNanos) {
+            this.engage = engage;
+            this.targets = targets;
+            this.requestedNanos = requestedNanos;
+        }
+
+        /**
+         * @return true if the whole burst went out within the timeout
+         */
+        public boolean await(long timeout, TimeUnit unit) {
+            try {
+                return done.await(timeout, unit);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        public boolean isComplete() {
+            return done.getCount() == 0;
+        }
+
+        public int getRobotCount() {
+            return targets.length;
+        }
+
+        public Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("engage", engage);
+            map.put("robots", targets.length);
+            map.put("complete", isComplete());
+            if (isComplete()) {
+                map.put("firstCopyMs", (firstCopyNanos - requestedNanos) / 1e6);
+                map.put("dispatchMs", (lastDatagramNanos - requestedNanos) / 1e6);
+                map.put("failures", failures);
+            }
+            return map;
+        }
+    }
+
+    public EmergencyStopDispatcher() throws IOException {
+        this(Integer.getInteger("soccerbots.control.estopCopies", DEFAULT_COPIES),
+             Long.getLong("soccerbots.control.estopSpacingMs", DEFAULT_SPACING_MS),
+             Long.getLong("soccerbots.control.estopBudgetMs", DEFAULT_BUDGET_MS));
+    }
+
+    public EmergencyStopDispatcher(int copies, long spacingMs, long budgetMs) throws IOException {
+        this.copies = Math.max(1, copies);
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, budgetMs));
+        // The spacing of a full burst may use at most half the budget
+        long spacing = TimeUnit.MILLISECONDS.toNanos(Math.max(0, spacingMs));
+        long maxSpacing = this.copies > 1 ? budgetNanos / 2 / (this.copies - 1) : 0;
+        if (spacing > maxSpacing) {
+            logger.warn("Emergency stop spacing {} ms exceeds the {} ms budget for {} copies, using {} ms",
+                        spacingMs, budgetMs, this.copies, TimeUnit.NANOSECONDS.toMillis(maxSpacing));
+            spacing = maxSpacing;
+        }
+        this.spacingNanos = spacing;
+
+        this.channel = DatagramChannel.open();
+        this.channel.setOption(StandardSocketOptions.SO_SNDBUF, 64 * 1024);
+        this.channel.configureBlocking(false);
+        this.channel.bind(null);
+        this.thread = new Thread(this, "estop-dispatcher");
+        this.thread.setDaemon(true);
+        this.thread.setPriority(Thread.MAX_PRIORITY);
+    }
+
+    private static ByteBuffer prebuilt(String command) {
+        byte[] bytes = command.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info("Emergency stop dispatcher started: {} copies, {} ms apart, {} ms budget",
+                    copies, TimeUnit.NANOSECONDS.toMillis(spacingNanos), TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+    }
+
+    /**
+     * Queue a stop (engage) or release burst to these addresses
+     *
+     * @param requestedNanos System.nanoTime() when the request arrived, the start of the measured interval
+     */
+    public Burst dispatch(boolean engage, InetSocketAddress[] targets, long requestedNanos) {
+        Burst burst = new Burst(engage, targets, requestedNanos);
+        bursts.offer(burst);
+        return burst;
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            Burst burst;
+            try {
+                burst = bursts.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            send(burst);
+        }
+        logger.info("Emergency stop dispatcher stopped");
+    }
+
+    private void send(Burst burst) {
+        ByteBuffer datagram = burst.engage ? stopDatagram : releaseDatagram;
+        long deadline = burst.requestedNanos + budgetNanos;
+        long nextRound = System.nanoTime();
+        int sent = 0;
+        int failures = 0;
+        for (int round = 0; round < copies; round++) {
+            for (InetSocketAddress target : burst.targets) {
+                if (write(datagram, target, deadline)) {
+                    sent++;
+                } else {
+                    failures++;
+                }
+            }
+            if (round == 0) {
+                burst.firstCopyNanos = System.nanoTime();
+            }
+            if (round + 1 < copies) {
+                nextRound += spacingNanos;
+                long wait;
+                while ((wait = nextRound - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+            }
+        }
+        long finished = System.nanoTime();
+        burst.lastDatagramNanos = finished;
+        burst.failures = failures;
+        burst.done.countDown();
+
+        datagramsSent += sent;
+        sendFailures += failures;
+        burstsSent++;
+        lastBurst = burst;
+        firstCopyLatency.record(burst.firstCopyNanos - burst.requestedNanos);
+        dispatchLatency.record(finished - burst.requestedNanos);
+        // Logged after the burst, never in the middle of it
+        if (finished > deadline) {
+            overBudget++;
+            logger.warn("Emergency {} burst took {} ms, over the {} ms budget", burst.engage ? "stop" : "release",
+                        TimeUnit.NANOSECONDS.toMillis(finished - burst.requestedNanos),
+                        TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        }
+        if (failures > 0) {
+            logger.error("Emergency {} burst: {} of {} datagrams not sent", burst.engage ? "stop" : "release",
+                         failures, failures + sent);
+        }
+    }
+
+    /**
+     * Write one datagram, retrying while the socket buffer is full until the deadline
+     */
+    private boolean write(ByteBuffer datagram, InetSocketAddress target, long deadline) {
+        if (target == null || target.isUnresolved()) {
+            return false;
+        }
+        try {
+            while (true) {
+                datagram.rewind();
+                if (channel.send(datagram, target) > 0) {
+                    return true;
+                }
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.onSpinWait();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("copies", copies);
+        stats.put("spacingMs", spacingNanos / 1e6);
+        stats.put("budgetMs", TimeUnit.NANOSECONDS.toMillis(budgetNanos));
+        stats.put("bursts", burstsSent);
+        stats.put("datagramsSent", datagramsSent);
+        stats.put("sendFailures", sendFailures);
+        stats.put("overBudget", overBudget);
+        stats.put("firstCopyLatency", firstCopyLatency.toMap());
+        stats.put("dispatchLatency", dispatchLatency.toMap());
+        Burst last = lastBurst;
+        if (last != null) {
+            stats.put("last", last.toMap());
+        }
+        return stats;
+    }
+
+    public long getBudgetMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(budgetNanos);
+    }
+
+    /**
+     * Stop after the burst in progress
+     */
+    public void shutdown() {
+        running = false;
+        thread.interrupt();
+        try {
+            thread.join(1000);
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("Error closing emergency stop channel: {}", e.getMessage());
+        }
+    }
+}
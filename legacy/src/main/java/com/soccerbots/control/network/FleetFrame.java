@@ -0,0 +1,186 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.robot.ESP32Command;
+import com.soccerbots.control.robot.Robot;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+
+/**
+ * One broadcast datagram carrying the latest command for every fleet-capable robot.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * 0-1  magic "FB"
+ * 2    version
+ * 3    slot count N
+ * 4-7  sequence number
+ * 8..  N slots x 6 bytes: leftX, leftY, rightX, rightY, buttons, flags
+ * </pre>
+ * Robots read only their own slot; flags bit 0 marks a slot that is assigned.
+ */
+class FleetFrame {
+    static final byte MAGIC_0 = 'F';
+    static final byte MAGIC_1 = 'B';
+    static final byte VERSION = 1;
+    static final int HEADER_SIZE = 8;
+    static final int SLOT_SIZE = 6;
+    static final int MAX_SLOTS = 16;
+    static final int FLAG_ASSIGNED = 0x01;
+
+    // Staging copy written by posters under the lock; the direct buffer is dispatcher-only
+    private final byte[] slots = new byte[MAX_SLOTS * SLOT_SIZE];
+    private final Robot[] owners = new Robot[MAX_SLOTS];
+    private final ByteBuffer packet = ByteBuffer.allocateDirect(HEADER_SIZE + MAX_SLOTS * SLOT_SIZE);
+    private volatile InetSocketAddress target;
+
+    private int slotCount = 0;
+    private int sequence = 0;
+    private boolean pending = false;
+    private long postedNanos;
+
+    private volatile long framesSent = 0;
+    private volatile long framesDropped = 0;
+    private long slotUpdates = 0;
+
+    FleetFrame(InetSocketAddress target) {
+        this.target = target;
+        packet.put(0, MAGIC_0);
+        packet.put(1, MAGIC_1);
+        packet.put(2, VERSION);
+    }
+
+    void setTarget(InetSocketAddress target) {
+        this.target = target;
+    }
+
+    InetSocketAddress getTarget() {
+        return target;
+    }
+
+    /**
+     * Slot held by the robot, or -1; reserves nothing
+     */
+    synchronized int slotOf(Robot robot) {
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            if (owners[slot] == robot) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Reserve a slot for the robot, reusing its existing one if it already has a slot
+     *
+     * @return slot index, or -1 if the frame is full
+     */
+    synchronized int assignSlot(Robot robot) {
+        int free = -1;
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            if (owners[slot] == robot) {
+                return slot;
+            }
+            if (free < 0 && owners[slot] == null) {
+                free = slot;
+            }
+        }
+        if (free < 0) {
+            return -1;
+        }
+        owners[free] = robot;
+        writeSlot(free, ESP32Command.CENTER_LEFT_X, ESP32Command.CENTER_LEFT_Y,
+                  ESP32Command.CENTER_RIGHT_X, ESP32Command.CENTER_RIGHT_Y, 0, FLAG_ASSIGNED);
+        slotCount = Math.max(slotCount, free + 1);
+        return free;
+    }
+
+    synchronized void releaseSlot(Robot robot) {
+        for (int slot = 0; slot < MAX_SLOTS; slot++) {
+            if (owners[slot] == robot) {
+                owners[slot] = null;
+                writeSlot(slot, 0, 0, 0, 0, 0, 0);
+            }
+        }
+        while (slotCount > 0 && owners[slotCount - 1] == null) {
+            slotCount--;
+        }
+    }
+
+    /**
+     * Store the robot's newest command in its slot; the next drain sends the whole frame
+     */
+    synchronized void post(int slot, int leftX, int leftY, int rightX, int rightY, int buttons) {
+        writeSlot(slot, leftX, leftY, rightX, rightY, buttons, FLAG_ASSIGNED);
+        slotUpdates++;
+        if (!pending) {
+            pending = true;
+            postedNanos = System.nanoTime();
+        }
+    }
+
+    private void writeSlot(int slot, int leftX, int leftY, int rightX, int rightY, int buttons, int flags) {
+        int offset = slot * SLOT_SIZE;
+        slots[offset] = (byte) leftX;
+        slots[offset + 1] = (byte) leftY;
+        slots[offset + 2] = (byte) rightX;
+        slots[offset + 3] = (byte) rightY;
+        slots[offset + 4] = (byte) buttons;
+        slots[offset + 5] = (byte) flags;
+    }
+
+    /**
+     * Send the frame if any slot changed since the last send. Dispatcher thread only.
+     *
+     * @return queueing delay of the oldest update in nanoseconds, or -1 if nothing was pending
+     */
+    long drainTo(CommandSender sender) {
+        InetSocketAddress destination = target;
+        long delay;
+        synchronized (this) {
+            if (!pending) {
+                return -1;
+            }
+            pending = false;
+            delay = System.nanoTime() - postedNanos;
+            packet.put(3, (byte) slotCount);
+            packet.putInt(4, ++sequence);
+            packet.limit(HEADER_SIZE + slotCount * SLOT_SIZE);
+            packet.put(HEADER_SIZE, slots, 0, slotCount * SLOT_SIZE);
+        }
+
+        try {
+            if (destination != null && sender.sendRaw(packet, destination)) {
+                framesSent++;
+            } else {
+                framesDropped++;
+            }
+        } catch (IOException e) {
+            framesDropped++;
+        }
+        return delay;
+    }
+
+    synchronized int getAssignedSlots() {
+        int assigned = 0;
+        for (Robot owner : owners) {
+            if (owner != null) {
+                assigned++;
+            }
+        }
+        return assigned;
+    }
+
+    synchronized long getSlotUpdates() {
+        return slotUpdates;
+    }
+
+    long getFramesSent() {
+        return framesSent;
+    }
+
+    long getFramesDropped() {
+        return framesDropped;
+    }
+}
@@ -0,0 +1,35 @@
+package com.soccerbots.control.network;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Small direct-mapped cache from robot id bytes to the String seen before.
+ * Robots repeat their id in every ping, ACK and telemetry packet, so steady-state
+ * receives hit the cache and allocate nothing. Single-threaded: one per receiver.
+ */
+class IdInterner {
+    private final byte[][] cachedBytes;
+    private final String[] cachedStrings;
+
+    IdInterner(int size) {
+        this.cachedBytes = new byte[size][];
+        this.cachedStrings = new String[size];
+    }
+
+    String intern(byte[] data, int start, int end) {
+        int hash = 1;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + data[i];
+        }
+        int slot = (hash & 0x7FFFFFFF) % cachedStrings.length;
+        byte[] cached = cachedBytes[slot];
+        if (cached != null && Arrays.equals(cached, 0, cached.length, data, start, end)) {
+            return cachedStrings[slot];
+        }
+        String id = new String(data, start, end - start, StandardCharsets.US_ASCII);
+        cachedBytes[slot] = Arrays.copyOfRange(data, start, end);
+        cachedStrings[slot] = id;
+        return id;
+    }
+}
@@ -0,0 +1,249 @@
+package com.soccerbots.control.network;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.Inet4Address;
+import java.net.InetAddress;
+import java.net.InterfaceAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Host network state kept current by a background refresher.
+ *
+ * Readers get the latest immutable {@link Snapshot} through a volatile read, so
+ * status checks and broadcast address lookups never enumerate interfaces or fork
+ * a process on the caller's thread.
+ */
+public class NetworkInterfaceCache {
+    private static final Logger logger = LoggerFactory.getLogger(NetworkInterfaceCache.class);
+
+    private static final long INTERFACE_REFRESH_MS = 2000;
+    // Every Nth interface refresh also probes the SSID (forks a process on most OSes)
+    private static final int SSID_REFRESH_EVERY = 3;
+
+    private final SsidProbe ssidProbe;
+    private final ScheduledExecutorService refresher;
+    private final List<Consumer<Snapshot>> listeners = new CopyOnWriteArrayList<>();
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), null, 0);
+    private int refreshCount = 0;
+
+    public NetworkInterfaceCache(SsidProbe ssidProbe) {
+        this.ssidProbe = ssidProbe;
+        this.refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "network-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Take the first snapshot synchronously, then keep refreshing in the background
+     */
+    public void start() {
+        refresh();
+        refresher.scheduleWithFixedDelay(this::refresh, INTERFACE_REFRESH_MS, INTERFACE_REFRESH_MS,
+                                         TimeUnit.MILLISECONDS);
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Called on the refresher thread whenever the interfaces or SSID change
+     */
+    public void addListener(Consumer<Snapshot> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Re-read interfaces and SSID now instead of waiting for the next cycle
+     */
+    public void refreshNow() {
+        refresher.execute(() -> {
+            refreshCount = 0;
+            refresh();
+        });
+    }
+
+    private synchronized void refresh() {
+        try {
+            Snapshot previous = snapshot;
+            String ssid = previous.getSsid();
+            if (refreshCount++ % SSID_REFRESH_EVERY == 0) {
+                ssid = ssidProbe.currentSsid();
+            }
+
+            Snapshot current = new Snapshot(readInterfaces(), ssid, System.currentTimeMillis());
+            snapshot = current;
+            if (!current.sameState(previous)) {
+                logger.info("Network state changed: {}", current);
+                for (Consumer<Snapshot> listener : listeners) {
+                    listener.accept(current);
+                }
+            }
+        } catch (Exception e) {
+            logger.error("Network refresh failed", e);
+        }
+    }
+
+    private static List<InterfaceInfo> readInterfaces() throws SocketException {
+        List<InterfaceInfo> interfaces = new ArrayList<>();
+        Enumeration<NetworkInterface> all = NetworkInterface.getNetworkInterfaces();
+        while (all != null && all.hasMoreElements()) {
+            NetworkInterface networkInterface = all.nextElement();
+            if (!networkInterface.isUp() || networkInterface.isLoopback()) {
+                continue;
+            }
+            for (InterfaceAddress address : networkInterface.getInterfaceAddresses()) {
+                if (address.getAddress() instanceof Inet4Address) {
+                    interfaces.add(new InterfaceInfo(networkInterface.getName(), address.getAddress(),
+                                                     address.getBroadcast(), address.getNetworkPrefixLength()));
+                }
+            }
+        }
+        return Collections.unmodifiableList(interfaces);
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    /**
+     * One active IPv4 address on an interface
+     */
+    public static final class InterfaceInfo {
+        private final String name;
+        private final InetAddress address;
+        private final InetAddress broadcast;
+        private final int prefixLength;
+
+        InterfaceInfo(String name, InetAddress address, InetAddress broadcast, int prefixLength) {
+            this.name = name;
+            this.address = address;
+            this.broadcast = broadcast;
+            this.prefixLength = prefixLength;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public InetAddress getAddress() {
+            return address;
+        }
+
+        public InetAddress getBroadcast() {
+            return broadcast;
+        }
+
+        public int getPrefixLength() {
+            return prefixLength;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof InterfaceInfo)) return false;
+            InterfaceInfo other = (InterfaceInfo) o;
+            return prefixLength == other.prefixLength && name.equals(other.name)
+                && address.equals(other.address) && Objects.equals(broadcast, other.broadcast);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, address, broadcast, prefixLength);
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + address.getHostAddress() + "/" + prefixLength;
+        }
+    }
+
+    /**
+     * Immutable view of the host's network state at one refresh
+     */
+    public static final class Snapshot {
+        private final List<InterfaceInfo> interfaces;
+        private final String ssid;
+        private final long refreshedAt;
+
+        Snapshot(List<InterfaceInfo> interfaces, String ssid, long refreshedAt) {
+            this.interfaces = interfaces;
+            this.ssid = ssid;
+            this.refreshedAt = refreshedAt;
+        }
+
+        public List<InterfaceInfo> getInterfaces() {
+            return interfaces;
+        }
+
+        /**
+         * @return SSID of the joined Wi-Fi network, or null if unknown or not on Wi-Fi
+         */
+        public String getSsid() {
+            return ssid;
+        }
+
+        public long getRefreshedAt() {
+            return refreshedAt;
+        }
+
+        public boolean isConnected() {
+            return ssid != null || !interfaces.isEmpty();
+        }
+
+        /**
+         * Broadcast address for robot traffic: the first 192.168.x.x network (the robot
+         * access point's range), else the first interface that has a broadcast address
+         */
+        public InetAddress getPrimaryBroadcast() {
+            InetAddress fallback = null;
+            for (InterfaceInfo info : interfaces) {
+                if (info.getBroadcast() == null) {
+                    continue;
+                }
+                byte[] address = info.getAddress().getAddress();
+                if ((address[0] & 0xFF) == 192 && (address[1] & 0xFF) == 168) {
+                    return info.getBroadcast();
+                }
+                if (fallback == null) {
+                    fallback = info.getBroadcast();
+                }
+            }
+            return fallback;
+        }
+
+        public List<InetAddress> getBroadcastAddresses() {
+            List<InetAddress> broadcasts = new ArrayList<>();
+            for (InterfaceInfo info : interfaces) {
+                if (info.getBroadcast() != null && !broadcasts.contains(info.getBroadcast())) {
+                    broadcasts.add(info.getBroadcast());
+                }
+            }
+            return broadcasts;
+        }
+
+        boolean sameState(Snapshot other) {
+            return interfaces.equals(other.interfaces) && Objects.equals(ssid, other.ssid);
+        }
+
+        @Override
+        public String toString() {
+            return "ssid=" + (ssid != null ? ssid : "none") + ", interfaces=" + interfaces;
+        }
+    }
+}
@@ -1,11 +1,10 @@
 package com.soccerbots.control.network;
 
+import com.soccerbots.control.robot.Robot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 public class NetworkManager {
     private static final Logger logger = LoggerFactory.getLogger(NetworkManager.class);
@@ -13,127 +12,289 @@ public class NetworkManager {
     // ESP32 Communication Constants
     public static final int DISCOVERY_PORT = 12345;
     public static final int ESP32_UDP_PORT = 2367; // ESP32 command port
+    public static final int FLEET_PORT = 2368; // Broadcast fleet frames, fleet-capable firmware only
+    public static final int ROBOT_BASE_PORT = 12346; // First port handed out by the PORT handshake
+    public static final int TELEMETRY_PORT = 12344; // Binary telemetry from robots
     public static final String EXPECTED_WIFI_NETWORK = "WATCHTOWER";
 
-    private boolean isConnectedToNetwork = false;
-    private String currentSSID = "";
-    private ExecutorService executorService;
-    private DatagramSocket udpSocket;
-    private DatagramSocket discoverySocket;
+    private final NetworkInterfaceCache interfaceCache;
+    private DiscoveryReceiver discoveryReceiver;
+    private TelemetryReceiver telemetryReceiver;
+    private CommandSender commandSender;
+    private CommandDispatcher commandDispatcher;
+    private EmergencyStopDispatcher emergencyStopDispatcher;
+
+    // Fleet frames are opt-in; robots still have to advertise the capability
+    private final boolean fleetModeEnabled = Boolean.getBoolean("soccerbots.control.fleetMode");
+    // PORT handshake with robots that advertise it; a connected channel per robot on top is opt-in
+    private final boolean portAssignmentEnabled =
+        Boolean.parseBoolean(System.getProperty("soccerbots.control.portAssignment", "true"));
+    private final boolean dedicatedSocketsEnabled = Boolean.getBoolean("soccerbots.control.dedicatedSockets");
 
     public NetworkManager() {
-        this.executorService = Executors.newCachedThreadPool();
-        checkCurrentNetworkStatus();
-        initializeUDPSocket();
-        initializeDiscoverySocket();
+        this.interfaceCache = new NetworkInterfaceCache(SsidProbe.forCurrentOs());
+        initializeCommandSender();
+    }
+
+    /**
+     * Take the first interface snapshot and start refreshing it in the background.
+     * Kept out of the constructor so the refresher never sees a half-built manager.
+     */
+    public void start() {
+        interfaceCache.addListener(this::onNetworkChanged);
+        interfaceCache.start();
     }
 
-    private void initializeUDPSocket() {
+    private void initializeCommandSender() {
         try {
-            udpSocket = new DatagramSocket();
-            logger.info("UDP socket initialized for ESP32 communication");
-        } catch (SocketException e) {
-            logger.error("Failed to initialize UDP socket", e);
+            commandSender = new CommandSender();
+            commandDispatcher = new CommandDispatcher(commandSender, resolveFleetTarget());
+            commandDispatcher.start();
+            logger.info("UDP command channel initialized for ESP32 communication");
+        } catch (java.io.IOException e) {
+            logger.error("Failed to initialize command sender", e);
+        }
+        try {
+            emergencyStopDispatcher = new EmergencyStopDispatcher();
+            emergencyStopDispatcher.start();
+        } catch (java.io.IOException e) {
+            logger.error("Failed to initialize emergency stop dispatcher, falling back to the priority lane", e);
         }
     }
 
-    private void initializeDiscoverySocket() {
-        try {
-            discoverySocket = new DatagramSocket(DISCOVERY_PORT);
-            discoverySocket.setSoTimeout(100); // 100ms timeout for non-blocking receives
-            logger.info("Discovery socket initialized on port {}", DISCOVERY_PORT);
-        } catch (SocketException e) {
-            logger.error("Failed to initialize discovery socket", e);
+    /**
+     * Fleet frame destination: -Dsoccerbots.control.fleetAddress (broadcast or multicast),
+     * else the primary interface broadcast address, else 255.255.255.255
+     */
+    private InetSocketAddress resolveFleetTarget() {
+        String configured = System.getProperty("soccerbots.control.fleetAddress");
+        if (configured != null && !configured.isEmpty()) {
+            return new InetSocketAddress(configured, FLEET_PORT);
         }
+        InetAddress broadcast = interfaceCache.getSnapshot().getPrimaryBroadcast();
+        return broadcast != null ? new InetSocketAddress(broadcast, FLEET_PORT)
+                                 : new InetSocketAddress("255.255.255.255", FLEET_PORT);
     }
 
-    private void checkCurrentNetworkStatus() {
-        try {
-            Process process = Runtime.getRuntime().exec("netsh wlan show interfaces");
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(process.getInputStream()));
-
-            String line;
-            boolean connected = false;
-            String ssid = "";
-
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("State") && line.contains("connected")) {
-                    connected = true;
-                } else if (line.contains("SSID") && !line.contains("BSSID")) {
-                    ssid = line.split(":")[1].trim();
-                }
+    /**
+     * Refresher callback: log SSID changes and follow the broadcast address for fleet frames
+     */
+    private void onNetworkChanged(NetworkInterfaceCache.Snapshot snapshot) {
+        String ssid = snapshot.getSsid();
+        if (ssid != null) {
+            if (EXPECTED_WIFI_NETWORK.equals(ssid)) {
+                logger.info("Connected to expected ESP32 network!");
+            } else {
+                logger.warn("Connected to network '{}', but ESP32 robots expect '{}'", ssid, EXPECTED_WIFI_NETWORK);
             }
+        } else if (!snapshot.isConnected()) {
+            logger.warn("Not connected to any network");
+        }
+        if (commandDispatcher != null) {
+            commandDispatcher.setFleetTarget(resolveFleetTarget());
+        }
+    }
 
-            isConnectedToNetwork = connected;
-            currentSSID = ssid;
-
-            process.waitFor();
+    /**
+     * Bind the discovery port and start delivering pings and ACKs to the listener
+     *
+     * @return false if the port could not be bound
+     */
+    public synchronized boolean startDiscoveryReceiver(DiscoveryReceiver.Listener listener) {
+        if (discoveryReceiver != null) {
+            return true;
+        }
+        try {
+            discoveryReceiver = new DiscoveryReceiver(DISCOVERY_PORT, listener);
+            discoveryReceiver.start();
+            return true;
+        } catch (java.io.IOException e) {
+            logger.error("Failed to initialize discovery receiver on port " + DISCOVERY_PORT, e);
+            return false;
+        }
+    }
 
-            if (connected) {
-                logger.info("Connected to WiFi network: {}", ssid);
-                if (EXPECTED_WIFI_NETWORK.equals(ssid)) {
-                    logger.info("Connected to expected ESP32 network!");
-                } else {
-                    logger.warn("Connected to network '{}', but ESP32 robots expect '{}'",
-                              ssid, EXPECTED_WIFI_NETWORK);
-                }
-            } else {
-                logger.warn("Not connected to any WiFi network");
-            }
+    public DiscoveryReceiver getDiscoveryReceiver() {
+        return discoveryReceiver;
+    }
 
-        } catch (Exception e) {
-            logger.error("Failed to check network status", e);
+    /**
+     * Bind the telemetry port and start delivering decoded packets to the listener
+     *
+     * @return false if the port could not be bound
+     */
+    public synchronized boolean startTelemetryReceiver(TelemetryReceiver.Listener listener) {
+        if (telemetryReceiver != null) {
+            return true;
+        }
+        try {
+            telemetryReceiver = new TelemetryReceiver(TELEMETRY_PORT, listener);
+            telemetryReceiver.start();
+            return true;
+        } catch (java.io.IOException e) {
+            logger.error("Failed to initialize telemetry receiver on port " + TELEMETRY_PORT, e);
+            return false;
         }
     }
 
+    public TelemetryReceiver getTelemetryReceiver() {
+        return telemetryReceiver;
+    }
+
     /**
      * Send binary command data to ESP32 robot
      * Format: robotName(16 bytes) + axes(6 bytes) + buttons(2 bytes)
      */
-    public void sendRobotCommand(String robotName, String targetIP,
+    public void sendRobotCommand(Robot robot,
                                 int leftX, int leftY, int rightX, int rightY,
                                 boolean cross, boolean circle, boolean square, boolean triangle) {
-        executorService.submit(() -> {
-            try {
-                // Create 24-byte packet: 16 bytes name + 6 bytes axes + 2 bytes buttons
-                byte[] packet = new byte[24];
-
-                // Robot name (16 bytes, null-padded)
-                byte[] nameBytes = robotName.getBytes();
-                System.arraycopy(nameBytes, 0, packet, 0, Math.min(nameBytes.length, 16));
-
-                // Axes data (6 bytes) - convert from float to 0-255 range
-                packet[16] = (byte) Math.max(0, Math.min(255, leftX));   // leftX
-                packet[17] = (byte) Math.max(0, Math.min(255, leftY));   // leftY
-                packet[18] = (byte) Math.max(0, Math.min(255, rightX));  // rightX
-                packet[19] = (byte) Math.max(0, Math.min(255, rightY));  // rightY
-                packet[20] = (byte) 125; // unused axis
-                packet[21] = (byte) 125; // unused axis
-
-                // Button data (2 bytes)
-                byte button1 = 0;
-                if (cross) button1 |= 0x01;
-                if (circle) button1 |= 0x02;
-                if (square) button1 |= 0x04;
-                if (triangle) button1 |= 0x08;
-
-                packet[22] = button1;
-                packet[23] = 0; // unused buttons
-
-                // Send UDP packet
-                DatagramPacket udpPacket = new DatagramPacket(
-                    packet, packet.length,
-                    InetAddress.getByName(targetIP), ESP32_UDP_PORT
-                );
-                udpSocket.send(udpPacket);
-
-                logger.debug("Sent command to robot '{}' at {}:{}", robotName, targetIP, ESP32_UDP_PORT);
-
-            } catch (Exception e) {
-                logger.error("Failed to send robot command to " + targetIP, e);
-            }
-        });
+        if (commandDispatcher == null) {
+            return;
+        }
+        // Latest-value-wins: an unsent frame for this robot is replaced, never queued behind
+        commandDispatcher.postMovement(robot, leftX, leftY, rightX, rightY, cross, circle, square, triangle);
+    }
+
+    public CommandSender getCommandSender() {
+        return commandSender;
+    }
+
+    public CommandDispatcher getCommandDispatcher() {
+        return commandDispatcher;
+    }
+
+    public boolean isFleetModeEnabled() {
+        return fleetModeEnabled && commandDispatcher != null;
+    }
+
+    /**
+     * Offer a fleet frame slot to a robot that advertised the FLEET capability.
+     * Format: "FLEET:robotId:slot:port" on the discovery port. The robot stays on
+     * unicast until its next ping echoes the slot back.
+     *
+     * @return offered slot, or -1 if fleet mode is off or the frame is full
+     */
+    public int offerFleetSlot(Robot robot) {
+        if (!isFleetModeEnabled()) {
+            return -1;
+        }
+        int slot = commandDispatcher.reserveFleetSlot(robot);
+        if (slot < 0) {
+            logger.warn("Fleet frame full - robot {} stays on unicast", robot.getId());
+            return -1;
+        }
+        sendDiscoveryResponse(robot, "FLEET:" + robot.getId() + ":" + slot + ":" + FLEET_PORT);
+        return slot;
+    }
+
+    /**
+     * Pure check, reserves nothing: a robot without a reservation (host restarted) gets a
+     * fresh offer through {@link #offerFleetSlot}
+     *
+     * @return true if the slot echoed by the robot is the one already reserved for it
+     */
+    public boolean isFleetSlotReserved(Robot robot, int slot) {
+        return isFleetModeEnabled() && commandDispatcher.getReservedFleetSlot(robot) == slot;
+    }
+
+    /**
+     * Tell a robot to leave the fleet frame and go back to unicast commands
+     */
+    public void releaseFleetSlot(Robot robot, boolean notifyRobot) {
+        if (commandDispatcher != null) {
+            commandDispatcher.releaseFleetSlot(robot);
+        }
+        if (notifyRobot) {
+            sendDiscoveryResponse(robot, "FLEET:" + robot.getId() + ":OFF");
+        }
+    }
+
+    public boolean isPortAssignmentEnabled() {
+        return portAssignmentEnabled;
+    }
+
+    public boolean isDedicatedSocketsEnabled() {
+        return dedicatedSocketsEnabled;
+    }
+
+    /**
+     * Assign a command port to a robot that advertised the PORT capability.
+     * Format: "PORT:robotId:port" on the discovery port. Commands keep going to the
+     * firmware port until the robot's next ping echoes the port back.
+     */
+    public void offerCommandPort(Robot robot, int port) {
+        sendDiscoveryResponse(robot, "PORT:" + robot.getId() + ":" + port);
+    }
+
+    /**
+     * Switch a robot's commands to its confirmed port, and with dedicated sockets
+     * (re)connect its own channel when the port or address changed
+     */
+    public void attachCommandPort(Robot robot, int port) {
+        robot.setCommandPort(port);
+        if (!dedicatedSocketsEnabled) {
+            return;
+        }
+        InetSocketAddress remote = robot.getCommandAddress();
+        RobotChannel current = robot.getDedicatedChannel();
+        if (remote == null || (current != null && current.isOpen() && current.getRemote().equals(remote))) {
+            return;
+        }
+        try {
+            RobotChannel channel = new RobotChannel(remote);
+            replaceDedicatedChannel(robot, channel);
+            logger.info("Robot {} on dedicated channel {} -> {}", robot.getId(), channel.getLocalPort(), remote);
+        } catch (java.io.IOException e) {
+            replaceDedicatedChannel(robot, null);
+            logger.warn("Cannot open dedicated channel for robot {}, using the shared one: {}",
+                        robot.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Robot went back to discovery (firmware timeout, reflash) or was forgotten - commands
+     * return to the firmware port on the shared channel
+     */
+    public void releaseCommandPort(Robot robot) {
+        replaceDedicatedChannel(robot, null);
+        robot.setCommandPort(ESP32_UDP_PORT);
+    }
+
+    /**
+     * Swap the channel on the sender's side, so no send in flight sees it closed
+     */
+    private void replaceDedicatedChannel(Robot robot, RobotChannel channel) {
+        if (commandSender != null) {
+            commandSender.replaceDedicatedChannel(robot, channel);
+            return;
+        }
+        RobotChannel previous = robot.getDedicatedChannel();
+        robot.setDedicatedChannel(channel);
+        if (previous != null && previous != channel) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Robot left the registry: close its channel and drop its command mailbox
+     */
+    public void forgetRobot(Robot robot) {
+        releaseCommandPort(robot);
+        if (commandDispatcher != null) {
+            commandDispatcher.removeMailbox(robot);
+        }
+    }
+
+    private void sendPriority(byte[] data, InetSocketAddress target, String description) {
+        if (commandDispatcher == null) {
+            logger.error("Cannot send {} to {} - command channel not initialized", description, target);
+            return;
+        }
+        if (target == null) {
+            logger.error("Cannot send {} - robot has no address", description);
+            return;
+        }
+        commandDispatcher.postPriority(data, target, description);
     }
 
     /**
@@ -141,78 +302,58 @@ public class NetworkManager {
      * Format: "robotName:status" (text)
      */
     public void sendGameStatus(String robotName, String targetIP, String status) {
-        executorService.submit(() -> {
-            try {
-                String message = robotName + ":" + status;
-                byte[] data = message.getBytes();
+        sendGameStatus(robotName, targetIP, ESP32_UDP_PORT, status);
+    }
 
-                DatagramPacket packet = new DatagramPacket(
-                    data, data.length,
-                    InetAddress.getByName(targetIP), ESP32_UDP_PORT
-                );
-                udpSocket.send(packet);
+    /**
+     * Send game status to a known robot on its current command port, using the address it caches
+     */
+    public void sendGameStatus(Robot robot, String status) {
+        sendGameStatus(robot.getName(), robot.getCommandAddress(), status);
+    }
 
-                logger.info("Sent game status '{}' to robot '{}' at {}", status, robotName, targetIP);
+    public void sendGameStatus(String robotName, String targetIP, int port, String status) {
+        sendGameStatus(robotName, new InetSocketAddress(targetIP, port), status);
+    }
 
-            } catch (Exception e) {
-                logger.error("Failed to send game status to " + targetIP, e);
-            }
-        });
+    private void sendGameStatus(String robotName, InetSocketAddress target, String status) {
+        String message = robotName + ":" + status;
+        sendPriority(message.getBytes(), target,
+                     "game status '" + status + "' for robot '" + robotName + "'");
     }
 
     /**
      * Broadcast game status to all robots on the network
      */
     public void broadcastGameStatus(String status) {
-        try {
-            // Get network info to determine broadcast address
-            String subnet = getNetworkSubnet();
-            if (subnet != null) {
-                String broadcastAddr = subnet + ".255";
-                logger.info("Broadcasting game status '{}' to {}", status, broadcastAddr);
-
-                // Send to broadcast address - robots will filter by their name
-                sendGameStatus("ALL", broadcastAddr, status);
-            }
-        } catch (Exception e) {
-            logger.error("Failed to broadcast game status", e);
+        // Cached by the background refresher - no interface enumeration or process fork here
+        InetAddress broadcast = interfaceCache.getSnapshot().getPrimaryBroadcast();
+        if (broadcast == null) {
+            logger.warn("Cannot broadcast game status '{}' - no interface with a broadcast address", status);
+            return;
         }
-    }
+        String broadcastAddr = broadcast.getHostAddress();
+        logger.info("Broadcasting game status '{}' to {}", status, broadcastAddr);
 
-    private String getNetworkSubnet() {
-        try {
-            Process process = Runtime.getRuntime().exec("ipconfig");
-            java.io.BufferedReader reader = new java.io.BufferedReader(
-                new java.io.InputStreamReader(process.getInputStream()));
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.contains("IPv4 Address") && line.contains("192.168")) {
-                    String ip = line.split(":")[1].trim();
-                    String[] parts = ip.split("\\.");
-                    if (parts.length >= 3) {
-                        return parts[0] + "." + parts[1] + "." + parts[2];
-                    }
-                }
-            }
-            process.waitFor();
-        } catch (Exception e) {
-            logger.error("Failed to get network subnet", e);
-        }
-        return null;
+        // Send to broadcast address - robots will filter by their name
+        sendGameStatus("ALL", broadcastAddr, status);
     }
 
     public boolean isNetworkActive() {
-        checkCurrentNetworkStatus(); // Refresh status
-        return isConnectedToNetwork;
+        return interfaceCache.getSnapshot().isConnected();
     }
 
     public boolean isConnectedToExpectedNetwork() {
-        return isConnectedToNetwork && EXPECTED_WIFI_NETWORK.equals(currentSSID);
+        return EXPECTED_WIFI_NETWORK.equals(interfaceCache.getSnapshot().getSsid());
     }
 
     public String getCurrentSSID() {
-        return currentSSID;
+        String ssid = interfaceCache.getSnapshot().getSsid();
+        return ssid != null ? ssid : "";
+    }
+
+    public NetworkInterfaceCache getInterfaceCache() {
+        return interfaceCache;
     }
 
     public String getExpectedNetwork() {
@@ -220,108 +361,99 @@ public class NetworkManager {
     }
 
     /**
-     * Receive discovery message from robot
-     * Returns null if no message available (non-blocking)
+     * Send discovery response to robot
      */
-    public String receiveDiscoveryMessage() {
-        try {
-            byte[] buffer = new byte[256];
-            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
-            discoverySocket.receive(packet);
-            String message = new String(packet.getData(), 0, packet.getLength());
-            logger.debug("Received discovery message: {}", message);
-            return message;
-        } catch (SocketTimeoutException e) {
-            // No message available, this is normal
-            return null;
-        } catch (Exception e) {
-            logger.error("Error receiving discovery message", e);
-            return null;
-        }
+    public void sendDiscoveryResponse(String targetIP, String message) {
+        sendDiscoveryResponse(new InetSocketAddress(targetIP, DISCOVERY_PORT), message);
     }
 
     /**
-     * Send discovery response to robot
+     * Send discovery response to a known robot on its cached discovery-port address
      */
-    public void sendDiscoveryResponse(String targetIP, String message) {
-        executorService.submit(() -> {
-            try {
-                byte[] data = message.getBytes();
-                DatagramPacket packet = new DatagramPacket(
-                    data, data.length,
-                    InetAddress.getByName(targetIP), DISCOVERY_PORT
-                );
-                udpSocket.send(packet);
-                logger.debug("Sent discovery response to {}: {}", targetIP, message);
-            } catch (Exception e) {
-                logger.error("Failed to send discovery response to " + targetIP, e);
-            }
-        });
+    public void sendDiscoveryResponse(Robot robot, String message) {
+        sendDiscoveryResponse(robot.getSafetyAddress(), message);
+    }
+
+    private void sendDiscoveryResponse(InetSocketAddress target, String message) {
+        sendPriority(message.getBytes(), target, "discovery response '" + message + "'");
     }
 
     /**
      * Send emergency stop to robot
      */
     public void sendEmergencyStop(String targetIP) {
-        executorService.submit(() -> {
-            try {
-                String message = "ESTOP";
-                byte[] data = message.getBytes();
-
-                // Send to discovery port (robot always listens here when connected)
-                DatagramPacket packet = new DatagramPacket(
-                    data, data.length,
-                    InetAddress.getByName(targetIP), DISCOVERY_PORT
-                );
-                udpSocket.send(packet);
-
-                logger.info("Sent emergency stop to {}", targetIP);
-            } catch (Exception e) {
-                logger.error("Failed to send emergency stop to " + targetIP, e);
-            }
-        });
+        // Send to discovery port (robot always listens here when connected)
+        sendEmergencyStop(new InetSocketAddress(targetIP, DISCOVERY_PORT));
+    }
+
+    /**
+     * Send emergency stop to a robot's discovery-port address
+     */
+    public void sendEmergencyStop(InetSocketAddress target) {
+        sendPriority("ESTOP".getBytes(), target, "emergency stop");
     }
 
     /**
      * Send emergency stop release to robot
      */
     public void sendEmergencyStopRelease(String targetIP) {
-        executorService.submit(() -> {
-            try {
-                String message = "ESTOP_OFF";
-                byte[] data = message.getBytes();
-
-                DatagramPacket packet = new DatagramPacket(
-                    data, data.length,
-                    InetAddress.getByName(targetIP), DISCOVERY_PORT
-                );
-                udpSocket.send(packet);
-
-                logger.info("Sent emergency stop release to {}", targetIP);
-            } catch (Exception e) {
-                logger.error("Failed to send emergency stop release to " + targetIP, e);
+        sendEmergencyStopRelease(new InetSocketAddress(targetIP, DISCOVERY_PORT));
+    }
+
+    public void sendEmergencyStopRelease(InetSocketAddress target) {
+        sendPriority("ESTOP_OFF".getBytes(), target, "emergency stop release");
+    }
+
+    /**
+     * Send an emergency stop (engage) or release burst on the dedicated dispatcher
+     *
+     * @param requestedNanos System.nanoTime() when the stop was requested, for the dispatch latency
+     * @return the burst, or null if the dispatcher is unavailable and the priority lane was used instead
+     */
+    public EmergencyStopDispatcher.Burst dispatchEmergencyStop(boolean engage, InetSocketAddress[] targets,
+                                                               long requestedNanos) {
+        if (emergencyStopDispatcher != null) {
+            return emergencyStopDispatcher.dispatch(engage, targets, requestedNanos);
+        }
+        for (InetSocketAddress target : targets) {
+            if (target == null) {
+                continue;
             }
-        });
+            if (target.isUnresolved()) {
+                // Unresolvable robot IP; skip it rather than abort the stop for the others
+                logger.error("Cannot send {} - unresolved address {}",
+                             engage ? "emergency stop" : "emergency stop release", target);
+            } else if (engage) {
+                sendEmergencyStop(target);
+            } else {
+                sendEmergencyStopRelease(target);
+            }
+        }
+        return null;
+    }
+
+    public EmergencyStopDispatcher getEmergencyStopDispatcher() {
+        return emergencyStopDispatcher;
     }
 
     public void shutdown() {
         logger.info("Shutting down network manager");
-        if (udpSocket != null && !udpSocket.isClosed()) {
-            udpSocket.close();
+        if (commandDispatcher != null) {
+            // Flushes queued safety/status messages before stopping
+            commandDispatcher.shutdown();
         }
-        if (discoverySocket != null && !discoverySocket.isClosed()) {
-            discoverySocket.close();
+        if (commandSender != null) {
+            commandSender.close();
         }
-        if (executorService != null) {
-            executorService.shutdown();
-            try {
-                if (!executorService.awaitTermination(2, java.util.concurrent.TimeUnit.SECONDS)) {
-                    executorService.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                executorService.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
+        if (emergencyStopDispatcher != null) {
+            emergencyStopDispatcher.shutdown();
+        }
+        if (discoveryReceiver != null) {
+            discoveryReceiver.shutdown();
+        }
+        if (telemetryReceiver != null) {
+            telemetryReceiver.shutdown();
         }
+        interfaceCache.shutdown();
     }
 }
\ No newline at end of file
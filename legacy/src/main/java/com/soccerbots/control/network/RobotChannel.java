@@ -0,0 +1,58 @@
+package com.soccerbots.control.network;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Non-blocking DatagramChannel connected to one robot's assigned port.
+ *
+ * connect() fixes the route and peer once, so writes skip the per-send address
+ * checks of an unconnected channel and each robot gets its own socket buffer.
+ * The channel is send-only: robots address their ACKs to the discovery port and
+ * their telemetry to the telemetry port, never to this channel's local port.
+ */
+public class RobotChannel {
+    private final DatagramChannel channel;
+    private final InetSocketAddress remote;
+
+    RobotChannel(InetSocketAddress remote) throws IOException {
+        this.remote = remote;
+        this.channel = DatagramChannel.open();
+        try {
+            channel.configureBlocking(false);
+            channel.connect(remote);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public InetSocketAddress getRemote() {
+        return remote;
+    }
+
+    public int getLocalPort() {
+        return channel.socket().getLocalPort();
+    }
+
+    /**
+     * @return bytes written, 0 if the socket buffer was full
+     */
+    public int write(ByteBuffer packet) throws IOException {
+        return channel.write(packet);
+    }
+
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.soccerbots.control.network;
+
+/**
+ * OS-specific lookup of the Wi-Fi network the host is joined to.
+ * Only ever called from the background refresher in {@link NetworkInterfaceCache}.
+ */
+public interface SsidProbe {
+
+    /**
+     * @return the current SSID, or null if not on Wi-Fi or it cannot be determined
+     */
+    String currentSsid();
+
+    /**
+     * Probe for the running OS: netsh on Windows, iwgetid on Linux, networksetup on macOS
+     */
+    static SsidProbe forCurrentOs() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.contains("win")) {
+            return CommandSsidProbe.windows();
+        } else if (os.contains("mac")) {
+            return CommandSsidProbe.macOs();
+        } else if (os.contains("linux")) {
+            return CommandSsidProbe.linux();
+        }
+        return () -> null;
+    }
+}
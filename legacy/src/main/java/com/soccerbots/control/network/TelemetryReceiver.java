@@ -0,0 +1,144 @@
+package com.soccerbots.control.network;
+
+import com.soccerbots.control.robot.ESP32Command;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * Dedicated receiver for binary robot telemetry.
+ *
+ * Same shape as {@link DiscoveryReceiver}: a blocking DatagramChannel on its own
+ * thread, one reused buffer, fields decoded straight from the bytes and robot ids
+ * interned, so a fleet reporting at 50 Hz does not allocate per packet.
+ *
+ * Packet (32 bytes, multi-byte fields big-endian):
+ * magic "TM", version, flags, robot id (16 bytes, NUL-padded), sequence (u16),
+ * battery mV (u16), motor left/right/dc/servo (s8 percent each), RSSI dBm (s8),
+ * reserved, loop time us (u16). Longer packets are accepted for later fields.
+ */
+public class TelemetryReceiver implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(TelemetryReceiver.class);
+
+    public static final int PACKET_SIZE = 32;
+    public static final int VERSION = 1;
+    private static final byte MAGIC_0 = 'T';
+    private static final byte MAGIC_1 = 'M';
+    private static final int ID_OFFSET = 4;
+    private static final int MAX_DATAGRAM = 256;
+    private static final int ID_CACHE_SIZE = 64;
+    // Room for a few hundred packets while the thread is descheduled
+    private static final int RECEIVE_BUFFER_BYTES = 256 * 1024;
+
+    public interface Listener {
+        void onTelemetry(String robotId, int sequence, int flags, int batteryMillivolts,
+                         int motorLeft, int motorRight, int motorDc, int motorServo,
+                         int rssi, int loopMicros, long receivedNanos);
+    }
+
+    private final DatagramChannel channel;
+    private final Listener listener;
+    private final ByteBuffer buffer = ByteBuffer.allocate(MAX_DATAGRAM);
+    private final IdInterner ids = new IdInterner(ID_CACHE_SIZE);
+    private final Thread thread;
+
+    private volatile boolean running = false;
+    private volatile long packetsReceived = 0;
+    private volatile long malformed = 0;
+
+    public TelemetryReceiver(int port, Listener listener) throws IOException {
+        this.channel = DatagramChannel.open();
+        // No SO_REUSEADDR: a second host instance would take a share of the samples,
+        // so its bind has to fail instead
+        this.channel.setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_BYTES);
+        this.channel.bind(new InetSocketAddress(port));
+        this.channel.configureBlocking(true);
+        this.listener = listener;
+        this.thread = new Thread(this, "telemetry-receiver");
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+        logger.info("Telemetry receiver listening on {}", channel.socket().getLocalPort());
+    }
+
+    @Override
+    public void run() {
+        byte[] data = buffer.array();
+        while (running) {
+            try {
+                buffer.clear();
+                if (channel.receive(buffer) == null) {
+                    continue;
+                }
+                long receivedNanos = System.nanoTime();
+                packetsReceived++;
+                decode(data, buffer.position(), receivedNanos);
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                logger.error("Error receiving telemetry", e);
+            }
+        }
+        logger.info("Telemetry receiver stopped");
+    }
+
+    void decode(byte[] data, int length, long receivedNanos) {
+        if (length < PACKET_SIZE || data[0] != MAGIC_0 || data[1] != MAGIC_1 || data[2] < VERSION) {
+            malformed++;
+            return;
+        }
+        int idEnd = ID_OFFSET;
+        while (idEnd < ID_OFFSET + ESP32Command.NAME_LENGTH && data[idEnd] != 0) {
+            idEnd++;
+        }
+        if (idEnd == ID_OFFSET) {
+            malformed++;
+            return;
+        }
+
+        listener.onTelemetry(ids.intern(data, ID_OFFSET, idEnd),
+                             unsignedShort(data, 20),
+                             data[3] & 0xFF,
+                             unsignedShort(data, 22),
+                             data[24], data[25], data[26], data[27],
+                             data[28],
+                             unsignedShort(data, 30),
+                             receivedNanos);
+    }
+
+    private static int unsignedShort(byte[] data, int offset) {
+        return ((data[offset] & 0xFF) << 8) | (data[offset + 1] & 0xFF);
+    }
+
+    public long getPacketsReceived() {
+        return packetsReceived;
+    }
+
+    public long getMalformed() {
+        return malformed;
+    }
+
+    public void shutdown() {
+        running = false;
+        try {
+            // Closing the channel unblocks the pending receive
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("Error closing telemetry channel: {}", e.getMessage());
+        }
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
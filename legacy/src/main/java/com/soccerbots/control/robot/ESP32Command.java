@@ -5,6 +5,22 @@ package com.soccerbots.control.robot;
  * Handles the binary protocol: robotName(16) + axes(6) + buttons(2)
  */
 public class ESP32Command {
+    public static final int PACKET_SIZE = 24;
+    public static final int NAME_LENGTH = 16;
+    // Extended format: legacy 24 bytes + sequence (2) + host timestamp in microseconds (4)
+    public static final int EXTENDED_PACKET_SIZE = 30;
+
+    // Neutral stick values expected by the firmware
+    public static final int CENTER_LEFT_X = 125;
+    public static final int CENTER_LEFT_Y = 130;
+    public static final int CENTER_RIGHT_X = 127;
+    public static final int CENTER_RIGHT_Y = 130;
+
+    public static final int BUTTON_CROSS = 1;
+    public static final int BUTTON_CIRCLE = 2;
+    public static final int BUTTON_SQUARE = 4;
+    public static final int BUTTON_TRIANGLE = 8;
+
     private String robotName;
     private int leftX;   // 0-255, center ~125
     private int leftY;   // 0-255, center ~130
@@ -20,10 +36,10 @@ public class ESP32Command {
     public ESP32Command(String robotName) {
         this.robotName = robotName;
         // Initialize with center values
-        this.leftX = 125;
-        this.leftY = 130;
-        this.rightX = 127;
-        this.rightY = 130;
+        this.leftX = CENTER_LEFT_X;
+        this.leftY = CENTER_LEFT_Y;
+        this.rightX = CENTER_RIGHT_X;
+        this.rightY = CENTER_RIGHT_Y;
         this.cross = false;
         this.circle = false;
         this.square = false;
@@ -41,16 +57,10 @@ public class ESP32Command {
         ESP32Command cmd = new ESP32Command(robotName);
 
         // Convert from -1.0/1.0 range to 0-255 range with proper center points
-        cmd.leftX = (int) Math.round(leftStickX * 125.0 + 125.0);
-        cmd.leftY = (int) Math.round(-leftStickY * 130.0 + 130.0);  // Invert Y axis
-        cmd.rightX = (int) Math.round(rightStickX * 127.0 + 127.0);
-        cmd.rightY = (int) Math.round(-rightStickY * 130.0 + 130.0); // Invert Y axis
-
-        // Clamp values to valid range
-        cmd.leftX = Math.max(0, Math.min(255, cmd.leftX));
-        cmd.leftY = Math.max(0, Math.min(255, cmd.leftY));
-        cmd.rightX = Math.max(0, Math.min(255, cmd.rightX));
-        cmd.rightY = Math.max(0, Math.min(255, cmd.rightY));
+        cmd.leftX = quantizeLeftX(leftStickX);
+        cmd.leftY = quantizeLeftY(leftStickY);
+        cmd.rightX = quantizeRightX(rightStickX);
+        cmd.rightY = quantizeRightY(rightStickY);
 
         // Map controller buttons to PlayStation-style buttons
         cmd.cross = buttonA;     // A -> Cross
@@ -61,6 +71,37 @@ public class ESP32Command {
         return cmd;
     }
 
+    public static int quantizeLeftX(double leftStickX) {
+        return clamp((int) Math.round(leftStickX * 125.0 + 125.0));
+    }
+
+    public static int quantizeLeftY(double leftStickY) {
+        return clamp((int) Math.round(-leftStickY * 130.0 + 130.0)); // Invert Y axis
+    }
+
+    public static int quantizeRightX(double rightStickX) {
+        return clamp((int) Math.round(rightStickX * 127.0 + 127.0));
+    }
+
+    public static int quantizeRightY(double rightStickY) {
+        return clamp((int) Math.round(-rightStickY * 130.0 + 130.0)); // Invert Y axis
+    }
+
+    private static int clamp(int value) {
+        return Math.max(0, Math.min(255, value));
+    }
+
+    /**
+     * Pack quantized axes and buttons into one long so two frames compare with ==
+     */
+    public static long packFrame(int leftX, int leftY, int rightX, int rightY,
+                                 boolean cross, boolean circle, boolean square, boolean triangle) {
+        int buttons = (cross ? BUTTON_CROSS : 0) | (circle ? BUTTON_CIRCLE : 0)
+                    | (square ? BUTTON_SQUARE : 0) | (triangle ? BUTTON_TRIANGLE : 0);
+        return ((long) leftX << 32) | ((long) leftY << 24) | ((long) rightX << 16)
+             | ((long) rightY << 8) | buttons;
+    }
+
     /**
      * Create neutral/stop command
      */
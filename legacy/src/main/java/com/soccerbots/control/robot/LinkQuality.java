@@ -0,0 +1,167 @@
+package com.soccerbots.control.robot;
+
+import com.soccerbots.control.metrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-robot RTT, loss and reorder estimator for extended (sequenced) commands.
+ *
+ * Every sequenced command is remembered in a ring of the last {@link #WINDOW}
+ * sequence numbers; acks mark their entry. Loss is the share of entries older
+ * than {@link #ACK_GRACE_NANOS} that were never acked. An ack whose sequence is
+ * behind the highest one already acked counts as reordered. Everything is cleared
+ * at the start of each match, so the figures describe the current match only.
+ */
+public class LinkQuality {
+    public static final int WINDOW = 256;
+    public static final long ACK_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+
+    private final LatencyHistogram rtt;
+    private final int[] sentSequence = new int[WINDOW];
+    private final long[] sentNanos = new long[WINDOW];
+    private final boolean[] acked = new boolean[WINDOW];
+
+    private int highestAcked = -1;
+    private long packetsSent = 0;
+    private long acksReceived = 0;
+    private long reordered = 0;
+    private long duplicates = 0;
+    private long unmatched = 0;
+
+    public LinkQuality() {
+        this.rtt = new LatencyHistogram();
+        Arrays.fill(sentSequence, -1);
+    }
+
+    /**
+     * Host timestamp carried in extended commands: monotonic microseconds, wrapping at 32 bits
+     */
+    public static int timestampMicros(long nanos) {
+        return (int) (nanos / 1000);
+    }
+
+    /**
+     * Round trip from a timestamp the robot echoed back, tolerant of 32-bit wrap-around
+     */
+    public static long rttNanos(int echoedMicros, long nowNanos) {
+        return ((timestampMicros(nowNanos) - echoedMicros) & 0xFFFFFFFFL) * 1000;
+    }
+
+    /**
+     * Record a sequenced command leaving the host. Sender thread only; does not allocate.
+     */
+    public synchronized void onSent(int sequence, long nowNanos) {
+        int index = sequence & (WINDOW - 1);
+        sentSequence[index] = sequence;
+        sentNanos[index] = nowNanos;
+        acked[index] = false;
+        packetsSent++;
+    }
+
+    /**
+     * Record an ack echoed by the robot
+     *
+     * @param rttNanos round trip computed from the echoed host timestamp
+     */
+    public synchronized void onAck(int sequence, long rttNanos) {
+        int index = sequence & (WINDOW - 1);
+        if (sentSequence[index] != sequence) {
+            // Older than the window or never sent by this session
+            unmatched++;
+            return;
+        }
+        if (acked[index]) {
+            duplicates++;
+            return;
+        }
+        acked[index] = true;
+        acksReceived++;
+        rtt.record(rttNanos);
+
+        if (highestAcked >= 0 && isBefore(sequence, highestAcked)) {
+            reordered++;
+        } else {
+            highestAcked = sequence;
+        }
+    }
+
+    /**
+     * 16-bit serial number comparison (RFC 1982)
+     */
+    private static boolean isBefore(int a, int b) {
+        return a != b && ((b - a) & 0xFFFF) < 0x8000;
+    }
+
+    /**
+     * Share of settled commands in the window that were never acked, 0.0-1.0, or -1 if none settled yet
+     */
+    public synchronized double getLossRatio() {
+        long now = System.nanoTime();
+        int settled = 0;
+        int lost = 0;
+        for (int i = 0; i < WINDOW; i++) {
+            if (sentSequence[i] < 0 || now - sentNanos[i] < ACK_GRACE_NANOS) {
+                continue;
+            }
+            settled++;
+            if (!acked[i]) {
+                lost++;
+            }
+        }
+        return settled > 0 ? (double) lost / settled : -1;
+    }
+
+    /**
+     * Forget all sends, acks and round trips, e.g. when a new match starts
+     */
+    public synchronized void reset() {
+        Arrays.fill(sentSequence, -1);
+        Arrays.fill(acked, false);
+        highestAcked = -1;
+        packetsSent = 0;
+        acksReceived = 0;
+        reordered = 0;
+        duplicates = 0;
+        unmatched = 0;
+        rtt.reset();
+    }
+
+    public LatencyHistogram getRtt() {
+        return rtt;
+    }
+
+    public synchronized long getPacketsSent() {
+        return packetsSent;
+    }
+
+    public synchronized long getAcksReceived() {
+        return acksReceived;
+    }
+
+    public synchronized long getReordered() {
+        return reordered;
+    }
+
+    public boolean hasSamples() {
+        return rtt.getCount() > 0;
+    }
+
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        double loss = getLossRatio();
+        synchronized (this) {
+            map.put("packetsSent", packetsSent);
+            map.put("acksReceived", acksReceived);
+            map.put("reordered", reordered);
+            map.put("duplicates", duplicates);
+            map.put("unmatched", unmatched);
+        }
+        map.put("lossPercent", loss >= 0 ? loss * 100.0 : null);
+        map.put("rtt", rtt.toMap());
+        return map;
+    }
+}
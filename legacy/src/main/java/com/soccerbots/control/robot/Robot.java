@@ -1,25 +1,73 @@
 package com.soccerbots.control.robot;
 
+import com.soccerbots.control.network.NetworkManager;
+import com.soccerbots.control.network.RobotChannel;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
 
 public class Robot {
     private final String id;
-    private String name;
-    private String ipAddress;
-    private String status;
-    private long lastSeenTime;
-    private long lastCommandTime;
-    private boolean isConnected;
-    private String pairedControllerId;
+    // Written by discovery, API and controller threads, read everywhere
+    private volatile String name;
+    private volatile String ipAddress;
+    private volatile String status;
+    private volatile long lastSeenTime;
+    private volatile long lastCommandTime;
+    private volatile boolean assigned;
+    private volatile String pairedControllerId;
+
+    // Lifecycle, driven by RobotLifecycle
+    private volatile RobotState state;
+    private volatile long lastHeardNanos;
+    private final TimingWheel.Timer livenessTimer = new TimingWheel.Timer(this);
+
+    // Registry hook: bumps the registry version when visible state changes
+    private volatile Runnable changeListener;
+
+    // Pre-resolved command target and reusable packet buffer for the sender
+    private volatile int commandPort = NetworkManager.ESP32_UDP_PORT;
+    private volatile InetSocketAddress commandAddress;
+    // Discovery port, where ESTOP / ESTOP_OFF are heard in every firmware state
+    private volatile InetSocketAddress safetyAddress;
+    // Replaced, never rewritten, on rename: the sender may be filling the current one
+    private volatile ByteBuffer commandBuffer;
+    // Connected channel to the assigned port, only with dedicated sockets enabled
+    private volatile RobotChannel dedicatedChannel;
+
+    // Delta-send state: last packed frame put on the wire and when
+    private static final long NO_FRAME = -1L;
+    private long lastSentFrame = NO_FRAME;
+    private long lastSentNanos;
+    private volatile long commandsSent;
+    private volatile long commandsSuppressed;
+
+    // Slot in the broadcast fleet frame once the robot has confirmed it, otherwise -1 (unicast)
+    private volatile int fleetSlot = -1;
+
+    // Sequenced commands with ack echo, only for robots that advertised the SEQ capability
+    private volatile boolean extendedProtocol = false;
+    private int commandSequence = 0;
+    private final LinkQuality linkQuality = new LinkQuality();
+
+    // Battery, motor, RSSI and loop-time reports from firmware that sends telemetry
+    private final TelemetryRing telemetry = new TelemetryRing();
     
     public Robot(String id, String name, String ipAddress, String status) {
         this.id = id;
         this.name = name;
         this.ipAddress = ipAddress;
+        this.commandAddress = resolveCommandAddress(ipAddress, commandPort);
+        this.safetyAddress = resolveCommandAddress(ipAddress, NetworkManager.DISCOVERY_PORT);
+        this.commandBuffer = newCommandBuffer(name);
         this.status = status;
         this.lastSeenTime = System.currentTimeMillis();
         this.lastCommandTime = 0;
-        this.isConnected = "connected".equals(status);
+        this.assigned = "connected".equals(status);
+        this.state = assigned ? RobotState.ASSIGNED : RobotState.DISCOVERED;
+        this.lastHeardNanos = System.nanoTime();
         this.pairedControllerId = null;
     }
     
@@ -33,6 +81,8 @@ public class Robot {
     
     public void setName(String name) {
         this.name = name;
+        commandBuffer = newCommandBuffer(name);
+        fireChanged();
     }
     
     public String getIpAddress() {
@@ -40,7 +90,71 @@ public class Robot {
     }
     
     public void setIpAddress(String ipAddress) {
+        if (Objects.equals(this.ipAddress, ipAddress)) {
+            return;
+        }
+        this.commandAddress = resolveCommandAddress(ipAddress, commandPort);
+        this.safetyAddress = resolveCommandAddress(ipAddress, NetworkManager.DISCOVERY_PORT);
+        resetSentFrame();
         this.ipAddress = ipAddress;
+        fireChanged();
+    }
+
+    /**
+     * Port movement and status commands go to: the port assigned through the PORT
+     * handshake once the robot confirmed it, otherwise the fixed firmware port
+     */
+    public int getCommandPort() {
+        return commandPort;
+    }
+
+    public boolean hasAssignedPort() {
+        return commandPort != NetworkManager.ESP32_UDP_PORT;
+    }
+
+    public void setCommandPort(int port) {
+        if (this.commandPort == port) {
+            return;
+        }
+        this.commandPort = port;
+        this.commandAddress = resolveCommandAddress(ipAddress, port);
+        resetSentFrame();
+        fireChanged();
+    }
+
+    public RobotChannel getDedicatedChannel() {
+        return dedicatedChannel;
+    }
+
+    public void setDedicatedChannel(RobotChannel channel) {
+        if (this.dedicatedChannel == channel) {
+            return;
+        }
+        this.dedicatedChannel = channel;
+        fireChanged();
+    }
+
+    /**
+     * Command port address, resolved once when the IP changes instead of per packet
+     */
+    public InetSocketAddress getCommandAddress() {
+        return commandAddress;
+    }
+
+    /**
+     * Emergency stop target, resolved with the command address
+     */
+    public InetSocketAddress getSafetyAddress() {
+        return safetyAddress;
+    }
+
+    /**
+     * Reusable direct buffer holding this robot's command packet (24 bytes, 30 when extended).
+     * The name header is pre-filled; only the sender thread may write the payload. A rename
+     * publishes a new buffer, so read this once per packet.
+     */
+    public ByteBuffer getCommandBuffer() {
+        return commandBuffer;
     }
     
     public String getStatus() {
@@ -48,8 +162,12 @@ public class Robot {
     }
     
     public void setStatus(String status) {
+        boolean changed = !Objects.equals(this.status, status);
         this.status = status;
         updateLastSeenTime();
+        if (changed) {
+            fireChanged();
+        }
     }
     
     public long getLastSeenTime() {
@@ -68,12 +186,46 @@ public class Robot {
         this.lastCommandTime = System.currentTimeMillis();
     }
     
+    /**
+     * Assigned to this station and heard from within the stale timeout
+     */
     public boolean isConnected() {
-        return isConnected && (System.currentTimeMillis() - lastSeenTime) < 30000;
+        return state == RobotState.CONNECTED;
     }
-    
-    public void setConnected(boolean connected) {
-        this.isConnected = connected;
+
+    public boolean isAssigned() {
+        return assigned;
+    }
+
+    void setAssigned(boolean assigned) {
+        if (this.assigned != assigned) {
+            this.assigned = assigned;
+            fireChanged();
+        }
+    }
+
+    public RobotState getState() {
+        return state;
+    }
+
+    void setState(RobotState state) {
+        this.state = state;
+        fireChanged();
+    }
+
+    /**
+     * nanoTime of the last ping or ACK from this robot
+     */
+    public long getLastHeardNanos() {
+        return lastHeardNanos;
+    }
+
+    void markHeard(long nowNanos) {
+        this.lastHeardNanos = nowNanos;
+    }
+
+    TimingWheel.Timer livenessTimer() {
+        return livenessTimer;
     }
     
     public String getPairedControllerId() {
@@ -82,6 +234,7 @@ public class Robot {
     
     public void setPairedControllerId(String pairedControllerId) {
         this.pairedControllerId = pairedControllerId;
+        fireChanged();
     }
     
     public boolean isPaired() {
@@ -96,6 +249,107 @@ public class Robot {
         return System.currentTimeMillis() - lastSeenTime;
     }
     
+    /**
+     * Decide whether a packed command frame must go on the wire: it differs from
+     * the last frame sent, or the keepalive interval has elapsed since then.
+     */
+    synchronized boolean shouldSendFrame(long frame, long nowNanos, long keepaliveNanos) {
+        if (frame == lastSentFrame && nowNanos - lastSentNanos < keepaliveNanos) {
+            commandsSuppressed++;
+            return false;
+        }
+        lastSentFrame = frame;
+        lastSentNanos = nowNanos;
+        commandsSent++;
+        return true;
+    }
+
+    /**
+     * Forget the last sent frame so the next command is transmitted unconditionally
+     */
+    synchronized void resetSentFrame() {
+        lastSentFrame = NO_FRAME;
+    }
+
+    public long getCommandsSent() {
+        return commandsSent;
+    }
+
+    public long getCommandsSuppressed() {
+        return commandsSuppressed;
+    }
+
+    public int getFleetSlot() {
+        return fleetSlot;
+    }
+
+    public void setFleetSlot(int fleetSlot) {
+        if (this.fleetSlot != fleetSlot) {
+            this.fleetSlot = fleetSlot;
+            fireChanged();
+        }
+    }
+
+    public boolean isFleetMember() {
+        return fleetSlot >= 0;
+    }
+
+    public boolean isExtendedProtocol() {
+        return extendedProtocol;
+    }
+
+    public void setExtendedProtocol(boolean extendedProtocol) {
+        if (this.extendedProtocol != extendedProtocol) {
+            this.extendedProtocol = extendedProtocol;
+            fireChanged();
+        }
+    }
+
+    /**
+     * Next 16-bit command sequence number. Sender thread only.
+     */
+    public int nextCommandSequence() {
+        commandSequence = (commandSequence + 1) & 0xFFFF;
+        return commandSequence;
+    }
+
+    public TelemetryRing getTelemetry() {
+        return telemetry;
+    }
+
+    public LinkQuality getLinkQuality() {
+        return linkQuality;
+    }
+
+    void setChangeListener(Runnable changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    private void fireChanged() {
+        Runnable listener = changeListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
+
+    private static InetSocketAddress resolveCommandAddress(String ipAddress, int port) {
+        if (ipAddress == null || ipAddress.isEmpty()) {
+            return null;
+        }
+        return new InetSocketAddress(ipAddress, port);
+    }
+
+    private static ByteBuffer newCommandBuffer(String name) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(ESP32Command.EXTENDED_PACKET_SIZE);
+        // Robot name (16 bytes, null-padded)
+        byte[] nameBytes = name != null ? name.getBytes(StandardCharsets.US_ASCII) : new byte[0];
+        int length = Math.min(nameBytes.length, ESP32Command.NAME_LENGTH);
+        for (int i = 0; i < ESP32Command.NAME_LENGTH; i++) {
+            buffer.put(i, i < length ? nameBytes[i] : 0);
+        }
+        return buffer;
+    }
+    
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -111,7 +365,7 @@ public class Robot {
     
     @Override
     public String toString() {
-        return String.format("Robot{id='%s', name='%s', ip='%s', status='%s', connected=%s, paired=%s}", 
-                           id, name, ipAddress, status, isConnected(), isPaired());
+        return String.format("Robot{id='%s', name='%s', ip='%s', status='%s', state=%s, paired=%s}",
+                           id, name, ipAddress, status, state, isPaired());
     }
 }
\ No newline at end of file
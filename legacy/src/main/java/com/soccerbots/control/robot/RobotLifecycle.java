@@ -0,0 +1,212 @@
+package com.soccerbots.control.robot;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+/**
+ * Drives every robot through DISCOVERED / ASSIGNED / CONNECTED / STALE / LOST.
+ *
+ * Each robot owns one timer on a {@link TimingWheel}. Hearing from a robot only
+ * records the time; the timer reschedules itself lazily when it fires, so pings
+ * and ACKs cost a volatile write and each transition is O(1) whatever the fleet size.
+ */
+public class RobotLifecycle implements Runnable {
+    private static final Logger logger = LoggerFactory.getLogger(RobotLifecycle.class);
+
+    // Firmware pings every 2 s and stops its motors after 5 s without commands
+    public static final long DEFAULT_STALE_AFTER_MS = 5000;
+    public static final long DEFAULT_LOST_AFTER_MS = 30000;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int WHEEL_BUCKETS = 512;
+
+    public interface Listener {
+        void onStateChanged(Robot robot, RobotState from, RobotState to);
+    }
+
+    private final long staleAfterNanos;
+    private final long lostAfterNanos;
+    private final LongSupplier clock;
+    private final TimingWheel wheel;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final Thread thread;
+    private volatile boolean running = false;
+
+    public RobotLifecycle(long staleAfterMs, long lostAfterMs) {
+        this(staleAfterMs, lostAfterMs, System::nanoTime);
+    }
+
+    /**
+     * Tests pass their own nanosecond clock and call {@link #tick(long)} instead of starting the thread
+     */
+    RobotLifecycle(long staleAfterMs, long lostAfterMs, LongSupplier clock) {
+        if (staleAfterMs <= 0 || lostAfterMs <= staleAfterMs) {
+            throw new IllegalArgumentException("Need 0 < staleAfter < lostAfter: " + staleAfterMs + ", " + lostAfterMs);
+        }
+        this.staleAfterNanos = TimeUnit.MILLISECONDS.toNanos(staleAfterMs);
+        this.lostAfterNanos = TimeUnit.MILLISECONDS.toNanos(lostAfterMs);
+        this.clock = clock;
+        this.wheel = new TimingWheel(WHEEL_BUCKETS, TICK_NANOS, clock.getAsLong());
+        this.thread = new Thread(this, "robot-lifecycle");
+        this.thread.setDaemon(true);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Start tracking a robot in the given initial state (DISCOVERED or ASSIGNED)
+     */
+    public void track(Robot robot, RobotState initial) {
+        robot.markHeard(clock.getAsLong());
+        transition(robot, initial);
+        wheel.schedule(robot.livenessTimer(), robot.getLastHeardNanos() + staleAfterNanos);
+    }
+
+    /**
+     * A ping or ACK arrived. Fast path is a single volatile write.
+     */
+    public void heard(Robot robot) {
+        long now = clock.getAsLong();
+        robot.markHeard(now);
+        RobotState state = robot.getState();
+        if (state == RobotState.CONNECTED || state == RobotState.DISCOVERED) {
+            return; // Timer is live and will see the new timestamp when it fires
+        }
+
+        synchronized (robot.livenessTimer()) {
+            state = robot.getState();
+            if (state == RobotState.ASSIGNED || state == RobotState.STALE || state == RobotState.LOST) {
+                transition(robot, robot.isAssigned() ? RobotState.CONNECTED : RobotState.DISCOVERED);
+                if (state != RobotState.ASSIGNED) {
+                    // Resend the current command immediately rather than waiting for a change or keepalive
+                    robot.resetSentFrame();
+                }
+            }
+            if (!robot.livenessTimer().isScheduled()) {
+                wheel.schedule(robot.livenessTimer(), now + staleAfterNanos);
+            }
+        }
+    }
+
+    /**
+     * Operator assigned the robot to this station. A live robot is CONNECTED straight
+     * away; a stale or lost one becomes CONNECTED when it is next heard from.
+     */
+    public void assign(Robot robot) {
+        synchronized (robot.livenessTimer()) {
+            robot.setAssigned(true);
+            if (robot.getState() == RobotState.DISCOVERED) {
+                transition(robot, RobotState.CONNECTED);
+            }
+            if (!robot.livenessTimer().isScheduled()) {
+                wheel.schedule(robot.livenessTimer(), clock.getAsLong() + staleAfterNanos);
+            }
+        }
+    }
+
+    /**
+     * Operator released the robot; it falls back to DISCOVERED if it is still alive
+     */
+    public void unassign(Robot robot) {
+        synchronized (robot.livenessTimer()) {
+            robot.setAssigned(false);
+            if (robot.getState().isReachable()) {
+                transition(robot, RobotState.DISCOVERED);
+            }
+        }
+    }
+
+    public void forget(Robot robot) {
+        wheel.cancel(robot.livenessTimer());
+    }
+
+    @Override
+    public void run() {
+        long next = clock.getAsLong() + TICK_NANOS;
+        while (running) {
+            long now;
+            while ((now = clock.getAsLong()) < next) {
+                LockSupport.parkNanos(this, next - now);
+                if (!running) {
+                    return;
+                }
+            }
+            next += TICK_NANOS;
+            try {
+                tick(now);
+            } catch (Exception e) {
+                logger.error("Robot lifecycle tick failed", e);
+            }
+        }
+    }
+
+    /**
+     * Expire every timer due at or before now. Called only from the lifecycle thread.
+     */
+    void tick(long now) {
+        for (TimingWheel.Timer timer : wheel.advance(now)) {
+            expire(timer.robot, now);
+        }
+    }
+
+    private void expire(Robot robot, long now) {
+        synchronized (robot.livenessTimer()) {
+            long silent = now - robot.getLastHeardNanos();
+            if (silent < staleAfterNanos) {
+                // Heard since the timer was set - push it out lazily
+                wheel.schedule(robot.livenessTimer(), robot.getLastHeardNanos() + staleAfterNanos);
+                return;
+            }
+
+            RobotState state = robot.getState();
+            if (state.isReachable()) {
+                transition(robot, RobotState.STALE);
+            }
+            if (silent < lostAfterNanos) {
+                wheel.schedule(robot.livenessTimer(), robot.getLastHeardNanos() + lostAfterNanos);
+            } else if (robot.getState() != RobotState.LOST) {
+                // No timer while lost; the next ping reschedules it
+                transition(robot, RobotState.LOST);
+            }
+        }
+    }
+
+    private void transition(Robot robot, RobotState to) {
+        RobotState from = robot.getState();
+        if (from == to) {
+            return;
+        }
+        robot.setState(to);
+        logger.info("Robot {} {} -> {}", robot.getId(), from, to);
+        for (Listener listener : listeners) {
+            try {
+                listener.onStateChanged(robot, from, to);
+            } catch (Exception e) {
+                logger.error("Robot state listener failed", e);
+            }
+        }
+    }
+}
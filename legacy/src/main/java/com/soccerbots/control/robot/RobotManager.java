@@ -1,81 +1,254 @@
 package com.soccerbots.control.robot;
 
+import com.soccerbots.control.network.DiscoveryReceiver;
+import com.soccerbots.control.network.EmergencyStopDispatcher;
 import com.soccerbots.control.network.NetworkManager;
 import com.soccerbots.control.controller.ControllerInput;
+import com.soccerbots.control.journal.MatchJournal;
+import com.soccerbots.control.metrics.LatencyHistogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.concurrent.*;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.Map;
 
 public class RobotManager {
     private static final Logger logger = LoggerFactory.getLogger(RobotManager.class);
     private static final int DISCOVERY_PORT = 12345;
 
+    // Firmware stops the motors after 5 s without a command packet
+    public static final long FIRMWARE_WATCHDOG_MS = 5000;
+    public static final long DEFAULT_KEEPALIVE_MS = 250;
+
     private final NetworkManager networkManager;
-    private final Map<String, Robot> connectedRobots;
-    private final Map<String, Robot> discoveredRobots;
+    private final RobotRegistry registry;
+    private final RobotLifecycle lifecycle;
     private final ExecutorService executorService;
-    private final ScheduledExecutorService discoveryExecutor;
 
     // Game state management
     private volatile String currentGameState = "standby";
     private volatile boolean emergencyStopActive = false;
 
+    // Unchanged frames are only resent this often
+    private volatile long keepaliveNanos;
+
+    // Round trips across all robots on the extended protocol
+    private final LatencyHistogram fleetRtt = new LatencyHistogram();
+    // Discovery datagram read off the socket -> robot visible in the registry. Time the
+    // datagram spent queued in the kernel before the read is not included.
+    private final LatencyHistogram discoveryProcessing = new LatencyHistogram();
+    // Every frame, state change and stop, one file per match
+    private final MatchJournal journal = new MatchJournal();
+
     public RobotManager(NetworkManager networkManager) {
         this.networkManager = networkManager;
-        this.connectedRobots = new ConcurrentHashMap<>();
-        this.discoveredRobots = new ConcurrentHashMap<>();
+        this.registry = new RobotRegistry();
+        this.lifecycle = new RobotLifecycle(
+            Long.getLong("soccerbots.control.staleAfterMs", RobotLifecycle.DEFAULT_STALE_AFTER_MS),
+            Long.getLong("soccerbots.control.lostAfterMs", RobotLifecycle.DEFAULT_LOST_AFTER_MS));
+        this.lifecycle.addListener(this::onRobotStateChanged);
+        this.lifecycle.start();
         this.executorService = Executors.newCachedThreadPool();
-        this.discoveryExecutor = Executors.newScheduledThreadPool(1);
+        setKeepaliveIntervalMs(Long.getLong("soccerbots.control.keepaliveMs", DEFAULT_KEEPALIVE_MS));
 
         logger.info("ESP32 Robot Manager initialized with discovery protocol");
     }
 
     /**
-     * Start discovery service - listens for robot discovery pings
+     * Start discovery service - a dedicated receiver thread handles pings and command ACKs as they arrive
      */
     public void startDiscovery() {
-        discoveryExecutor.scheduleAtFixedRate(this::listenForDiscoveryPings, 0, 500, TimeUnit.MILLISECONDS);
-        logger.info("Discovery service started on port {}", DISCOVERY_PORT);
+        boolean started = networkManager.startDiscoveryReceiver(new DiscoveryReceiver.Listener() {
+            @Override
+            public void onDiscoveryPing(String robotId, String ipAddress, boolean sequenced, int portArgument,
+                                        int fleetArgument, long receivedNanos) {
+                handleDiscoveryPing(robotId, ipAddress, sequenced, portArgument, fleetArgument, receivedNanos);
+            }
+
+            @Override
+            public void onCommandAck(String robotId, int sequence, int timestampMicros, long receivedNanos) {
+                handleCommandAck(robotId, sequence, timestampMicros, receivedNanos);
+            }
+        });
+        if (started) {
+            logger.info("Discovery service started on port {}", DISCOVERY_PORT);
+        } else {
+            logger.error("Robots cannot be discovered: port {} is unavailable. Is another driver station "
+                         + "running on this host?", DISCOVERY_PORT);
+        }
+        networkManager.startTelemetryReceiver(this::handleTelemetry);
+    }
+
+    /**
+     * Decoded telemetry packet: stored in the robot's ring, and proof of life like a ping
+     */
+    private void handleTelemetry(String robotId, int sequence, int flags, int batteryMillivolts,
+                                 int motorLeft, int motorRight, int motorDc, int motorServo,
+                                 int rssi, int loopMicros, long receivedNanos) {
+        Robot robot = getRobot(robotId);
+        if (robot == null) {
+            return; // Not discovered yet; the next ping adds it
+        }
+        robot.getTelemetry().record(sequence, flags, batteryMillivolts, motorLeft, motorRight, motorDc, motorServo,
+                                    rssi, loopMicros, receivedNanos);
+        lifecycle.heard(robot);
     }
 
     /**
-     * Listen for robot discovery pings and assign ports
+     * Handle command echo from a robot on the extended protocol
      */
-    private void listenForDiscoveryPings() {
-        try {
-            String message = networkManager.receiveDiscoveryMessage();
-            if (message != null && message.startsWith("DISCOVER:")) {
-                handleDiscoveryPing(message);
+    private void handleCommandAck(String robotId, int sequence, int timestampMicros, long receivedNanos) {
+        Robot robot = getRobot(robotId);
+        if (robot == null) {
+            return;
+        }
+        long rttNanos = LinkQuality.rttNanos(timestampMicros, receivedNanos);
+        robot.getLinkQuality().onAck(sequence, rttNanos);
+        fleetRtt.record(rttNanos);
+        robot.updateLastSeenTime();
+        lifecycle.heard(robot);
+    }
+
+    /**
+     * Handle discovery ping from robot: "DISCOVER:<robotId>:<IP>[:<capabilities>]"
+     */
+    private void handleDiscoveryPing(String robotId, String ipAddress, boolean extended, int portArgument,
+                                     int fleetArgument, long receivedNanos) {
+        // Add/update discovered robot
+        Robot robot = registry.getSnapshot().getDiscovered(robotId);
+        if (robot == null) {
+            robot = registry.addDiscovered(new Robot(robotId, robotId, ipAddress, "discovered"));
+            lifecycle.track(robot, RobotState.DISCOVERED);
+            logger.info("Discovered new robot: {} at {}", robotId, ipAddress);
+        } else {
+            robot.setIpAddress(ipAddress);
+            robot.updateLastSeenTime();
+            lifecycle.heard(robot);
+        }
+
+        if (extended != robot.isExtendedProtocol()) {
+            robot.setExtendedProtocol(extended);
+            logger.info("Robot {} using {} command format", robotId, extended ? "extended (sequenced)" : "legacy");
+        }
+        negotiateCommandPort(robot, portArgument);
+        negotiateFleetMode(robot, fleetArgument);
+
+        // A manually added robot with the same id is a separate entry: alive too, and on the same port
+        Robot connected = registry.getSnapshot().getConnected(robotId);
+        if (connected != null && connected != robot) {
+            connected.updateLastSeenTime();
+            lifecycle.heard(connected);
+            if (connected.getCommandPort() != robot.getCommandPort()) {
+                if (robot.hasAssignedPort()) {
+                    networkManager.attachCommandPort(connected, robot.getCommandPort());
+                } else {
+                    networkManager.releaseCommandPort(connected);
+                }
             }
-        } catch (Exception e) {
-            logger.debug("Discovery listening error: {}", e.getMessage());
         }
+
+        // Ping read off the socket -> robot state updated and visible to the API/UI
+        discoveryProcessing.record(System.nanoTime() - receivedNanos);
     }
 
     /**
-     * Handle discovery ping from robot: "DISCOVER:<robotId>:<IP>"
+     * Discovered robots nobody assigned are evicted once lost; assigned robots stay
+     * listed as LOST so their pairing survives until the operator removes them
      */
-    private void handleDiscoveryPing(String message) {
-        String[] parts = message.split(":");
-        if (parts.length >= 3) {
-            String robotId = parts[1];
-            String ipAddress = parts[2];
+    private void onRobotStateChanged(Robot robot, RobotState from, RobotState to) {
+        journal.recordRobotState(robot.getId(), from.ordinal(), to.ordinal());
+        if (to == RobotState.LOST && !robot.isAssigned()) {
+            if (registry.removeDiscovered(robot.getId()) == robot) {
+                forget(robot);
+                logger.info("Evicted lost robot: {}", robot.getId());
+            }
+        }
+    }
 
-            // Add/update discovered robot
-            Robot robot = discoveredRobots.get(robotId);
-            if (robot == null) {
-                robot = new Robot(robotId, robotId, ipAddress, "discovered");
-                discoveredRobots.put(robotId, robot);
-                logger.info("Discovered new robot: {} at {}", robotId, ipAddress);
-            } else {
-                robot.setIpAddress(ipAddress);
-                robot.updateLastSeenTime();
+    /**
+     * Stop tracking a robot that left the registry, close its dedicated channel and drop
+     * its command mailbox. Its port assignment is kept so it gets the same port if it comes back.
+     */
+    private void forget(Robot robot) {
+        lifecycle.forget(robot);
+        networkManager.forgetRobot(robot);
+    }
+
+    /**
+     * Command ports assigned this session, by robot id
+     */
+    public Map<String, Integer> getPortAssignments() {
+        return registry.getPortAssignments();
+    }
+
+    public void addLifecycleListener(RobotLifecycle.Listener listener) {
+        lifecycle.addListener(listener);
+    }
+
+    /**
+     * PORT handshake from the optional capability field of the ping. "PORT" means the
+     * robot is waiting in discovery mode for an assignment; "PORT@<port>" means it is
+     * listening on that port. Robots without the capability stay on the firmware port.
+     */
+    private void negotiateCommandPort(Robot robot, int advertisedPort) {
+        if (advertisedPort == DiscoveryReceiver.NOT_ADVERTISED || !networkManager.isPortAssignmentEnabled()) {
+            if (robot.hasAssignedPort()) {
+                networkManager.releaseCommandPort(robot);
+                logger.info("Robot {} using firmware command port {}", robot.getId(), NetworkManager.ESP32_UDP_PORT);
             }
+            return;
+        }
+
+        int port = registry.assignPort(robot.getId(), NetworkManager.ROBOT_BASE_PORT);
+        if (advertisedPort == port) {
+            if (robot.getCommandPort() != port) {
+                logger.info("Robot {} listening on assigned port {}", robot.getId(), port);
+            }
+            // Also reconnects a dedicated channel after an IP change
+            networkManager.attachCommandPort(robot, port);
+            return;
         }
+
+        // Back in discovery mode (firmware timeout or restart) or on a stale port - (re)assign
+        if (robot.hasAssignedPort()) {
+            networkManager.releaseCommandPort(robot);
+        }
+        networkManager.offerCommandPort(robot, port);
+    }
+
+    /**
+     * Fleet frame negotiation from the optional capability field of the ping.
+     * "FLEET" means capable but not yet listening; "FLEET@<slot>" means the robot
+     * accepted that slot. Robots without the capability stay on unicast.
+     */
+    private void negotiateFleetMode(Robot robot, int advertisedSlot) {
+        if (advertisedSlot == DiscoveryReceiver.NOT_ADVERTISED || !networkManager.isFleetModeEnabled()) {
+            if (robot.isFleetMember() || advertisedSlot >= 0) {
+                // Robot reflashed without fleet support, or fleet mode is off - fall back to unicast
+                networkManager.releaseFleetSlot(robot, advertisedSlot >= 0);
+                robot.resetSentFrame();
+                logger.info("Robot {} using unicast commands", robot.getId());
+            }
+            return;
+        }
+
+        if (advertisedSlot >= 0 && advertisedSlot == robot.getFleetSlot()) {
+            return; // Already confirmed
+        }
+
+        if (advertisedSlot >= 0 && networkManager.isFleetSlotReserved(robot, advertisedSlot)) {
+            robot.setFleetSlot(advertisedSlot);
+            robot.resetSentFrame();
+            logger.info("Robot {} joined fleet frame in slot {}", robot.getId(), advertisedSlot);
+            return;
+        }
+
+        // Capable but not (or wrongly) assigned - keep offering until the ping echoes our slot
+        robot.setFleetSlot(-1);
+        networkManager.offerFleetSlot(robot);
     }
 
     /**
@@ -87,21 +260,28 @@ public class RobotManager {
     }
 
     /**
-     * Get all discovered robots
+     * Get all discovered robots (immutable, no copy)
      */
     public List<Robot> getDiscoveredRobots() {
-        return new ArrayList<>(discoveredRobots.values());
+        return registry.getSnapshot().getDiscovered();
+    }
+
+    /**
+     * Current registry snapshot: a consistent, versioned view of connected and discovered robots
+     */
+    public RobotRegistry.Snapshot getRobotSnapshot() {
+        return registry.getSnapshot();
     }
 
     /**
      * Connect to a discovered robot
      */
     public Robot connectDiscoveredRobot(String robotId) {
-        Robot robot = discoveredRobots.get(robotId);
+        Robot robot = registry.getSnapshot().getDiscovered(robotId);
         if (robot != null) {
             robot.setStatus("connected");
-            robot.setConnected(true);
-            connectedRobots.put(robotId, robot);
+            registry.putConnected(robot);
+            lifecycle.assign(robot);
             logger.info("Connected to discovered robot: {} at {}", robotId, robot.getIpAddress());
             return robot;
         }
@@ -114,7 +294,9 @@ public class RobotManager {
      */
     public Robot addRobot(String robotName, String ipAddress) {
         Robot robot = new Robot(robotName, robotName, ipAddress, "connected");
-        connectedRobots.put(robotName, robot);
+        registry.putConnected(robot);
+        // CONNECTED once its first ping arrives
+        lifecycle.track(robot, RobotState.ASSIGNED);
 
         logger.info("Added ESP32 robot: {} at {}", robotName, ipAddress);
         return robot;
@@ -124,7 +306,7 @@ public class RobotManager {
      * Send controller input to a specific ESP32 robot
      */
     public void sendControllerInput(String robotName, ControllerInput input) {
-        Robot robot = connectedRobots.get(robotName);
+        Robot robot = registry.getSnapshot().getConnected(robotName);
         if (robot == null) {
             logger.warn("Robot not found: {}", robotName);
             return;
@@ -146,25 +328,8 @@ public class RobotManager {
      * Send ESP32 command to robot
      */
     public void sendESP32Command(Robot robot, ESP32Command command) {
-        if (!"teleop".equals(currentGameState)) {
-            // Only send movement commands during teleop mode
-            command = ESP32Command.createStopCommand(command.getRobotName());
-        }
-
-        networkManager.sendRobotCommand(
-            command.getRobotName(),
-            robot.getIpAddress(),
-            command.getLeftX(),
-            command.getLeftY(),
-            command.getRightX(),
-            command.getRightY(),
-            command.isCross(),
-            command.isCircle(),
-            command.isSquare(),
-            command.isTriangle()
-        );
-
-        robot.updateLastCommandTime();
+        sendFrame(robot, command.getLeftX(), command.getLeftY(), command.getRightX(), command.getRightY(),
+                  command.isCross(), command.isCircle(), command.isSquare(), command.isTriangle());
     }
 
     /**
@@ -172,66 +337,220 @@ public class RobotManager {
      */
     public void sendMovementCommand(String robotName, double leftStickX, double leftStickY,
                                   double rightStickX, double rightStickY) {
-        Robot robot = connectedRobots.get(robotName);
+        Robot robot = registry.getSnapshot().getConnected(robotName);
         if (robot == null) {
             logger.warn("Robot not found: {}", robotName);
             return;
         }
 
-        ESP32Command command = ESP32Command.fromControllerInput(
-            robotName, leftStickX, leftStickY, rightStickX, rightStickY,
-            false, false, false, false // No buttons
-        );
-
-        sendESP32Command(robot, command);
+        // Quantize straight to the wire format; no buttons
+        sendFrame(robot,
+                  ESP32Command.quantizeLeftX(leftStickX), ESP32Command.quantizeLeftY(leftStickY),
+                  ESP32Command.quantizeRightX(rightStickX), ESP32Command.quantizeRightY(rightStickY),
+                  false, false, false, false);
     }
 
     /**
      * Send stop command to specific robot
      */
     public void sendStopCommand(String robotName) {
-        Robot robot = connectedRobots.get(robotName);
+        Robot robot = registry.getSnapshot().getConnected(robotName);
         if (robot == null) {
             logger.warn("Robot not found: {}", robotName);
             return;
         }
 
-        ESP32Command stopCommand = ESP32Command.createStopCommand(robotName);
-        sendESP32Command(robot, stopCommand);
+        sendNeutral(robot);
+    }
+
+    private void sendNeutral(Robot robot) {
+        sendFrame(robot, ESP32Command.CENTER_LEFT_X, ESP32Command.CENTER_LEFT_Y,
+                  ESP32Command.CENTER_RIGHT_X, ESP32Command.CENTER_RIGHT_Y,
+                  false, false, false, false);
+    }
+
+    /**
+     * Delta-only send: a frame goes on the wire only when its quantized value
+     * changed or the keepalive interval has elapsed, so steady sticks and idle
+     * robots cost a few packets per second instead of one per control tick.
+     */
+    private void sendFrame(Robot robot, int leftX, int leftY, int rightX, int rightY,
+                           boolean cross, boolean circle, boolean square, boolean triangle) {
+        if (!"teleop".equals(currentGameState)) {
+            // Only send movement commands during teleop mode
+            leftX = ESP32Command.CENTER_LEFT_X;
+            leftY = ESP32Command.CENTER_LEFT_Y;
+            rightX = ESP32Command.CENTER_RIGHT_X;
+            rightY = ESP32Command.CENTER_RIGHT_Y;
+            cross = circle = square = triangle = false;
+        }
+
+        if (!robot.getState().isReachable()) {
+            // STALE or LOST: nothing is listening; the first ping back resets the frame so the current one goes out
+            return;
+        }
+
+        long frame = ESP32Command.packFrame(leftX, leftY, rightX, rightY, cross, circle, square, triangle);
+        if (!robot.shouldSendFrame(frame, System.nanoTime(), keepaliveNanos)) {
+            return;
+        }
+        // Buttons are the low byte of the packed frame
+        journal.recordCommand(robot.getId(), leftX, leftY, rightX, rightY, (int) (frame & 0xFF));
+
+        networkManager.sendRobotCommand(robot, leftX, leftY, rightX, rightY, cross, circle, square, triangle);
+        robot.updateLastCommandTime();
+    }
+
+    /**
+     * Round trips of sequenced commands across every robot on the extended protocol
+     */
+    public LatencyHistogram getFleetRtt() {
+        return fleetRtt;
+    }
+
+    /**
+     * Start every robot's RTT, loss and reorder figures afresh, at the start of a match
+     */
+    public void resetLinkStats() {
+        RobotRegistry.Snapshot snapshot = registry.getSnapshot();
+        for (Robot robot : snapshot.getConnected()) {
+            robot.getLinkQuality().reset();
+        }
+        for (Robot robot : snapshot.getDiscovered()) {
+            robot.getLinkQuality().reset();
+        }
+        fleetRtt.reset();
+    }
+
+    public LatencyHistogram getDiscoveryProcessing() {
+        return discoveryProcessing;
+    }
+
+    /**
+     * Mean command loss across robots with settled samples, 0.0-1.0, or -1 if none have any
+     */
+    public double getFleetLossRatio() {
+        double total = 0;
+        int robots = 0;
+        for (Robot robot : registry.getSnapshot().getConnected()) {
+            double loss = robot.getLinkQuality().getLossRatio();
+            if (loss >= 0) {
+                total += loss;
+                robots++;
+            }
+        }
+        return robots > 0 ? total / robots : -1;
+    }
+
+    /**
+     * Set how often an unchanged command is resent. Must stay below the firmware watchdog.
+     */
+    public void setKeepaliveIntervalMs(long keepaliveMs) {
+        if (keepaliveMs <= 0 || keepaliveMs >= FIRMWARE_WATCHDOG_MS) {
+            throw new IllegalArgumentException("Keepalive interval must be between 1 and "
+                                               + (FIRMWARE_WATCHDOG_MS - 1) + " ms: " + keepaliveMs);
+        }
+        this.keepaliveNanos = TimeUnit.MILLISECONDS.toNanos(keepaliveMs);
+        logger.info("Command keepalive interval set to {} ms", keepaliveMs);
+    }
+
+    public long getKeepaliveIntervalMs() {
+        return TimeUnit.NANOSECONDS.toMillis(keepaliveNanos);
+    }
+
+    /**
+     * Total command frames put on the wire across connected robots
+     */
+    public long getCommandsSent() {
+        long total = 0;
+        for (Robot robot : registry.getSnapshot().getConnected()) {
+            total += robot.getCommandsSent();
+        }
+        return total;
+    }
+
+    /**
+     * Total command frames skipped because they matched the last frame sent
+     */
+    public long getCommandsSuppressed() {
+        long total = 0;
+        for (Robot robot : registry.getSnapshot().getConnected()) {
+            total += robot.getCommandsSuppressed();
+        }
+        return total;
     }
 
     /**
      * Emergency stop all robots
      */
-    public void emergencyStopAll() {
-        logger.warn("EMERGENCY STOP - Halting all ESP32 robots");
+    public EmergencyStopDispatcher.Burst emergencyStopAll() {
+        return emergencyStopAll(System.nanoTime());
+    }
+
+    /**
+     * Emergency stop all robots; the ESTOP burst goes out before anything else
+     *
+     * @param requestedNanos System.nanoTime() when the stop was requested
+     */
+    public EmergencyStopDispatcher.Burst emergencyStopAll(long requestedNanos) {
         emergencyStopActive = true;
-        setGameState("standby"); // This will stop all movement
+        RobotRegistry.Snapshot snapshot = registry.getSnapshot();
+        InetSocketAddress[] targets = safetyTargets(snapshot);
+        EmergencyStopDispatcher.Burst burst = networkManager.dispatchEmergencyStop(true, targets, requestedNanos);
+        journal.recordEmergencyStop(true, targets.length);
 
-        // Send ESTOP command to all discovered and connected robots
-        for (Robot robot : discoveredRobots.values()) {
-            networkManager.sendEmergencyStop(robot.getIpAddress());
-        }
-        for (Robot robot : connectedRobots.values()) {
-            networkManager.sendEmergencyStop(robot.getIpAddress());
-            sendStopCommand(robot.getId());
+        logger.warn("EMERGENCY STOP - Halting all ESP32 robots");
+        setGameState("standby"); // This will stop all movement
+        for (Robot robot : snapshot.getConnected()) {
+            robot.resetSentFrame();
+            sendNeutral(robot);
         }
+        return burst;
     }
 
     /**
      * Deactivate emergency stop
      */
-    public void deactivateEmergencyStop() {
-        logger.info("Deactivating emergency stop");
+    public EmergencyStopDispatcher.Burst deactivateEmergencyStop() {
+        return deactivateEmergencyStop(System.nanoTime());
+    }
+
+    public EmergencyStopDispatcher.Burst deactivateEmergencyStop(long requestedNanos) {
         emergencyStopActive = false;
+        // ESTOP_OFF to all discovered and connected robots, queued behind any stop burst still going out
+        InetSocketAddress[] targets = safetyTargets(registry.getSnapshot());
+        EmergencyStopDispatcher.Burst burst = networkManager.dispatchEmergencyStop(false, targets, requestedNanos);
+        journal.recordEmergencyStop(false, targets.length);
+        logger.info("Deactivating emergency stop");
+        return burst;
+    }
 
-        // Send ESTOP_OFF command to all discovered and connected robots
-        for (Robot robot : discoveredRobots.values()) {
-            networkManager.sendEmergencyStopRelease(robot.getIpAddress());
+    /**
+     * Discovery-port addresses of every discovered and connected robot, each once
+     */
+    private static InetSocketAddress[] safetyTargets(RobotRegistry.Snapshot snapshot) {
+        List<Robot> discovered = snapshot.getDiscovered();
+        List<Robot> connected = snapshot.getConnected();
+        InetSocketAddress[] targets = new InetSocketAddress[discovered.size() + connected.size()];
+        int count = 0;
+        for (List<Robot> robots : List.of(discovered, connected)) {
+            for (Robot robot : robots) {
+                InetSocketAddress address = robot.getSafetyAddress();
+                if (address != null && !contains(targets, count, address)) {
+                    targets[count++] = address;
+                }
+            }
         }
-        for (Robot robot : connectedRobots.values()) {
-            networkManager.sendEmergencyStopRelease(robot.getIpAddress());
+        return count == targets.length ? targets : Arrays.copyOf(targets, count);
+    }
+
+    private static boolean contains(InetSocketAddress[] targets, int count, InetSocketAddress address) {
+        for (int i = 0; i < count; i++) {
+            if (targets[i].equals(address)) {
+                return true;
+            }
         }
+        return false;
     }
 
     /**
@@ -246,14 +565,24 @@ public class RobotManager {
      */
     public void setGameState(String gameState) {
         this.currentGameState = gameState;
+        journal.recordGameState(gameState);
         logger.info("Setting game state to: {}", gameState);
 
         // Broadcast game state to all robots
-        for (Robot robot : connectedRobots.values()) {
-            networkManager.sendGameStatus(robot.getName(), robot.getIpAddress(), gameState);
+        for (Robot robot : registry.getSnapshot().getConnected()) {
+            networkManager.sendGameStatus(robot, gameState);
+            // The first command in the new state always goes out
+            robot.resetSentFrame();
         }
     }
 
+    /**
+     * The match journal; also listens to the match clock so each match gets its own file
+     */
+    public MatchJournal getJournal() {
+        return journal;
+    }
+
     /**
      * Get current game state
      */
@@ -282,26 +611,30 @@ public class RobotManager {
         return "teleop".equals(currentGameState);
     }
 
+    /**
+     * Connected robots (immutable, no copy)
+     */
     public List<Robot> getConnectedRobots() {
-        return new ArrayList<>(connectedRobots.values());
+        return registry.getSnapshot().getConnected();
     }
 
     public int getConnectedRobotCount() {
-        return connectedRobots.size();
+        return registry.getSnapshot().getConnected().size();
     }
 
     public Robot getRobot(String robotName) {
         // Check connected robots first, then discovered robots
-        Robot robot = connectedRobots.get(robotName);
-        if (robot == null) {
-            robot = discoveredRobots.get(robotName);
-        }
-        return robot;
+        return registry.getSnapshot().get(robotName);
     }
 
     public void removeRobot(String robotName) {
-        Robot removed = connectedRobots.remove(robotName);
+        Robot removed = registry.removeConnected(robotName);
         if (removed != null) {
+            if (registry.getSnapshot().getDiscovered(robotName) == removed) {
+                lifecycle.unassign(removed);
+            } else {
+                forget(removed);
+            }
             logger.info("Removed ESP32 robot: {}", removed.getName());
         }
     }
@@ -310,28 +643,22 @@ public class RobotManager {
      * Test connection to a robot by sending a ping
      */
     public void testRobotConnection(String robotName) {
-        Robot robot = connectedRobots.get(robotName);
+        Robot robot = registry.getSnapshot().getConnected(robotName);
         if (robot != null) {
-            networkManager.sendGameStatus(robotName, robot.getIpAddress(), "ping");
+            networkManager.sendGameStatus(robotName, robot.getIpAddress(), robot.getCommandPort(), "ping");
             logger.info("Testing connection to robot: {}", robotName);
         }
     }
 
     /**
-     * Clear robots that haven't responded recently
+     * Clear connected robots the lifecycle has marked LOST
      */
     public void clearOfflineRobots() {
-        long currentTime = System.currentTimeMillis();
-        long timeout = 60000; // 60 seconds for manual robots
-
-        connectedRobots.entrySet().removeIf(entry -> {
-            Robot robot = entry.getValue();
-            boolean isOffline = (currentTime - robot.getLastSeenTime()) > timeout;
-            if (isOffline) {
-                logger.info("Removing offline ESP32 robot: {}", robot.getName());
-            }
-            return isOffline;
-        });
+        for (Robot robot : registry.removeConnectedIf(robot -> robot.getState() == RobotState.LOST)) {
+            forget(robot);
+            registry.removeDiscovered(robot.getId());
+            logger.info("Removing offline ESP32 robot: {}", robot.getName());
+        }
     }
 
     /**
@@ -360,18 +687,7 @@ public class RobotManager {
 
         // Stop all robots before shutdown
         setGameState("standby");
-
-        if (discoveryExecutor != null) {
-            discoveryExecutor.shutdown();
-            try {
-                if (!discoveryExecutor.awaitTermination(2, TimeUnit.SECONDS)) {
-                    discoveryExecutor.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                discoveryExecutor.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        lifecycle.shutdown();
 
         if (executorService != null) {
             executorService.shutdown();
@@ -384,5 +700,6 @@ public class RobotManager {
                 Thread.currentThread().interrupt();
             }
         }
+        journal.close();
     }
 }
\ No newline at end of file
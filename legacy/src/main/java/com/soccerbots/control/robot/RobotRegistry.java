@@ -0,0 +1,216 @@
+package com.soccerbots.control.robot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Single source of truth for known robots.
+ *
+ * Writers (discovery, connect/remove) copy-on-write a new immutable {@link Snapshot}
+ * under a lock and publish it through a volatile field; readers on the API, GUI and
+ * control threads take the current snapshot with one volatile read and never copy.
+ * Every published snapshot carries a version, so clients can ask what changed since N.
+ */
+public class RobotRegistry {
+    private volatile Snapshot snapshot = new Snapshot(0, new LinkedHashMap<>(), new LinkedHashMap<>());
+    // Command ports handed out this session; a robot keeps its port across reconnects
+    private final Map<String, Integer> assignedPorts = new LinkedHashMap<>();
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /**
+     * Add a robot heard through discovery; returns the existing one if already known
+     */
+    public synchronized Robot addDiscovered(Robot robot) {
+        Snapshot current = snapshot;
+        Robot existing = current.discoveredById.get(robot.getId());
+        if (existing != null) {
+            return existing;
+        }
+        Map<String, Robot> discovered = new LinkedHashMap<>(current.discoveredById);
+        discovered.put(robot.getId(), robot);
+        track(robot);
+        publish(new LinkedHashMap<>(current.connectedById), discovered);
+        return robot;
+    }
+
+    /**
+     * Add or replace a robot in the connected set
+     */
+    public synchronized void putConnected(Robot robot) {
+        Snapshot current = snapshot;
+        Map<String, Robot> connected = new LinkedHashMap<>(current.connectedById);
+        connected.put(robot.getId(), robot);
+        track(robot);
+        publish(connected, new LinkedHashMap<>(current.discoveredById));
+    }
+
+    public synchronized Robot removeConnected(String robotId) {
+        Snapshot current = snapshot;
+        if (!current.connectedById.containsKey(robotId)) {
+            return null;
+        }
+        Map<String, Robot> connected = new LinkedHashMap<>(current.connectedById);
+        Robot removed = connected.remove(robotId);
+        publish(connected, new LinkedHashMap<>(current.discoveredById));
+        return removed;
+    }
+
+    public synchronized Robot removeDiscovered(String robotId) {
+        Snapshot current = snapshot;
+        if (!current.discoveredById.containsKey(robotId)) {
+            return null;
+        }
+        Map<String, Robot> discovered = new LinkedHashMap<>(current.discoveredById);
+        Robot removed = discovered.remove(robotId);
+        publish(new LinkedHashMap<>(current.connectedById), discovered);
+        return removed;
+    }
+
+    /**
+     * Remove every connected robot matching the filter
+     *
+     * @return the robots removed
+     */
+    public synchronized List<Robot> removeConnectedIf(Predicate<Robot> filter) {
+        Snapshot current = snapshot;
+        Map<String, Robot> connected = new LinkedHashMap<>(current.connectedById);
+        List<Robot> removed = new ArrayList<>();
+        connected.values().removeIf(robot -> {
+            if (filter.test(robot)) {
+                removed.add(robot);
+                return true;
+            }
+            return false;
+        });
+        if (!removed.isEmpty()) {
+            publish(connected, new LinkedHashMap<>(current.discoveredById));
+        }
+        return removed;
+    }
+
+    /**
+     * Port for a robot's commands: the one it already had this session, else base + next index
+     */
+    public synchronized int assignPort(String robotId, int basePort) {
+        Integer port = assignedPorts.get(robotId);
+        if (port == null) {
+            port = basePort + assignedPorts.size();
+            assignedPorts.put(robotId, port);
+        }
+        return port;
+    }
+
+    public synchronized Map<String, Integer> getPortAssignments() {
+        return new LinkedHashMap<>(assignedPorts);
+    }
+
+    /**
+     * Publish a new version without a membership change (a robot's status, address or pairing changed)
+     */
+    public synchronized void touch() {
+        Snapshot current = snapshot;
+        snapshot = current.withVersion(current.version + 1);
+    }
+
+    private void track(Robot robot) {
+        robot.setChangeListener(this::touch);
+    }
+
+    private void publish(Map<String, Robot> connected, Map<String, Robot> discovered) {
+        snapshot = new Snapshot(snapshot.version + 1, connected, discovered);
+    }
+
+    /**
+     * Immutable view of the registry at one version
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final Map<String, Robot> connectedById;
+        private final Map<String, Robot> discoveredById;
+        private final List<Robot> connected;
+        private final List<Robot> discovered;
+        private final List<Robot> all;
+
+        private Snapshot(long version, Map<String, Robot> connectedById, Map<String, Robot> discoveredById) {
+            this.version = version;
+            this.connectedById = Collections.unmodifiableMap(connectedById);
+            this.discoveredById = Collections.unmodifiableMap(discoveredById);
+            this.connected = List.copyOf(connectedById.values());
+            this.discovered = List.copyOf(discoveredById.values());
+
+            // Connected robots first, then discovered ones not already connected
+            List<Robot> merged = new ArrayList<>(connected);
+            Map<String, Robot> seen = new HashMap<>(connectedById);
+            for (Robot robot : discovered) {
+                if (seen.putIfAbsent(robot.getId(), robot) == null) {
+                    merged.add(robot);
+                }
+            }
+            this.all = Collections.unmodifiableList(merged);
+        }
+
+        private Snapshot(Snapshot source, long version) {
+            this.version = version;
+            this.connectedById = source.connectedById;
+            this.discoveredById = source.discoveredById;
+            this.connected = source.connected;
+            this.discovered = source.discovered;
+            this.all = source.all;
+        }
+
+        private Snapshot withVersion(long version) {
+            return new Snapshot(this, version);
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public boolean isNewerThan(long version) {
+            return this.version > version;
+        }
+
+        public List<Robot> getConnected() {
+            return connected;
+        }
+
+        public List<Robot> getDiscovered() {
+            return discovered;
+        }
+
+        /**
+         * Connected robots followed by discovered robots that are not connected, without duplicates
+         */
+        public List<Robot> getAll() {
+            return all;
+        }
+
+        public Robot getConnected(String robotId) {
+            return connectedById.get(robotId);
+        }
+
+        public Robot getDiscovered(String robotId) {
+            return discoveredById.get(robotId);
+        }
+
+        /**
+         * Connected robot with this id, else the discovered one
+         */
+        public Robot get(String robotId) {
+            Robot robot = connectedById.get(robotId);
+            return robot != null ? robot : discoveredById.get(robotId);
+        }
+    }
+}
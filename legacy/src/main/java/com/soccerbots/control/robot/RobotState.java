@@ -0,0 +1,24 @@
+package com.soccerbots.control.robot;
+
+/**
+ * Robot lifecycle as tracked by {@link RobotLifecycle}
+ */
+public enum RobotState {
+    /** Heard through discovery, not assigned to this driver station */
+    DISCOVERED,
+    /** Assigned by the operator, waiting to hear from the robot again */
+    ASSIGNED,
+    /** Assigned and recently heard from */
+    CONNECTED,
+    /** No ping or ACK within the stale timeout; commands are not sent */
+    STALE,
+    /** Silent past the lost timeout; discovered-only robots are evicted */
+    LOST;
+
+    /**
+     * Whether movement commands should be sent to a robot in this state
+     */
+    public boolean isReachable() {
+        return this == DISCOVERED || this == ASSIGNED || this == CONNECTED;
+    }
+}
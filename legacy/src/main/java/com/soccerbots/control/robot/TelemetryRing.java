@@ -0,0 +1,200 @@
+package com.soccerbots.control.robot;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Last {@link #CAPACITY} telemetry samples reported by one robot.
+ *
+ * Columns are preallocated primitive arrays, so recording a sample from the
+ * receiver thread does not allocate. Sequence gaps count as lost packets and
+ * samples slightly older than the newest one are dropped as reordered. A jump
+ * further back, or any older sequence after a silence, means the robot restarted
+ * its counter (reboot): the ring resyncs on it instead of dropping ~32k packets.
+ */
+public class TelemetryRing {
+    // 5 s of history at 50 Hz
+    public static final int CAPACITY = 256;
+    // Further back than this is a restarted counter, not a reordered packet
+    static final int REORDER_WINDOW = 32;
+    // Silence after which any older sequence is taken as a restart; a reboot takes longer
+    private static final long RESYNC_AFTER_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final long[] receivedNanos = new long[CAPACITY];
+    private final int[] sequence = new int[CAPACITY];
+    private final int[] flags = new int[CAPACITY];
+    private final int[] batteryMillivolts = new int[CAPACITY];
+    private final int[] motorLeft = new int[CAPACITY];
+    private final int[] motorRight = new int[CAPACITY];
+    private final int[] motorDc = new int[CAPACITY];
+    private final int[] motorServo = new int[CAPACITY];
+    private final int[] rssi = new int[CAPACITY];
+    private final int[] loopMicros = new int[CAPACITY];
+
+    private long count = 0;
+    private long lost = 0;
+    private long outOfOrder = 0;
+    private long restarts = 0;
+
+    /**
+     * One decoded sample, reused by readers
+     */
+    public static final class Sample {
+        public long receivedNanos;
+        public int sequence;
+        public int flags;
+        public int batteryMillivolts;
+        public int motorLeft;
+        public int motorRight;
+        public int motorDc;
+        public int motorServo;
+        public int rssi;
+        public int loopMicros;
+    }
+
+    /**
+     * Record a sample. Receiver thread only; does not allocate.
+     *
+     * @param sequence 16-bit packet sequence
+     * @param motorLeft motor outputs in percent, -100..100
+     * @param rssi received signal strength in dBm
+     */
+    public synchronized void record(int sequence, int flags, int batteryMillivolts,
+                                    int motorLeft, int motorRight, int motorDc, int motorServo,
+                                    int rssi, int loopMicros, long receivedNanos) {
+        if (count > 0) {
+            int last = (int) ((count - 1) & (CAPACITY - 1));
+            int delta = (short) (sequence - this.sequence[last]);
+            if (delta > 0) {
+                lost += delta - 1;
+            } else if (delta >= -REORDER_WINDOW && receivedNanos - this.receivedNanos[last] < RESYNC_AFTER_NANOS) {
+                outOfOrder++;
+                return;
+            } else {
+                restarts++;
+            }
+        }
+        int index = (int) (count & (CAPACITY - 1));
+        this.receivedNanos[index] = receivedNanos;
+        this.sequence[index] = sequence;
+        this.flags[index] = flags;
+        this.batteryMillivolts[index] = batteryMillivolts;
+        this.motorLeft[index] = motorLeft;
+        this.motorRight[index] = motorRight;
+        this.motorDc[index] = motorDc;
+        this.motorServo[index] = motorServo;
+        this.rssi[index] = rssi;
+        this.loopMicros[index] = loopMicros;
+        count++;
+    }
+
+    /**
+     * Copy the newest sample
+     *
+     * @return false if nothing has been received yet
+     */
+    public synchronized boolean latest(Sample into) {
+        if (count == 0) {
+            return false;
+        }
+        copy((int) ((count - 1) & (CAPACITY - 1)), into);
+        return true;
+    }
+
+    public synchronized boolean hasSamples() {
+        return count > 0;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getLost() {
+        return lost;
+    }
+
+    /**
+     * Times the robot's sequence counter started over
+     */
+    public synchronized long getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Newest samples first, at most {@code max}
+     */
+    public synchronized List<Sample> history(int max) {
+        int available = (int) Math.min(count, CAPACITY);
+        int size = Math.max(0, Math.min(max, available));
+        List<Sample> samples = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Sample sample = new Sample();
+            copy((int) ((count - 1 - i) & (CAPACITY - 1)), sample);
+            samples.add(sample);
+        }
+        return samples;
+    }
+
+    private void copy(int index, Sample into) {
+        into.receivedNanos = receivedNanos[index];
+        into.sequence = sequence[index];
+        into.flags = flags[index];
+        into.batteryMillivolts = batteryMillivolts[index];
+        into.motorLeft = motorLeft[index];
+        into.motorRight = motorRight[index];
+        into.motorDc = motorDc[index];
+        into.motorServo = motorServo[index];
+        into.rssi = rssi[index];
+        into.loopMicros = loopMicros[index];
+    }
+
+    public static Map<String, Object> sampleToMap(Sample sample, long nowNanos) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("sequence", sample.sequence);
+        map.put("ageMs", TimeUnit.NANOSECONDS.toMillis(nowNanos - sample.receivedNanos));
+        map.put("batteryMv", sample.batteryMillivolts);
+        map.put("motors", new int[] {sample.motorLeft, sample.motorRight, sample.motorDc, sample.motorServo});
+        map.put("rssi", sample.rssi);
+        map.put("loopMicros", sample.loopMicros);
+        map.put("flags", sample.flags);
+        return map;
+    }
+
+    /**
+     * Newest sample plus window statistics, or null if the robot never sent telemetry
+     */
+    public Map<String, Object> toMap() {
+        Sample sample = new Sample();
+        long samples;
+        long lostPackets;
+        long reordered;
+        long restarted;
+        int maxLoop = 0;
+        int minBattery = Integer.MAX_VALUE;
+        synchronized (this) {
+            if (!latest(sample)) {
+                return null;
+            }
+            samples = count;
+            lostPackets = lost;
+            reordered = outOfOrder;
+            restarted = restarts;
+            int window = (int) Math.min(count, CAPACITY);
+            for (int i = 0; i < window; i++) {
+                maxLoop = Math.max(maxLoop, loopMicros[i]);
+                minBattery = Math.min(minBattery, batteryMillivolts[i]);
+            }
+        }
+        Map<String, Object> map = sampleToMap(sample, System.nanoTime());
+        map.put("samples", samples);
+        map.put("lost", lostPackets);
+        map.put("outOfOrder", reordered);
+        map.put("restarts", restarted);
+        map.put("maxLoopMicros", maxLoop);
+        map.put("minBatteryMv", minBattery);
+        return map;
+    }
+}
@@ -0,0 +1,112 @@
+package com.soccerbots.control.robot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hashed timing wheel: schedule, cancel and per-tick expiry are O(1) per timer,
+ * independent of how many timers are pending. Timers further out than one
+ * revolution stay in their bucket until their deadline tick comes round.
+ */
+class TimingWheel {
+    /**
+     * A timer slot owned by one robot, relinked on every reschedule
+     */
+    static final class Timer {
+        final Robot robot;
+        private long deadlineTick;
+        private int bucket = -1;
+        private Timer prev;
+        private Timer next;
+
+        Timer(Robot robot) {
+            this.robot = robot;
+        }
+
+        boolean isScheduled() {
+            return bucket >= 0;
+        }
+    }
+
+    private final Timer[] buckets;
+    private final int mask;
+    private final long tickNanos;
+    private final long startNanos;
+    private long currentTick = 0;
+    private final List<Timer> expired = new ArrayList<>();
+
+    TimingWheel(int bucketCount, long tickNanos, long startNanos) {
+        if (Integer.bitCount(bucketCount) != 1) {
+            throw new IllegalArgumentException("Bucket count must be a power of two: " + bucketCount);
+        }
+        this.buckets = new Timer[bucketCount];
+        this.mask = bucketCount - 1;
+        this.tickNanos = tickNanos;
+        this.startNanos = startNanos;
+    }
+
+    long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * (Re)schedule the timer to fire at the given absolute nanoTime
+     */
+    synchronized void schedule(Timer timer, long deadlineNanos) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+        long tick = Math.max(currentTick + 1, (deadlineNanos - startNanos + tickNanos - 1) / tickNanos);
+        timer.deadlineTick = tick;
+        timer.bucket = (int) (tick & mask);
+        timer.next = buckets[timer.bucket];
+        if (timer.next != null) {
+            timer.next.prev = timer;
+        }
+        buckets[timer.bucket] = timer;
+    }
+
+    synchronized void cancel(Timer timer) {
+        if (timer.isScheduled()) {
+            unlink(timer);
+        }
+    }
+
+    private void unlink(Timer timer) {
+        if (timer.prev != null) {
+            timer.prev.next = timer.next;
+        } else {
+            buckets[timer.bucket] = timer.next;
+        }
+        if (timer.next != null) {
+            timer.next.prev = timer.prev;
+        }
+        timer.prev = null;
+        timer.next = null;
+        timer.bucket = -1;
+    }
+
+    /**
+     * Advance to the given time and collect every timer whose deadline passed.
+     * The returned list is reused by the next call; only the ticking thread may use it.
+     */
+    List<Timer> advance(long nowNanos) {
+        expired.clear();
+        synchronized (this) {
+            long targetTick = (nowNanos - startNanos) / tickNanos;
+            while (currentTick < targetTick) {
+                currentTick++;
+                Timer timer = buckets[(int) (currentTick & mask)];
+                while (timer != null) {
+                    Timer next = timer.next;
+                    if (timer.deadlineTick <= currentTick) {
+                        unlink(timer);
+                        expired.add(timer);
+                    }
+                    timer = next;
+                }
+            }
+        }
+        return expired;
+    }
+}
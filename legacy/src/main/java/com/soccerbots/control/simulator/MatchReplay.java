@@ -0,0 +1,352 @@
+package com.soccerbots.control.simulator;
+
+import com.soccerbots.control.journal.JournalReader;
+import com.soccerbots.control.journal.MatchJournal;
+import com.soccerbots.control.robot.ESP32Command;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives one {@link SimulatedRobot} per journaled robot with the command frames of a
+ * recorded match, reconstructing where each robot went relative to where it started.
+ *
+ * Physics runs in fixed {@value #STEP_HZ} Hz steps and every frame is applied at the
+ * first step at or after its timestamp, so a replay is deterministic: the same match
+ * always produces the same trajectories, whether it is played at original timing,
+ * scrubbed back and forth, or run headless as fast as the CPU allows. Robots follow the
+ * firmware's rules: frames are ignored during an emergency stop, and a robot that has
+ * heard nothing for five seconds stops. A checkpoint of every robot is kept each second
+ * of match time, so seeking costs at most one second of simulation.
+ *
+ * Headless: {@code java -cp ... com.soccerbots.control.simulator.MatchReplay <file or directory>...}
+ */
+public class MatchReplay {
+    public static final int STEP_HZ = 60;
+    private static final double STEP_SECONDS = 1.0 / STEP_HZ;
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final int CHECKPOINT_STEPS = STEP_HZ;
+    // Firmware stops the motors after this long without a packet
+    private static final long COMMAND_TIMEOUT_STEPS = 5L * STEP_HZ;
+    // Upper bound on points per robot in a trajectory
+    private static final int MAX_TRAJECTORY_POINTS = 20_000;
+
+    private final JournalReader journal;
+    private final int[] slots;
+    private final String[] ids;
+    private final SimulatedRobot[] robots;
+    // Robot index by journal slot, -1 if the slot never got a command
+    private final int[] indexBySlot = new int[MatchJournal.NO_SLOT + 1];
+    private final long endStep;
+
+    private final double[] distance;
+    private final long[] lastPacketStep;
+    private final List<Checkpoint> checkpoints = new ArrayList<>();
+    private long step = 0;
+    private int cursor = 0;
+    private boolean emergencyStop = false;
+
+    /**
+     * Everything needed to resume simulation from a step
+     */
+    private static final class Checkpoint {
+        final int cursor;
+        final boolean emergencyStop;
+        final double[] robots;
+        final double[] distance;
+        final long[] lastPacketStep;
+
+        Checkpoint(int cursor, boolean emergencyStop, double[] robots, double[] distance, long[] lastPacketStep) {
+            this.cursor = cursor;
+            this.emergencyStop = emergencyStop;
+            this.robots = robots;
+            this.distance = distance;
+            this.lastPacketStep = lastPacketStep;
+        }
+    }
+
+    public MatchReplay(JournalReader journal) {
+        this.journal = journal;
+        Arrays.fill(indexBySlot, -1);
+        List<Integer> commanded = new ArrayList<>();
+        for (int i = 0; i < journal.size(); i++) {
+            if (journal.type(i) == MatchJournal.Type.COMMAND && indexBySlot[journal.slot(i)] < 0) {
+                indexBySlot[journal.slot(i)] = commanded.size();
+                commanded.add(journal.slot(i));
+            }
+        }
+        int count = commanded.size();
+        this.slots = new int[count];
+        this.ids = new String[count];
+        this.robots = new SimulatedRobot[count];
+        for (int i = 0; i < count; i++) {
+            slots[i] = commanded.get(i);
+            String id = journal.robotName(slots[i]);
+            ids[i] = id != null ? id : "slot-" + slots[i];
+            robots[i] = new SimulatedRobot();
+        }
+        this.distance = new double[count];
+        this.lastPacketStep = new long[count];
+        this.endStep = stepAt(journal.getDurationNanos()) + 1;
+        checkpoint();
+    }
+
+    public static MatchReplay open(Path file) throws IOException {
+        return new MatchReplay(JournalReader.open(file));
+    }
+
+    private static long stepAt(long nanos) {
+        return nanos * STEP_HZ / SECOND_NANOS;
+    }
+
+    private static long nanosAt(long step) {
+        return step * SECOND_NANOS / STEP_HZ;
+    }
+
+    // ---- Simulation ----
+
+    /**
+     * Move to this match time, simulating forward or restoring the nearest earlier checkpoint
+     */
+    public synchronized void seek(long nanos) {
+        long target = Math.max(0, Math.min(endStep, stepAt(nanos)));
+        int checkpoint = (int) Math.min(target / CHECKPOINT_STEPS, checkpoints.size() - 1);
+        if (target < step || (long) checkpoint * CHECKPOINT_STEPS > step) {
+            restore(checkpoint);
+        }
+        while (step < target) {
+            step();
+        }
+    }
+
+    public void seekMillis(long millis) {
+        seek(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    /**
+     * Simulate to the end of the match
+     */
+    public synchronized void runToEnd() {
+        seek(nanosAt(endStep));
+    }
+
+    private void step() {
+        long now = nanosAt(step);
+        int size = journal.size();
+        while (cursor < size && journal.timeNanos(cursor) <= now) {
+            apply(cursor++);
+        }
+        for (int i = 0; i < robots.length; i++) {
+            SimulatedRobot robot = robots[i];
+            if (step - lastPacketStep[i] > COMMAND_TIMEOUT_STEPS) {
+                robot.setControllerInput(0, 0, 0);
+            }
+            double x = robot.getX();
+            double y = robot.getY();
+            robot.update(STEP_SECONDS);
+            double dx = robot.getX() - x;
+            double dy = robot.getY() - y;
+            distance[i] += Math.sqrt(dx * dx + dy * dy);
+        }
+        step++;
+        if (step % CHECKPOINT_STEPS == 0 && step / CHECKPOINT_STEPS == checkpoints.size()) {
+            checkpoint();
+        }
+    }
+
+    private void apply(int record) {
+        MatchJournal.Type type = journal.type(record);
+        if (type == MatchJournal.Type.COMMAND) {
+            int index = indexBySlot[journal.slot(record)];
+            lastPacketStep[index] = step;
+            if (!emergencyStop) {
+                robots[index].setControllerInput(sideways(journal.leftX(record)),
+                    forward(journal.leftY(record)), rotation(journal.rightX(record)));
+            }
+        } else if (type == MatchJournal.Type.ESTOP) {
+            emergencyStop = true;
+            for (int i = 0; i < robots.length; i++) {
+                robots[i].setControllerInput(0, 0, 0);
+                lastPacketStep[i] = step;
+            }
+        } else if (type == MatchJournal.Type.ESTOP_OFF) {
+            emergencyStop = false;
+            Arrays.fill(lastPacketStep, step);
+        }
+    }
+
+    /**
+     * Wire values to the simulator's inputs, as SimulatorApp maps a gamepad
+     */
+    static double sideways(int leftX) {
+        return (leftX - ESP32Command.CENTER_LEFT_X) / (double) ESP32Command.CENTER_LEFT_X;
+    }
+
+    static double forward(int leftY) {
+        // Stick up is negative Y on the pad and a high byte on the wire
+        return (leftY - ESP32Command.CENTER_LEFT_Y) / (double) ESP32Command.CENTER_LEFT_Y;
+    }
+
+    static double rotation(int rightX) {
+        return (rightX - ESP32Command.CENTER_RIGHT_X) / (double) ESP32Command.CENTER_RIGHT_X;
+    }
+
+    private void checkpoint() {
+        double[] state = new double[robots.length * SimulatedRobot.STATE_SIZE];
+        for (int i = 0; i < robots.length; i++) {
+            robots[i].saveState(state, i * SimulatedRobot.STATE_SIZE);
+        }
+        checkpoints.add(new Checkpoint(cursor, emergencyStop, state, distance.clone(), lastPacketStep.clone()));
+    }
+
+    private void restore(int index) {
+        Checkpoint checkpoint = checkpoints.get(index);
+        for (int i = 0; i < robots.length; i++) {
+            robots[i].restoreState(checkpoint.robots, i * SimulatedRobot.STATE_SIZE);
+        }
+        System.arraycopy(checkpoint.distance, 0, distance, 0, distance.length);
+        System.arraycopy(checkpoint.lastPacketStep, 0, lastPacketStep, 0, lastPacketStep.length);
+        cursor = checkpoint.cursor;
+        emergencyStop = checkpoint.emergencyStop;
+        step = (long) index * CHECKPOINT_STEPS;
+    }
+
+    // ---- State ----
+
+    public JournalReader getJournal() {
+        return journal;
+    }
+
+    public synchronized long getPositionNanos() {
+        return nanosAt(step);
+    }
+
+    public long getDurationNanos() {
+        return nanosAt(endStep);
+    }
+
+    public synchronized boolean isFinished() {
+        return step >= endStep;
+    }
+
+    public int getRobotCount() {
+        return robots.length;
+    }
+
+    public synchronized Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("file", journal.getFile().getFileName().toString());
+        map.put("startedAt", journal.getStartEpochMs());
+        map.put("positionMs", TimeUnit.NANOSECONDS.toMillis(nanosAt(step)));
+        map.put("durationMs", TimeUnit.NANOSECONDS.toMillis(getDurationNanos()));
+        map.put("finished", step >= endStep);
+        map.put("emergencyStop", emergencyStop);
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (int i = 0; i < robots.length; i++) {
+            SimulatedRobot robot = robots[i];
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", ids[i]);
+            entry.put("slot", slots[i]);
+            entry.put("x", robot.getX());
+            entry.put("y", robot.getY());
+            entry.put("angle", robot.getAngle());
+            entry.put("vx", robot.getVx());
+            entry.put("vy", robot.getVy());
+            entry.put("sideways", robot.getInputSideways());
+            entry.put("forward", robot.getInputForward());
+            entry.put("rotation", robot.getInputRotation());
+            entry.put("distance", distance[i]);
+            list.add(entry);
+        }
+        map.put("robots", list);
+        return map;
+    }
+
+    /**
+     * Every robot's path over the whole match, sampled at this interval, from a separate
+     * simulation so the caller's position is untouched. Points are [ms, x, y, angle].
+     */
+    public static Map<String, Object> trajectory(JournalReader journal, long intervalMs) {
+        MatchReplay replay = new MatchReplay(journal);
+        long interval = Math.max(TimeUnit.MILLISECONDS.toNanos(Math.max(1, intervalMs)),
+                                 replay.getDurationNanos() / MAX_TRAJECTORY_POINTS);
+        List<List<double[]>> paths = new ArrayList<>();
+        for (int i = 0; i < replay.robots.length; i++) {
+            paths.add(new ArrayList<>());
+        }
+        for (long t = 0; ; t += interval) {
+            replay.seek(t);
+            for (int i = 0; i < replay.robots.length; i++) {
+                SimulatedRobot robot = replay.robots[i];
+                paths.get(i).add(new double[] {
+                    TimeUnit.NANOSECONDS.toMillis(replay.getPositionNanos()), robot.getX(), robot.getY(), robot.getAngle()
+                });
+            }
+            if (replay.isFinished()) {
+                break;
+            }
+        }
+
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("file", journal.getFile().getFileName().toString());
+        map.put("intervalMs", TimeUnit.NANOSECONDS.toMillis(interval));
+        List<Map<String, Object>> robots = new ArrayList<>();
+        for (int i = 0; i < replay.robots.length; i++) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("id", replay.ids[i]);
+            entry.put("slot", replay.slots[i]);
+            entry.put("distance", replay.distance[i]);
+            entry.put("points", paths.get(i));
+            robots.add(entry);
+        }
+        map.put("robots", robots);
+        return map;
+    }
+
+    /**
+     * Replay matches headless as fast as possible and print where every robot ended up
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: MatchReplay <journal file or directory>...");
+            System.exit(1);
+        }
+        List<Path> files = new ArrayList<>();
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            files.addAll(Files.isDirectory(path) ? JournalReader.listMatches(path) : List.of(path));
+        }
+
+        long totalMatchNanos = 0;
+        long totalWallNanos = 0;
+        long totalRecords = 0;
+        for (Path file : files) {
+            long start = System.nanoTime();
+            MatchReplay replay = open(file);
+            replay.runToEnd();
+            long wall = System.nanoTime() - start;
+            totalWallNanos += wall;
+            totalMatchNanos += replay.getDurationNanos();
+            totalRecords += replay.journal.size();
+            System.out.printf("%s: %.1f s of match, %d robots, %d records in %.1f ms%n", file.getFileName(),
+                replay.getDurationNanos() / 1e9, replay.robots.length, replay.journal.size(), wall / 1e6);
+            for (int i = 0; i < replay.robots.length; i++) {
+                SimulatedRobot robot = replay.robots[i];
+                System.out.printf("  %-16s x=%8.1f y=%8.1f angle=%6.1f deg, travelled %.1f%n", replay.ids[i],
+                    robot.getX(), robot.getY(), Math.toDegrees(robot.getAngle()), replay.distance[i]);
+            }
+        }
+        if (totalWallNanos > 0) {
+            System.out.printf("Replayed %.1f min of matches (%d records) in %.2f s, %.0fx real time%n",
+                totalMatchNanos / 60e9, totalRecords, totalWallNanos / 1e9, (double) totalMatchNanos / totalWallNanos);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.soccerbots.control.simulator;
+
+/**
+ * The ball: a light disc that rolls, slows down and bounces off walls and robots
+ */
+public class SimulatedBall {
+    public static final double RADIUS = 15.0;
+    public static final double MASS = 0.1; // relative to a robot's 1.0
+
+    // Fraction of speed kept per 1/60 s of rolling, scaled to the actual step
+    private static final double ROLLING_FRICTION = 0.985;
+    private static final double FRICTION_REFERENCE_HZ = 60.0;
+    private static final double STOP_SPEED = 0.5;
+
+    private double x;
+    private double y;
+    private double vx;
+    private double vy;
+
+    private double cachedDeltaTime = Double.NaN;
+    private double cachedFriction;
+
+    public void reset(double x, double y) {
+        this.x = x;
+        this.y = y;
+        this.vx = 0.0;
+        this.vy = 0.0;
+    }
+
+    public void update(double deltaTime) {
+        if (deltaTime != cachedDeltaTime) {
+            cachedDeltaTime = deltaTime;
+            cachedFriction = Math.pow(ROLLING_FRICTION, deltaTime * FRICTION_REFERENCE_HZ);
+        }
+        vx *= cachedFriction;
+        vy *= cachedFriction;
+        if (vx * vx + vy * vy < STOP_SPEED * STOP_SPEED) {
+            vx = 0.0;
+            vy = 0.0;
+        }
+        x += vx * deltaTime;
+        y += vy * deltaTime;
+    }
+
+    void moveBy(double dx, double dy) {
+        x += dx;
+        y += dy;
+    }
+
+    void setVelocity(double vx, double vy) {
+        this.vx = vx;
+        this.vy = vy;
+    }
+
+    public double getX() { return x; }
+    public double getY() { return y; }
+    public double getVx() { return vx; }
+    public double getVy() { return vy; }
+
+    public boolean isMoving() {
+        return vx != 0.0 || vy != 0.0;
+    }
+}
@@ -25,23 +25,39 @@ public class SimulatedRobot {
     private static final double MAX_ROTATION_SPEED = Math.PI; // radians per second
     private static final double ACCELERATION = 800.0;
     private static final double ROTATION_ACCELERATION = Math.PI * 4;
+    // Fraction of velocity kept per 1/60 s, scaled to the actual step so any tick rate behaves alike
     private static final double FRICTION = 0.85;
     private static final double ROTATION_FRICTION = 0.8;
+    private static final double FRICTION_REFERENCE_HZ = 60.0;
 
     // Robot dimensions (for auto-rickshaw model)
     public static final double WIDTH = 60.0;
     public static final double LENGTH = 80.0;
     public static final double HEIGHT = 50.0;
     public static final double WHEEL_RADIUS = 10.0;
+    // Collision circle, between the half width and the half diagonal of the body
+    public static final double RADIUS = 45.0;
+
+    // Pose that reset() returns to
+    private double spawnX = 0.0;
+    private double spawnY = 0.0;
+    private double spawnAngle = 0.0;
+
+    private double cachedDeltaTime = Double.NaN;
+    private double cachedFriction;
+    private double cachedRotationFriction;
+
+    // Doubles written by saveState
+    public static final int STATE_SIZE = 9;
 
     public SimulatedRobot() {
         reset();
     }
 
     public void reset() {
-        x = 0.0;
-        y = 0.0;
-        angle = 0.0;
+        x = spawnX;
+        y = spawnY;
+        angle = spawnAngle;
         vx = 0.0;
         vy = 0.0;
         vAngle = 0.0;
@@ -50,6 +66,43 @@ public class SimulatedRobot {
         inputRotation = 0.0;
     }
 
+    /**
+     * Where reset() puts the robot; also moves it there now
+     */
+    public void setSpawn(double x, double y, double angle) {
+        this.spawnX = x;
+        this.spawnY = y;
+        this.spawnAngle = angle;
+        reset();
+    }
+
+    /**
+     * Copy pose, velocity and input into the array, for checkpoints
+     */
+    public void saveState(double[] into, int offset) {
+        into[offset] = x;
+        into[offset + 1] = y;
+        into[offset + 2] = angle;
+        into[offset + 3] = vx;
+        into[offset + 4] = vy;
+        into[offset + 5] = vAngle;
+        into[offset + 6] = inputSideways;
+        into[offset + 7] = inputForward;
+        into[offset + 8] = inputRotation;
+    }
+
+    public void restoreState(double[] from, int offset) {
+        x = from[offset];
+        y = from[offset + 1];
+        angle = from[offset + 2];
+        vx = from[offset + 3];
+        vy = from[offset + 4];
+        vAngle = from[offset + 5];
+        inputSideways = from[offset + 6];
+        inputForward = from[offset + 7];
+        inputRotation = from[offset + 8];
+    }
+
     /**
      * Set controller input (matches ESP32Command scheme)
      * @param sideways Left stick X (-1.0 to 1.0)
@@ -84,9 +137,14 @@ public class SimulatedRobot {
         vAngle = accelerateTowards(vAngle, targetVAngle, ROTATION_ACCELERATION * deltaTime);
 
         // Apply friction
-        vx *= FRICTION;
-        vy *= FRICTION;
-        vAngle *= ROTATION_FRICTION;
+        if (deltaTime != cachedDeltaTime) {
+            cachedDeltaTime = deltaTime;
+            cachedFriction = Math.pow(FRICTION, deltaTime * FRICTION_REFERENCE_HZ);
+            cachedRotationFriction = Math.pow(ROTATION_FRICTION, deltaTime * FRICTION_REFERENCE_HZ);
+        }
+        vx *= cachedFriction;
+        vy *= cachedFriction;
+        vAngle *= cachedRotationFriction;
 
         // Rotate velocity by robot angle for field-relative movement
         double cosAngle = Math.cos(angle);
@@ -104,6 +162,32 @@ public class SimulatedRobot {
         while (angle < -Math.PI) angle += 2 * Math.PI;
     }
 
+    /**
+     * Velocity in field coordinates (vx and vy are in the robot's own frame)
+     */
+    public double getWorldVx() {
+        return vx * Math.cos(angle) - vy * Math.sin(angle);
+    }
+
+    public double getWorldVy() {
+        return vx * Math.sin(angle) + vy * Math.cos(angle);
+    }
+
+    /**
+     * Change the velocity by a field-frame amount, as a collision impulse does
+     */
+    void addWorldVelocity(double dvx, double dvy) {
+        double cos = Math.cos(angle);
+        double sin = Math.sin(angle);
+        vx += dvx * cos + dvy * sin;
+        vy += -dvx * sin + dvy * cos;
+    }
+
+    void moveBy(double dx, double dy) {
+        x += dx;
+        y += dy;
+    }
+
     private double accelerateTowards(double current, double target, double maxDelta) {
         double diff = target - current;
         if (Math.abs(diff) <= maxDelta) {
@@ -0,0 +1,152 @@
+package com.soccerbots.control.simulator;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Runs the world's physics on its own thread in fixed steps, independent of painting.
+ *
+ * Elapsed wall time goes into an accumulator that is drained in whole
+ * {@value #STEP_HZ} Hz steps, so simulated time keeps pace with real time however
+ * slowly the window repaints, and every step has the same length. After each batch of
+ * steps an immutable {@link WorldSnapshot} is published through a volatile field for
+ * the renderer. The world is only ever touched by the physics thread: other threads
+ * hand it changes with {@link #submit}, applied before the next step.
+ *
+ * If the machine cannot keep up at all, the backlog is capped at
+ * {@value #MAX_CATCH_UP_STEPS} steps per batch and the rest is dropped (counted in
+ * {@link #getDroppedSteps()}): the simulation slows down instead of spiralling.
+ */
+public class SimulationLoop {
+    private static final Logger logger = LoggerFactory.getLogger(SimulationLoop.class);
+
+    public static final int STEP_HZ = 60;
+    static final int MAX_CATCH_UP_STEPS = 15;
+
+    private static final long STEP_NANOS = TimeUnit.SECONDS.toNanos(1) / STEP_HZ;
+    private static final double STEP_SECONDS = 1.0 / STEP_HZ;
+
+    private final SimulatorWorld world;
+    private final Queue<Consumer<SimulatorWorld>> commands = new ConcurrentLinkedQueue<>();
+
+    private volatile WorldSnapshot snapshot;
+    private volatile boolean running = false;
+    private volatile long droppedSteps = 0;
+    private Thread thread;
+    private long step = 0;
+
+    public SimulationLoop(SimulatorWorld world) {
+        this.world = world;
+        int robots = world.getRobots().size();
+        double[] robotState = new double[robots * WorldSnapshot.ROBOT_STRIDE];
+        double[] ballState = new double[WorldSnapshot.BALL_SIZE];
+        WorldSnapshot.capturePrevious(world, robotState, ballState);
+        publish(robotState, ballState, System.nanoTime());
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "simulator-physics");
+        thread.setDaemon(true);
+        thread.start();
+        logger.info("Simulation running at {} Hz", STEP_HZ);
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    /**
+     * Apply a change to the world on the physics thread, before the next step
+     */
+    public void submit(Consumer<SimulatorWorld> command) {
+        commands.add(command);
+    }
+
+    /**
+     * The latest published state; never null
+     */
+    public WorldSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Steps given up because the machine fell more than {@value #MAX_CATCH_UP_STEPS} behind
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+
+    private void run() {
+        long accumulator = 0;
+        long last = System.nanoTime();
+        while (running) {
+            long now = System.nanoTime();
+            accumulator += now - last;
+            last = now;
+
+            if (accumulator > MAX_CATCH_UP_STEPS * STEP_NANOS) {
+                long dropped = accumulator / STEP_NANOS - MAX_CATCH_UP_STEPS;
+                droppedSteps += dropped;
+                accumulator -= dropped * STEP_NANOS;
+            }
+
+            if (accumulator >= STEP_NANOS) {
+                try {
+                    applyCommands();
+                    double[] robotState = null;
+                    double[] ballState = null;
+                    while (accumulator >= STEP_NANOS) {
+                        accumulator -= STEP_NANOS;
+                        if (accumulator < STEP_NANOS) {
+                            // Last step of the batch: keep the poses it starts from
+                            robotState = new double[world.getRobots().size() * WorldSnapshot.ROBOT_STRIDE];
+                            ballState = new double[WorldSnapshot.BALL_SIZE];
+                            WorldSnapshot.capturePrevious(world, robotState, ballState);
+                        }
+                        world.update(STEP_SECONDS);
+                        step++;
+                    }
+                    // The current state is where real time stood, less the leftover
+                    publish(robotState, ballState, now - accumulator);
+                } catch (Exception e) {
+                    logger.error("Error in simulation step", e);
+                }
+            }
+
+            // Sleep until the next step is due
+            LockSupport.parkNanos(STEP_NANOS - accumulator);
+        }
+    }
+
+    private void applyCommands() {
+        Consumer<SimulatorWorld> command;
+        while ((command = commands.poll()) != null) {
+            command.accept(world);
+        }
+    }
+
+    private void publish(double[] robotState, double[] ballState, long stateNanos) {
+        WorldSnapshot.captureCurrent(world, robotState, ballState);
+        snapshot = new WorldSnapshot(robotState, world.getRobots().size(), ballState,
+                                     world.getScore(0), world.getScore(1), step, STEP_NANOS, stateNanos);
+    }
+}
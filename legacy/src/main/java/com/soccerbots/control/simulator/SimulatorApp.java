@@ -18,6 +18,10 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * Lightweight 3D robot simulator with game controller support
  * Optimized for low-end hardware (old ThinkPads)
+ *
+ * Physics runs on the {@link SimulationLoop} thread at a fixed rate; the Swing timer
+ * here only polls controllers, forwards input and repaints, so a slow paint drops
+ * frames without slowing simulated time.
  */
 public class SimulatorApp extends JFrame {
     private static final Logger logger = LoggerFactory.getLogger(SimulatorApp.class);
@@ -26,7 +30,7 @@ public class SimulatorApp extends JFrame {
     private static final int TARGET_FPS = 60;
 
     private SimulatorRenderer renderer;
-    private SimulatorWorld world;
+    private SimulationLoop simulation;
     private Map<String, GameController> connectedControllers;
     private Timer updateTimer;
     private Timer controllerDetectionTimer;
@@ -39,10 +43,10 @@ public class SimulatorApp extends JFrame {
         setLocationRelativeTo(null);
 
         // Initialize world and robot
-        world = new SimulatorWorld();
+        simulation = new SimulationLoop(new SimulatorWorld());
 
         // Initialize renderer
-        renderer = new SimulatorRenderer(world);
+        renderer = new SimulatorRenderer(simulation);
         renderer.setPreferredSize(new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT));
         renderer.setFocusable(true);
 
@@ -97,7 +101,7 @@ public class SimulatorApp extends JFrame {
         // Reset button
         JButton resetButton = new JButton("Reset Position");
         resetButton.setFocusable(false);
-        resetButton.addActionListener(e -> world.getRobot().reset());
+        resetButton.addActionListener(e -> simulation.submit(SimulatorWorld::resetPositions));
 
         // Update labels periodically
         Timer labelUpdateTimer = new Timer(100, e -> {
@@ -113,9 +117,9 @@ public class SimulatorApp extends JFrame {
 
             fpsLabel.setText("FPS: " + renderer.getFPS());
 
-            SimulatedRobot robot = world.getRobot();
+            WorldSnapshot snapshot = simulation.getSnapshot();
             posLabel.setText(String.format("Position: (%.1f, %.1f) | Angle: %.1f°",
-                    robot.getX(), robot.getY(), Math.toDegrees(robot.getAngle())));
+                    snapshot.robotX(0, 1.0), snapshot.robotY(0, 1.0), Math.toDegrees(snapshot.robotAngle(0, 1.0))));
         });
         labelUpdateTimer.start();
 
@@ -134,35 +138,33 @@ public class SimulatorApp extends JFrame {
         renderer.addKeyListener(new KeyAdapter() {
             @Override
             public void keyPressed(KeyEvent e) {
-                SimulatedRobot robot = world.getRobot();
                 switch (e.getKeyCode()) {
                     case KeyEvent.VK_W:
-                        robot.setManualControl(0, 0.5, 0);
+                        setManualControl(0, 0.5, 0);
                         break;
                     case KeyEvent.VK_S:
-                        robot.setManualControl(0, -0.5, 0);
+                        setManualControl(0, -0.5, 0);
                         break;
                     case KeyEvent.VK_A:
-                        robot.setManualControl(-0.5, 0, 0);
+                        setManualControl(-0.5, 0, 0);
                         break;
                     case KeyEvent.VK_D:
-                        robot.setManualControl(0.5, 0, 0);
+                        setManualControl(0.5, 0, 0);
                         break;
                     case KeyEvent.VK_Q:
-                        robot.setManualControl(0, 0, -0.5);
+                        setManualControl(0, 0, -0.5);
                         break;
                     case KeyEvent.VK_E:
-                        robot.setManualControl(0, 0, 0.5);
+                        setManualControl(0, 0, 0.5);
                         break;
                     case KeyEvent.VK_R:
-                        robot.reset();
+                        simulation.submit(world -> world.getRobot().reset());
                         break;
                 }
             }
 
             @Override
             public void keyReleased(KeyEvent e) {
-                SimulatedRobot robot = world.getRobot();
                 switch (e.getKeyCode()) {
                     case KeyEvent.VK_W:
                     case KeyEvent.VK_S:
@@ -170,15 +172,20 @@ public class SimulatorApp extends JFrame {
                     case KeyEvent.VK_D:
                     case KeyEvent.VK_Q:
                     case KeyEvent.VK_E:
-                        robot.setManualControl(0, 0, 0);
+                        setManualControl(0, 0, 0);
                         break;
                 }
             }
         });
     }
 
+    private void setManualControl(double sideways, double forward, double rotation) {
+        simulation.submit(world -> world.getRobot().setManualControl(sideways, forward, rotation));
+    }
+
     private void startUpdateLoop() {
         running = true;
+        simulation.start();
         int frameDelay = 1000 / TARGET_FPS;
 
         updateTimer = new Timer(frameDelay, e -> {
@@ -187,10 +194,7 @@ public class SimulatorApp extends JFrame {
             // Update controller input
             updateControllerInput();
 
-            // Update world physics
-            world.update(1.0 / TARGET_FPS);
-
-            // Repaint renderer
+            // Repaint renderer; physics advances on its own thread
             renderer.repaint();
         });
 
@@ -290,8 +294,7 @@ public class SimulatorApp extends JFrame {
             return;
         }
 
-        ControllerInput input = readControllerInput(controller);
-        gameController.updateInput(input);
+        ControllerInput input = gameController.pollInput();
 
         // Use the same control scheme as the real robot
         // Left stick: forward/sideways movement
@@ -300,62 +303,12 @@ public class SimulatorApp extends JFrame {
         double sideways = input.getLeftStickX();
         double rotation = input.getRightStickX();
 
-        world.getRobot().setControllerInput(sideways, forward, rotation);
-    }
-
-    private ControllerInput readControllerInput(Controller controller) {
-        ControllerInput input = new ControllerInput();
-
-        net.java.games.input.Component[] components = controller.getComponents();
-        for (net.java.games.input.Component component : components) {
-            float value = component.getPollData();
-            String name = component.getName();
-
-            switch (name.toLowerCase()) {
-                case "x":
-                case "x axis":
-                    input.setLeftStickX(value);
-                    break;
-                case "y":
-                case "y axis":
-                    input.setLeftStickY(-value); // Invert Y axis
-                    break;
-                case "rx":
-                case "z rotation":
-                    input.setRightStickX(value);
-                    break;
-                case "ry":
-                case "z axis":
-                    input.setRightStickY(-value); // Invert Y axis
-                    break;
-                case "z":
-                case "left trigger":
-                    input.setLeftTrigger(value);
-                    break;
-                case "rz":
-                case "right trigger":
-                    input.setRightTrigger(value);
-                    break;
-                case "pov":
-                case "hat switch":
-                    input.setDPad(value);
-                    break;
-                default:
-                    if (component.getIdentifier() instanceof net.java.games.input.Component.Identifier.Button) {
-                        net.java.games.input.Component.Identifier.Button button =
-                            (net.java.games.input.Component.Identifier.Button) component.getIdentifier();
-                        int buttonIndex = button.toString().hashCode() % 16;
-                        input.setButton(buttonIndex, value > 0.5f);
-                    }
-                    break;
-            }
-        }
-
-        return input;
+        simulation.submit(world -> world.getRobot().setControllerInput(sideways, forward, rotation));
     }
 
     public void stop() {
         running = false;
+        simulation.stop();
         if (updateTimer != null) {
             updateTimer.stop();
         }
@@ -7,9 +7,15 @@ import java.awt.geom.*;
 /**
  * Lightweight 3D renderer for the robot simulator
  * Uses simple 2.5D projection for performance on old hardware
+ *
+ * Draws the latest {@link WorldSnapshot} from the simulation thread, interpolated to
+ * the moment of painting, so a slow or dropped frame never holds back the physics.
  */
 public class SimulatorRenderer extends JPanel {
-    private SimulatorWorld world;
+    private final SimulationLoop simulation;
+    // State being painted, fixed for the whole frame
+    private WorldSnapshot snapshot;
+    private double alpha;
     private double cameraX = 0;
     private double cameraY = 0;
     private double zoom = 1.0;
@@ -29,9 +35,13 @@ public class SimulatorRenderer extends JPanel {
     private static final Color ROBOT_SHADOW = new Color(0, 0, 0, 80);
     private static final Color WHEEL_COLOR = new Color(50, 50, 50);
     private static final Color GROUND_COLOR = new Color(30, 40, 55);
+    private static final Color FIELD_LINE_COLOR = new Color(220, 220, 220, 160);
+    private static final Color GOAL_COLOR = new Color(255, 200, 0, 90);
+    private static final Color BALL_COLOR = new Color(255, 140, 0);
+    private static final Color[] TEAM_COLORS = {ROBOT_COLOR, new Color(255, 90, 120)};
 
-    public SimulatorRenderer(SimulatorWorld world) {
-        this.world = world;
+    public SimulatorRenderer(SimulationLoop simulation) {
+        this.simulation = simulation;
         setBackground(BG_COLOR);
         setDoubleBuffered(true);
     }
@@ -45,16 +55,22 @@ public class SimulatorRenderer extends JPanel {
         g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
         g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_SPEED);
 
+        snapshot = simulation.getSnapshot();
+        alpha = snapshot.alphaAt(System.nanoTime());
+
         // Update camera to follow robot
         if (followRobot) {
-            SimulatedRobot robot = world.getRobot();
-            cameraX = robot.getX();
-            cameraY = robot.getY();
+            cameraX = snapshot.robotX(0, alpha);
+            cameraY = snapshot.robotY(0, alpha);
         }
 
         // Draw scene
         drawGrid(g2d);
-        drawRobot(g2d);
+        drawField(g2d);
+        drawBall(g2d);
+        for (int i = 0; i < snapshot.getRobotCount(); i++) {
+            drawRobot(g2d, i, TEAM_COLORS[i % 2]);
+        }
         drawHUD(g2d);
 
         // Update FPS
@@ -125,14 +141,50 @@ public class SimulatorRenderer extends JPanel {
         g2d.drawLine(originX, originY - 20, originX, originY + 20);
     }
 
-    private void drawRobot(Graphics2D g2d) {
-        SimulatedRobot robot = world.getRobot();
+    private void drawField(Graphics2D g2d) {
+        double halfLength = SimulatorWorld.FIELD_LENGTH / 2;
+        double halfWidth = SimulatorWorld.FIELD_WIDTH / 2;
+        double halfGoal = SimulatorWorld.GOAL_WIDTH / 2;
+        int left = worldToScreenX(-halfLength);
+        int right = worldToScreenX(halfLength);
+        int top = worldToScreenY(-halfWidth);
+        int bottom = worldToScreenY(halfWidth);
+        int goalTop = worldToScreenY(-halfGoal);
+        int goalHeight = worldToScreenY(halfGoal) - goalTop;
+        int goalDepth = (int) (SimulatorWorld.GOAL_DEPTH * zoom);
+
+        g2d.setColor(GOAL_COLOR);
+        g2d.fillRect(left - goalDepth, goalTop, goalDepth, goalHeight);
+        g2d.fillRect(right, goalTop, goalDepth, goalHeight);
+
+        g2d.setColor(FIELD_LINE_COLOR);
+        g2d.setStroke(new BasicStroke(2));
+        g2d.drawRect(left, top, right - left, bottom - top);
+        g2d.drawLine(worldToScreenX(0), top, worldToScreenX(0), bottom);
+        int circle = (int) (SimulatorWorld.FIELD_WIDTH / 6 * zoom);
+        g2d.drawOval(worldToScreenX(0) - circle, worldToScreenY(0) - circle, circle * 2, circle * 2);
+        g2d.drawRect(left - goalDepth, goalTop, goalDepth, goalHeight);
+        g2d.drawRect(right, goalTop, goalDepth, goalHeight);
+    }
+
+    private void drawBall(Graphics2D g2d) {
+        int radius = (int) (SimulatedBall.RADIUS * zoom);
+        int screenX = worldToScreenX(snapshot.ballX(alpha));
+        int screenY = worldToScreenY(snapshot.ballY(alpha));
 
-        int screenX = worldToScreenX(robot.getX());
-        int screenY = worldToScreenY(robot.getY());
+        g2d.setColor(ROBOT_SHADOW);
+        g2d.fillOval(screenX - radius + 3, screenY - radius + 3, radius * 2, radius * 2);
+        g2d.setColor(BALL_COLOR);
+        g2d.fillOval(screenX - radius, screenY - radius, radius * 2, radius * 2);
+    }
+
+    private void drawRobot(Graphics2D g2d, int robot, Color color) {
+        int screenX = worldToScreenX(snapshot.robotX(robot, alpha));
+        int screenY = worldToScreenY(snapshot.robotY(robot, alpha));
+        double angle = snapshot.robotAngle(robot, alpha);
 
         g2d.translate(screenX, screenY);
-        g2d.rotate(-robot.getAngle()); // Negative because screen Y is inverted
+        g2d.rotate(-angle); // Negative because screen Y is inverted
 
         double scale = zoom;
 
@@ -143,13 +195,13 @@ public class SimulatorRenderer extends JPanel {
         g2d.fillOval(-shadowWidth / 2, (int)(SimulatedRobot.LENGTH * scale * 0.3), shadowWidth, shadowHeight);
 
         // Draw auto-rickshaw body (simple 3D projection)
-        drawAutoRickshaw(g2d, scale);
+        drawAutoRickshaw(g2d, robot, color, scale);
 
-        g2d.rotate(robot.getAngle());
+        g2d.rotate(angle);
         g2d.translate(-screenX, -screenY);
     }
 
-    private void drawAutoRickshaw(Graphics2D g2d, double scale) {
+    private void drawAutoRickshaw(Graphics2D g2d, int robot, Color color, double scale) {
         int width = (int) (SimulatedRobot.WIDTH * scale);
         int length = (int) (SimulatedRobot.LENGTH * scale);
         int height = (int) (SimulatedRobot.HEIGHT * scale);
@@ -158,23 +210,23 @@ public class SimulatorRenderer extends JPanel {
         int offset3D = (int) (15 * scale);
 
         // Draw back panel (darker)
-        g2d.setColor(ROBOT_COLOR.darker().darker());
+        g2d.setColor(color.darker().darker());
         int[] backX = {-width/2 + offset3D, width/2 + offset3D, width/2 + offset3D, -width/2 + offset3D};
         int[] backY = {-length/2 - offset3D, -length/2 - offset3D, length/2 - offset3D, length/2 - offset3D};
         g2d.fillPolygon(backX, backY, 4);
 
         // Draw roof (top panel)
-        g2d.setColor(ROBOT_COLOR.darker());
+        g2d.setColor(color.darker());
         int[] roofX = {-width/2, width/2, width/2 + offset3D, -width/2 + offset3D};
         int[] roofY = {-length/2 - height, -length/2 - height, -length/2 - height - offset3D, -length/2 - height - offset3D};
         g2d.fillPolygon(roofX, roofY, 4);
 
         // Draw main body
-        g2d.setColor(ROBOT_COLOR);
+        g2d.setColor(color);
         g2d.fillRoundRect(-width/2, -length/2, width, length, 10, 10);
 
         // Draw cabin (front part)
-        g2d.setColor(ROBOT_COLOR.brighter());
+        g2d.setColor(color.brighter());
         int cabinWidth = (int) (width * 0.8);
         int cabinLength = (int) (length * 0.4);
         g2d.fillRoundRect(-cabinWidth/2, -length/2, cabinWidth, cabinLength, 8, 8);
@@ -203,18 +255,16 @@ public class SimulatorRenderer extends JPanel {
         g2d.drawLine(0, -length/2, 0, -length/2 - 15);
 
         // Draw velocity vectors (debug)
-        if (robot.isMoving()) {
+        if (snapshot.isMoving(robot)) {
             g2d.setColor(new Color(255, 255, 0, 150));
             g2d.setStroke(new BasicStroke(2));
-            double vx = robot.getInputSideways() * 30;
-            double vy = -robot.getInputForward() * 30;
+            double vx = snapshot.inputSideways(robot) * 30;
+            double vy = -snapshot.inputForward(robot) * 30;
             g2d.drawLine(0, 0, (int) vx, (int) vy);
         }
     }
 
     private void drawHUD(Graphics2D g2d) {
-        SimulatedRobot robot = world.getRobot();
-
         // Draw controls help (top-left)
         g2d.setColor(new Color(200, 200, 200, 180));
         g2d.setFont(new Font("Monospaced", Font.PLAIN, 11));
@@ -230,12 +280,18 @@ public class SimulatorRenderer extends JPanel {
             y += 15;
         }
 
+        // Draw score (top-right)
+        g2d.setFont(new Font("Monospaced", Font.BOLD, 16));
+        String score = snapshot.getScore(0) + " : " + snapshot.getScore(1);
+        int scoreWidth = g2d.getFontMetrics().stringWidth(score);
+        g2d.setColor(TEAM_COLORS[0]);
+        g2d.drawString(score, getWidth() - scoreWidth - 15, 25);
+
         // Draw input indicators (bottom-left)
         drawInputIndicators(g2d);
     }
 
     private void drawInputIndicators(Graphics2D g2d) {
-        SimulatedRobot robot = world.getRobot();
         int x = 10;
         int y = getHeight() - 120;
 
@@ -249,9 +305,9 @@ public class SimulatorRenderer extends JPanel {
         g2d.setFont(new Font("Monospaced", Font.PLAIN, 10));
         g2d.setColor(Color.LIGHT_GRAY);
 
-        drawBar(g2d, "Sideways", robot.getInputSideways(), x + 10, y + 35);
-        drawBar(g2d, "Forward ", robot.getInputForward(), x + 10, y + 60);
-        drawBar(g2d, "Rotation", robot.getInputRotation(), x + 10, y + 85);
+        drawBar(g2d, "Sideways", snapshot.inputSideways(0), x + 10, y + 35);
+        drawBar(g2d, "Forward ", snapshot.inputForward(0), x + 10, y + 60);
+        drawBar(g2d, "Rotation", snapshot.inputRotation(0), x + 10, y + 85);
     }
 
     private void drawBar(Graphics2D g2d, String label, double value, int x, int y) {
@@ -314,6 +370,4 @@ public class SimulatorRenderer extends JPanel {
     public void setFollowRobot(boolean follow) {
         this.followRobot = follow;
     }
-
-    private SimulatedRobot robot; // Local reference for direct access
 }
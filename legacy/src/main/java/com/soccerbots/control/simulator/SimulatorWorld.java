@@ -1,37 +1,331 @@
 package com.soccerbots.control.simulator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
- * Container for the simulation world
+ * Container for the simulation world: a walled field with a goal at each end, any
+ * number of robots and a ball.
+ *
+ * Robots and the ball are circles. Each update integrates every body, then finds
+ * overlapping pairs through a uniform grid whose cells are one robot diameter wide,
+ * so a body is only tested against the bodies in its own and the eight neighbouring
+ * cells, and cost grows with the number of bodies rather than pairs. Overlaps are
+ * pushed apart and exchange momentum along the contact normal. The ball scores when it
+ * fully crosses a goal line, then returns to the centre spot.
+ *
+ * Coordinates are centred on the field; team 0 defends the goal at negative x.
  */
 public class SimulatorWorld {
-    private SimulatedRobot robot;
-
     // World bounds
     public static final double WORLD_SIZE = 1000.0;
     public static final double GRID_SIZE = 100.0;
 
+    // Field, in the same units as the robot dimensions
+    public static final double FIELD_LENGTH = 1800.0;
+    public static final double FIELD_WIDTH = 1200.0;
+    public static final double GOAL_WIDTH = 400.0;
+    public static final double GOAL_DEPTH = 100.0;
+
+    private static final double ROBOT_MASS = 1.0;
+    private static final double ROBOT_RESTITUTION = 0.2;
+    private static final double BALL_RESTITUTION = 0.7;
+    private static final double WALL_RESTITUTION = 0.6;
+
+    // Uniform grid over the field and both goals; a cell fits the largest body
+    private static final double CELL_SIZE = 2 * SimulatedRobot.RADIUS;
+    private static final double GRID_MIN_X = -FIELD_LENGTH / 2 - GOAL_DEPTH;
+    private static final double GRID_MIN_Y = -FIELD_WIDTH / 2;
+    private static final int GRID_COLUMNS = (int) Math.ceil((FIELD_LENGTH + 2 * GOAL_DEPTH) / CELL_SIZE);
+    private static final int GRID_ROWS = (int) Math.ceil(FIELD_WIDTH / CELL_SIZE);
+
+    private final List<SimulatedRobot> robots = new ArrayList<>();
+    private final List<SimulatedRobot> robotsView = Collections.unmodifiableList(robots);
+    private final SimulatedBall ball = new SimulatedBall();
+    private final int[] score = new int[2];
+
+    // Grid as linked lists: first body per cell, next body in the same cell. The ball is the last body.
+    private final int[] cellHead = new int[GRID_COLUMNS * GRID_ROWS];
+    private int[] nextInCell = new int[1];
+    private int[] bodyCell = new int[1];
+    private long collisions = 0;
+
+    /**
+     * One robot at the centre spot and the ball ahead of it, the single-robot sandbox
+     */
     public SimulatorWorld() {
-        robot = new SimulatedRobot();
+        robots.add(new SimulatedRobot());
+        ball.reset(0, FIELD_WIDTH / 4);
+    }
+
+    /**
+     * A match line-up: robots alternate between teams, spread across their own half
+     * and facing the opposing goal, with the ball on the centre spot
+     */
+    public SimulatorWorld(int robotCount) {
+        for (int i = 0; i < robotCount; i++) {
+            addRobot();
+        }
+        ball.reset(0, 0);
+    }
+
+    /**
+     * Add a robot at the next kick-off position of its team (index parity)
+     */
+    public SimulatedRobot addRobot() {
+        int index = robots.size();
+        int team = index % 2;
+        int perTeam = index / 2;
+        // Rows of up to five across the half, each row further back
+        int row = perTeam / 5;
+        int column = perTeam % 5;
+        double x = (FIELD_LENGTH / 8 + row * CELL_SIZE * 1.5) * (team == 0 ? -1 : 1);
+        double y = (column - 2) * FIELD_WIDTH / 6;
+        x = Math.max(-FIELD_LENGTH / 2 + SimulatedRobot.RADIUS, Math.min(FIELD_LENGTH / 2 - SimulatedRobot.RADIUS, x));
+
+        SimulatedRobot robot = new SimulatedRobot();
+        // Forward is +y at angle 0; turn a quarter to face along x
+        robot.setSpawn(x, y, team == 0 ? -Math.PI / 2 : Math.PI / 2);
+        robots.add(robot);
+        return robot;
     }
 
     public void update(double deltaTime) {
-        robot.update(deltaTime);
-
-        // Keep robot within bounds (optional - can disable for free movement)
-        // Uncomment to enable world boundaries:
-        // double x = robot.getX();
-        // double y = robot.getY();
-        // if (Math.abs(x) > WORLD_SIZE / 2) {
-        //     robot.x = Math.signum(x) * WORLD_SIZE / 2;
-        //     robot.vx = 0;
-        // }
-        // if (Math.abs(y) > WORLD_SIZE / 2) {
-        //     robot.y = Math.signum(y) * WORLD_SIZE / 2;
-        //     robot.vy = 0;
-        // }
+        for (int i = 0; i < robots.size(); i++) {
+            robots.get(i).update(deltaTime);
+        }
+        ball.update(deltaTime);
+
+        resolveCollisions();
+        for (int i = 0; i < robots.size(); i++) {
+            containRobot(robots.get(i));
+        }
+        containBall();
+    }
+
+    // ---- Broad phase ----
+
+    private void resolveCollisions() {
+        int bodies = robots.size() + 1;
+        if (nextInCell.length < bodies) {
+            nextInCell = new int[bodies * 2];
+            bodyCell = new int[bodies * 2];
+        }
+        Arrays.fill(cellHead, -1);
+        for (int i = 0; i < bodies; i++) {
+            int cell = cellOf(x(i), y(i));
+            bodyCell[i] = cell;
+            nextInCell[i] = cellHead[cell];
+            cellHead[cell] = i;
+        }
+
+        for (int i = 0; i < bodies; i++) {
+            int column = bodyCell[i] % GRID_COLUMNS;
+            int row = bodyCell[i] / GRID_COLUMNS;
+            for (int r = Math.max(0, row - 1); r <= Math.min(GRID_ROWS - 1, row + 1); r++) {
+                for (int c = Math.max(0, column - 1); c <= Math.min(GRID_COLUMNS - 1, column + 1); c++) {
+                    // Each pair once: only bodies with a higher index
+                    for (int j = cellHead[r * GRID_COLUMNS + c]; j >= 0; j = nextInCell[j]) {
+                        if (j > i) {
+                            collide(i, j);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int cellOf(double x, double y) {
+        int column = (int) ((x - GRID_MIN_X) / CELL_SIZE);
+        int row = (int) ((y - GRID_MIN_Y) / CELL_SIZE);
+        column = Math.max(0, Math.min(GRID_COLUMNS - 1, column));
+        row = Math.max(0, Math.min(GRID_ROWS - 1, row));
+        return row * GRID_COLUMNS + column;
+    }
+
+    private boolean isBall(int body) {
+        return body == robots.size();
+    }
+
+    private double x(int body) {
+        return isBall(body) ? ball.getX() : robots.get(body).getX();
+    }
+
+    private double y(int body) {
+        return isBall(body) ? ball.getY() : robots.get(body).getY();
+    }
+
+    // ---- Narrow phase ----
+
+    /**
+     * Separate two overlapping circles and exchange momentum along the contact normal.
+     * j is the higher index, so only it can be the ball.
+     */
+    private void collide(int i, int j) {
+        SimulatedRobot a = robots.get(i);
+        boolean withBall = isBall(j);
+        SimulatedRobot b = withBall ? null : robots.get(j);
+        double bx = withBall ? ball.getX() : b.getX();
+        double by = withBall ? ball.getY() : b.getY();
+        double radii = SimulatedRobot.RADIUS + (withBall ? SimulatedBall.RADIUS : SimulatedRobot.RADIUS);
+
+        double dx = bx - a.getX();
+        double dy = by - a.getY();
+        double distanceSquared = dx * dx + dy * dy;
+        if (distanceSquared >= radii * radii) {
+            return;
+        }
+        collisions++;
+        double distance = Math.sqrt(distanceSquared);
+        double nx;
+        double ny;
+        if (distance > 1e-9) {
+            nx = dx / distance;
+            ny = dy / distance;
+        } else {
+            // Exactly on top of each other: push apart along x
+            nx = 1.0;
+            ny = 0.0;
+        }
+
+        double massB = withBall ? SimulatedBall.MASS : ROBOT_MASS;
+        double inverseA = 1.0 / ROBOT_MASS;
+        double inverseB = 1.0 / massB;
+        double inverseSum = inverseA + inverseB;
+
+        // Positional correction, split by inverse mass
+        double overlap = radii - distance;
+        a.moveBy(-nx * overlap * inverseA / inverseSum, -ny * overlap * inverseA / inverseSum);
+        if (withBall) {
+            ball.moveBy(nx * overlap * inverseB / inverseSum, ny * overlap * inverseB / inverseSum);
+        } else {
+            b.moveBy(nx * overlap * inverseB / inverseSum, ny * overlap * inverseB / inverseSum);
+        }
+
+        double avx = a.getWorldVx();
+        double avy = a.getWorldVy();
+        double bvx = withBall ? ball.getVx() : b.getWorldVx();
+        double bvy = withBall ? ball.getVy() : b.getWorldVy();
+        double closing = (bvx - avx) * nx + (bvy - avy) * ny;
+        if (closing >= 0) {
+            // Already separating
+            return;
+        }
+        double restitution = withBall ? BALL_RESTITUTION : ROBOT_RESTITUTION;
+        double impulse = -(1 + restitution) * closing / inverseSum;
+        a.addWorldVelocity(-impulse * inverseA * nx, -impulse * inverseA * ny);
+        if (withBall) {
+            ball.setVelocity(bvx + impulse * inverseB * nx, bvy + impulse * inverseB * ny);
+        } else {
+            b.addWorldVelocity(impulse * inverseB * nx, impulse * inverseB * ny);
+        }
+    }
+
+    // ---- Walls and goals ----
+
+    /**
+     * Robots stay on the field; goal mouths are closed to them
+     */
+    private void containRobot(SimulatedRobot robot) {
+        double limitX = FIELD_LENGTH / 2 - SimulatedRobot.RADIUS;
+        double limitY = FIELD_WIDTH / 2 - SimulatedRobot.RADIUS;
+        double dx = clampOffset(robot.getX(), limitX);
+        double dy = clampOffset(robot.getY(), limitY);
+        if (dx == 0 && dy == 0) {
+            return;
+        }
+        robot.moveBy(dx, dy);
+        // Stop motion into the wall
+        double vx = robot.getWorldVx();
+        double vy = robot.getWorldVy();
+        robot.addWorldVelocity(dx != 0 && vx * dx < 0 ? -vx : 0, dy != 0 && vy * dy < 0 ? -vy : 0);
     }
 
+    /**
+     * The ball bounces off the side walls, the end walls beside the goals and the inside
+     * of a goal; fully over a goal line it scores and goes back to the centre spot
+     */
+    private void containBall() {
+        double r = SimulatedBall.RADIUS;
+        double x = ball.getX();
+        double y = ball.getY();
+        double vx = ball.getVx();
+        double vy = ball.getVy();
+        double endLine = FIELD_LENGTH / 2;
+        boolean inGoalMouth = Math.abs(y) <= GOAL_WIDTH / 2 - r;
+
+        if (Math.abs(x) > endLine + r && Math.abs(y) <= GOAL_WIDTH / 2) {
+            // Scored by the team attacking that end
+            score[x > 0 ? 0 : 1]++;
+            ball.reset(0, 0);
+            return;
+        }
+
+        double limitY = Math.abs(x) > endLine ? GOAL_WIDTH / 2 - r : FIELD_WIDTH / 2 - r;
+        double limitX = inGoalMouth ? endLine + GOAL_DEPTH - r : endLine - r;
+        double dx = clampOffset(x, limitX);
+        double dy = clampOffset(y, limitY);
+        if (dx != 0) {
+            vx = vx * dx < 0 ? -vx * WALL_RESTITUTION : vx;
+        }
+        if (dy != 0) {
+            vy = vy * dy < 0 ? -vy * WALL_RESTITUTION : vy;
+        }
+        if (dx != 0 || dy != 0) {
+            ball.moveBy(dx, dy);
+            ball.setVelocity(vx, vy);
+        }
+    }
+
+    /**
+     * How far to move a coordinate back inside [-limit, limit]
+     */
+    private static double clampOffset(double value, double limit) {
+        if (value > limit) {
+            return limit - value;
+        } else if (value < -limit) {
+            return -limit - value;
+        }
+        return 0;
+    }
+
+    // ---- State ----
+
+    /**
+     * The first robot, the one the sandbox drives
+     */
     public SimulatedRobot getRobot() {
-        return robot;
+        return robots.get(0);
+    }
+
+    public List<SimulatedRobot> getRobots() {
+        return robotsView;
+    }
+
+    public SimulatedBall getBall() {
+        return ball;
+    }
+
+    /**
+     * Goals scored by team 0 (attacking positive x) or team 1
+     */
+    public int getScore(int team) {
+        return score[team];
+    }
+
+    public long getCollisionCount() {
+        return collisions;
+    }
+
+    /**
+     * Everything back to kick-off positions, score kept
+     */
+    public void resetPositions() {
+        for (SimulatedRobot robot : robots) {
+            robot.reset();
+        }
+        ball.reset(0, robots.size() == 1 ? FIELD_WIDTH / 4 : 0);
     }
 }
@@ -0,0 +1,165 @@
+package com.soccerbots.control.simulator;
+
+/**
+ * Immutable picture of the world after one physics step, with the poses from the step
+ * before it so the renderer can interpolate between the two.
+ *
+ * Published by {@link SimulationLoop} and read from the Swing thread without locking;
+ * nothing in it changes after construction.
+ */
+public final class WorldSnapshot {
+    // Per robot: previous x, y, angle, current x, y, angle, inputs, moving flag
+    private static final int PREVIOUS_X = 0;
+    private static final int PREVIOUS_Y = 1;
+    private static final int PREVIOUS_ANGLE = 2;
+    private static final int X = 3;
+    private static final int Y = 4;
+    private static final int ANGLE = 5;
+    private static final int INPUT_SIDEWAYS = 6;
+    private static final int INPUT_FORWARD = 7;
+    private static final int INPUT_ROTATION = 8;
+    private static final int MOVING = 9;
+    static final int ROBOT_STRIDE = 10;
+    // Ball: previous x, y, current x, y
+    static final int BALL_SIZE = 4;
+
+    private final double[] robots;
+    private final int robotCount;
+    private final double[] ball;
+    private final int scoreTeam0;
+    private final int scoreTeam1;
+    private final long step;
+    private final long stepNanos;
+    private final long stateNanos;
+
+    WorldSnapshot(double[] robots, int robotCount, double[] ball, int scoreTeam0, int scoreTeam1,
+                  long step, long stepNanos, long stateNanos) {
+        this.robots = robots;
+        this.robotCount = robotCount;
+        this.ball = ball;
+        this.scoreTeam0 = scoreTeam0;
+        this.scoreTeam1 = scoreTeam1;
+        this.step = step;
+        this.stepNanos = stepNanos;
+        this.stateNanos = stateNanos;
+    }
+
+    /**
+     * Record the pose of every body before a step, into the arrays of the snapshot being built
+     */
+    static void capturePrevious(SimulatorWorld world, double[] robots, double[] ball) {
+        for (int i = 0; i < world.getRobots().size(); i++) {
+            SimulatedRobot robot = world.getRobots().get(i);
+            int base = i * ROBOT_STRIDE;
+            robots[base + PREVIOUS_X] = robot.getX();
+            robots[base + PREVIOUS_Y] = robot.getY();
+            robots[base + PREVIOUS_ANGLE] = robot.getAngle();
+        }
+        ball[0] = world.getBall().getX();
+        ball[1] = world.getBall().getY();
+    }
+
+    /**
+     * Complete the arrays with the state after the step
+     */
+    static void captureCurrent(SimulatorWorld world, double[] robots, double[] ball) {
+        for (int i = 0; i < world.getRobots().size(); i++) {
+            SimulatedRobot robot = world.getRobots().get(i);
+            int base = i * ROBOT_STRIDE;
+            robots[base + X] = robot.getX();
+            robots[base + Y] = robot.getY();
+            robots[base + ANGLE] = robot.getAngle();
+            robots[base + INPUT_SIDEWAYS] = robot.getInputSideways();
+            robots[base + INPUT_FORWARD] = robot.getInputForward();
+            robots[base + INPUT_ROTATION] = robot.getInputRotation();
+            robots[base + MOVING] = robot.isMoving() ? 1.0 : 0.0;
+        }
+        ball[2] = world.getBall().getX();
+        ball[3] = world.getBall().getY();
+    }
+
+    /**
+     * How far between the previous and current step to draw at this time: 0 is the
+     * previous pose, 1 the current one. Drawing one step behind the simulation keeps
+     * motion smooth however render and physics rates beat against each other.
+     */
+    public double alphaAt(long nowNanos) {
+        double alpha = (double) (nowNanos - stateNanos) / stepNanos;
+        return Math.max(0.0, Math.min(1.0, alpha));
+    }
+
+    public int getRobotCount() {
+        return robotCount;
+    }
+
+    public double robotX(int robot, double alpha) {
+        int base = robot * ROBOT_STRIDE;
+        return lerp(robots[base + PREVIOUS_X], robots[base + X], alpha);
+    }
+
+    public double robotY(int robot, double alpha) {
+        int base = robot * ROBOT_STRIDE;
+        return lerp(robots[base + PREVIOUS_Y], robots[base + Y], alpha);
+    }
+
+    /**
+     * Interpolated the short way round, so a robot crossing +/-PI does not spin back
+     */
+    public double robotAngle(int robot, double alpha) {
+        int base = robot * ROBOT_STRIDE;
+        double from = robots[base + PREVIOUS_ANGLE];
+        double delta = robots[base + ANGLE] - from;
+        if (delta > Math.PI) {
+            delta -= 2 * Math.PI;
+        } else if (delta < -Math.PI) {
+            delta += 2 * Math.PI;
+        }
+        return from + delta * alpha;
+    }
+
+    public double inputSideways(int robot) {
+        return robots[robot * ROBOT_STRIDE + INPUT_SIDEWAYS];
+    }
+
+    public double inputForward(int robot) {
+        return robots[robot * ROBOT_STRIDE + INPUT_FORWARD];
+    }
+
+    public double inputRotation(int robot) {
+        return robots[robot * ROBOT_STRIDE + INPUT_ROTATION];
+    }
+
+    public boolean isMoving(int robot) {
+        return robots[robot * ROBOT_STRIDE + MOVING] != 0.0;
+    }
+
+    public double ballX(double alpha) {
+        return lerp(ball[0], ball[2], alpha);
+    }
+
+    public double ballY(double alpha) {
+        return lerp(ball[1], ball[3], alpha);
+    }
+
+    public int getScore(int team) {
+        return team == 0 ? scoreTeam0 : scoreTeam1;
+    }
+
+    /**
+     * Physics steps taken since the loop started
+     */
+    public long getStep() {
+        return step;
+    }
+
+    /**
+     * Simulated time since the loop started
+     */
+    public double getSimulatedSeconds() {
+        return step * stepNanos / 1e9;
+    }
+
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+}
@@ -0,0 +1,177 @@
+package com.soccerbots.control.api;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Vectors from RFC 8949 Appendix A. The encoder always writes floating point as
+ * float64, so only the float64 vectors apply.
+ */
+class CborEncoderTest {
+
+    private static void assertEncodes(String expectedHex, Object value) {
+        assertEquals(expectedHex, HexFormat.of().formatHex(CborEncoder.encode(value)), String.valueOf(value));
+    }
+
+    @Test
+    void unsignedIntegersAtEveryLengthBoundary() {
+        assertEncodes("00", 0);
+        assertEncodes("01", 1);
+        assertEncodes("0a", 10);
+        assertEncodes("17", 23);
+        assertEncodes("1818", 24);
+        assertEncodes("1819", 25);
+        assertEncodes("1864", 100);
+        assertEncodes("18ff", 255);
+        assertEncodes("190100", 256);
+        assertEncodes("1903e8", 1000);
+        assertEncodes("19ffff", 65535);
+        assertEncodes("1a00010000", 65536);
+        assertEncodes("1a000f4240", 1000000);
+        assertEncodes("1affffffff", 4294967295L);
+        assertEncodes("1b0000000100000000", 4294967296L);
+        assertEncodes("1b000000e8d4a51000", 1000000000000L);
+        assertEncodes("1b7fffffffffffffff", Long.MAX_VALUE);
+    }
+
+    @Test
+    void negativeIntegers() {
+        assertEncodes("20", -1);
+        assertEncodes("29", -10);
+        assertEncodes("37", -24);
+        assertEncodes("3818", -25);
+        assertEncodes("3863", -100);
+        assertEncodes("38ff", -256);
+        assertEncodes("390100", -257);
+        assertEncodes("3903e7", -1000);
+        assertEncodes("3a00010000", -65537);
+        assertEncodes("3b7fffffffffffffff", Long.MIN_VALUE);
+    }
+
+    @Test
+    void everyIntegralBoxedTypeIsAnInteger() {
+        assertEncodes("1864", (byte) 100);
+        assertEncodes("3903e7", (short) -1000);
+        assertEncodes("1a000f4240", 1000000L);
+    }
+
+    @Test
+    void floatingPointIsFloat64() {
+        assertEncodes("fb3ff199999999999a", 1.1);
+        assertEncodes("fbc010666666666666", -4.1);
+        assertEncodes("fb7e37e43c8800759c", 1.0e300);
+        assertEncodes("fb3ff8000000000000", 1.5f);
+        assertEncodes("fb7ff0000000000000", Double.POSITIVE_INFINITY);
+        assertEncodes("fbfff0000000000000", Double.NEGATIVE_INFINITY);
+        assertEncodes("fb7ff8000000000000", Double.NaN);
+    }
+
+    @Test
+    void simpleValues() {
+        assertEncodes("f4", false);
+        assertEncodes("f5", true);
+        assertEncodes("f6", null);
+    }
+
+    @Test
+    void textStrings() {
+        assertEncodes("60", "");
+        assertEncodes("6161", "a");
+        assertEncodes("6449455446", "IETF");
+        assertEncodes("62225c", "\"\\");
+        assertEncodes("62c3bc", "ü");
+        assertEncodes("63e6b0b4", "水");
+        assertEncodes("64f0908591", "𐅑");
+    }
+
+    @Test
+    void textLongerThan23BytesUsesALengthArgument() {
+        String text = "a".repeat(24);
+        assertEncodes("7818" + "61".repeat(24), text);
+        String longer = "a".repeat(256);
+        assertEncodes("790100" + "61".repeat(256), longer);
+    }
+
+    @Test
+    void arrays() {
+        assertEncodes("80", List.of());
+        assertEncodes("83010203", List.of(1, 2, 3));
+        assertEncodes("8301820203820405", List.of(1, List.of(2, 3), List.of(4, 5)));
+        List<Integer> oneToTwentyFive = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+        assertEncodes("98190102030405060708090a0b0c0d0e0f101112131415161718181819", oneToTwentyFive);
+    }
+
+    @Test
+    void javaArraysMatchLists() {
+        assertEncodes("83010203", new int[] {1, 2, 3});
+        assertEncodes("83010203", new long[] {1, 2, 3});
+        assertEncodes("8301820203820405", new Object[] {1, new int[] {2, 3}, Arrays.asList(4, 5)});
+        assertEncodes("82fb3ff199999999999afbc010666666666666", new double[] {1.1, -4.1});
+    }
+
+    @Test
+    void maps() {
+        assertEncodes("a0", Map.of());
+
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("a", 1);
+        nested.put("b", List.of(2, 3));
+        assertEncodes("a26161016162820203", nested);
+
+        assertEncodes("826161a161626163", List.of("a", Map.of("b", "c")));
+
+        Map<String, Object> five = new LinkedHashMap<>();
+        for (String key : List.of("a", "b", "c", "d", "e")) {
+            five.put(key, key.toUpperCase());
+        }
+        assertEncodes("a56161614161626142616361436164614461656145", five);
+    }
+
+    @Test
+    void nonTextKeysAreWrittenAsText() {
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put(1, 2);
+        assertEncodes("a1613102", map);
+    }
+
+    @JsonPropertyOrder({"a", "b"})
+    public static class Bean {
+        public int a = 1;
+        public List<Integer> b = List.of(2, 3);
+    }
+
+    public static class Empty {
+    }
+
+    enum Mode { AUTO_PILOT }
+
+    @Test
+    void beanIsEncodedAsItsJsonProperties() {
+        assertEncodes("a26161016162820203", new Bean());
+        assertEncodes("a0", new Empty());
+    }
+
+    @Test
+    void enumIsEncodedAsItsName() {
+        assertEncodes("6a4155544f5f50494c4f54", Mode.AUTO_PILOT);
+        assertEncodes("a1646d6f64656a4155544f5f50494c4f54", Map.of("mode", Mode.AUTO_PILOT));
+    }
+
+    @Test
+    void valueTheMapperCannotConvertThrows() {
+        // The mapper returns binary as byte[] again, so there is nothing else to encode
+        assertThrows(IllegalArgumentException.class, () -> CborEncoder.encode(new byte[] {1, 2}));
+        assertThrows(IllegalArgumentException.class, () -> CborEncoder.encode(List.of(new byte[] {1})));
+    }
+}
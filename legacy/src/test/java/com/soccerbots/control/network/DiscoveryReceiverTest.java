@@ -0,0 +1,213 @@
+package com.soccerbots.control.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.soccerbots.control.network.DiscoveryReceiver.NOT_ADVERTISED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DiscoveryReceiverTest {
+    private static final long RECEIVED = 42L;
+
+    private final List<String> calls = new ArrayList<>();
+    private final List<String> ids = new ArrayList<>();
+    private DiscoveryReceiver receiver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Ephemeral port; the receive thread is never started, datagrams are fed to dispatch()
+        receiver = new DiscoveryReceiver(0, new DiscoveryReceiver.Listener() {
+            @Override
+            public void onDiscoveryPing(String robotId, String ipAddress, boolean sequenced, int portArgument,
+                                        int fleetArgument, long receivedNanos) {
+                ids.add(robotId);
+                calls.add("ping " + robotId + " " + ipAddress + " seq=" + sequenced + " port=" + portArgument
+                          + " fleet=" + fleetArgument + " at=" + receivedNanos);
+            }
+
+            @Override
+            public void onCommandAck(String robotId, int sequence, int timestampMicros, long receivedNanos) {
+                ids.add(robotId);
+                calls.add("ack " + robotId + " " + sequence + " " + timestampMicros + " at=" + receivedNanos);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.shutdown();
+    }
+
+    private void receive(String message) {
+        byte[] bytes = message.getBytes(StandardCharsets.US_ASCII);
+        receiver.dispatch(bytes, bytes.length, RECEIVED);
+    }
+
+    private static String ping(String id, String ip, boolean sequenced, int port, int fleet) {
+        return "ping " + id + " " + ip + " seq=" + sequenced + " port=" + port + " fleet=" + fleet + " at=" + RECEIVED;
+    }
+
+    private void assertMalformed(String message) {
+        long before = receiver.getMalformed();
+        receive(message);
+        assertTrue(calls.isEmpty(), message + " -> " + calls);
+        assertEquals(before + 1, receiver.getMalformed(), message);
+    }
+
+    @Test
+    void legacyDiscoverHasNoCapabilities() {
+        receive("DISCOVER:robot1:192.168.4.20");
+        assertEquals(List.of(ping("robot1", "192.168.4.20", false, NOT_ADVERTISED, NOT_ADVERTISED)), calls);
+        assertEquals(0, receiver.getMalformed());
+    }
+
+    @Test
+    void discoverWithCapabilities() {
+        receive("DISCOVER:robot1:192.168.4.20:SEQ");
+        receive("DISCOVER:robot1:192.168.4.20:SEQ,PORT");
+        receive("DISCOVER:robot1:192.168.4.20:PORT@12346,FLEET@3");
+        receive("DISCOVER:robot1:192.168.4.20:FLEET,SEQ");
+        assertEquals(List.of(
+                ping("robot1", "192.168.4.20", true, NOT_ADVERTISED, NOT_ADVERTISED),
+                ping("robot1", "192.168.4.20", true, -1, NOT_ADVERTISED),
+                ping("robot1", "192.168.4.20", false, 12346, 3),
+                ping("robot1", "192.168.4.20", true, NOT_ADVERTISED, -1)), calls);
+    }
+
+    @Test
+    void unknownAndEmptyCapabilitiesAreSkipped() {
+        receive("DISCOVER:robot1:192.168.4.20:,LED@7,,SEQUENCE,SE,SEQ,");
+        assertEquals(List.of(ping("robot1", "192.168.4.20", true, NOT_ADVERTISED, NOT_ADVERTISED)), calls);
+        receive("DISCOVER:robot1:192.168.4.20:");
+        assertEquals(ping("robot1", "192.168.4.20", false, NOT_ADVERTISED, NOT_ADVERTISED), calls.get(1));
+    }
+
+    @Test
+    void unusableCapabilityArgumentsAreBare() {
+        receive("DISCOVER:r:10.0.0.1:PORT@abc");
+        receive("DISCOVER:r:10.0.0.1:PORT@");
+        receive("DISCOVER:r:10.0.0.1:PORT@-5");
+        receive("DISCOVER:r:10.0.0.1:PORT@12a");
+        // 11 digits, and 10 digits above Integer.MAX_VALUE
+        receive("DISCOVER:r:10.0.0.1:PORT@12345678901");
+        receive("DISCOVER:r:10.0.0.1:FLEET@4294967296");
+        receive("DISCOVER:r:10.0.0.1:FLEET@2147483647");
+        assertEquals(List.of(
+                ping("r", "10.0.0.1", false, -1, NOT_ADVERTISED),
+                ping("r", "10.0.0.1", false, -1, NOT_ADVERTISED),
+                ping("r", "10.0.0.1", false, -1, NOT_ADVERTISED),
+                ping("r", "10.0.0.1", false, -1, NOT_ADVERTISED),
+                ping("r", "10.0.0.1", false, -1, NOT_ADVERTISED),
+                ping("r", "10.0.0.1", false, NOT_ADVERTISED, -1),
+                ping("r", "10.0.0.1", false, NOT_ADVERTISED, Integer.MAX_VALUE)), calls);
+        assertEquals(0, receiver.getMalformed());
+    }
+
+    @Test
+    void paddingAfterTheLastFieldIsTrimmed() {
+        receive("DISCOVER:robot1:192.168.4.20\0\0\0");
+        receive("DISCOVER:robot1:192.168.4.20\r\n");
+        receive("DISCOVER:robot1:192.168.4.20:SEQ \n");
+        assertEquals(List.of(
+                ping("robot1", "192.168.4.20", false, NOT_ADVERTISED, NOT_ADVERTISED),
+                ping("robot1", "192.168.4.20", false, NOT_ADVERTISED, NOT_ADVERTISED),
+                ping("robot1", "192.168.4.20", true, NOT_ADVERTISED, NOT_ADVERTISED)), calls);
+    }
+
+    @Test
+    void onlyTheReceivedLengthIsParsed() {
+        byte[] buffer = new byte[512];
+        Arrays.fill(buffer, (byte) 'X');
+        byte[] message = "DISCOVER:robot1:10.0.0.9".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(message, 0, buffer, 0, message.length);
+
+        receiver.dispatch(buffer, message.length, RECEIVED);
+        assertEquals(List.of(ping("robot1", "10.0.0.9", false, NOT_ADVERTISED, NOT_ADVERTISED)), calls);
+
+        // A shorter datagram must not pick up the previous one's tail
+        byte[] shorter = "DISCOVER:r2".getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(shorter, 0, buffer, 0, shorter.length);
+        long before = receiver.getMalformed();
+        receiver.dispatch(buffer, shorter.length, RECEIVED);
+        assertEquals(1, calls.size());
+        assertEquals(before + 1, receiver.getMalformed());
+    }
+
+    @Test
+    void truncatedOrEmptyDiscoverIsMalformed() {
+        assertMalformed("DISCOVER:");
+        assertMalformed("DISCOVER:robot1");
+        assertMalformed("DISCOVER:robot1:");
+        assertMalformed("DISCOVER:robot1:\0\0");
+        assertMalformed("DISCOVER::192.168.4.20");
+        assertMalformed("DISCOVER:robot1::SEQ");
+    }
+
+    @Test
+    void validAck() {
+        receive("ACK:robot1:17:123456");
+        receive("ACK:robot1:0:0\n");
+        assertEquals(List.of("ack robot1 17 123456 at=42", "ack robot1 0 0 at=42"), calls);
+    }
+
+    @Test
+    void ackSequenceIsTruncatedToSixteenBits() {
+        receive("ACK:robot1:65537:5");
+        assertEquals(List.of("ack robot1 1 5 at=42"), calls);
+    }
+
+    @Test
+    void truncatedAckIsMalformed() {
+        assertMalformed("ACK:");
+        assertMalformed("ACK:robot1");
+        assertMalformed("ACK:robot1:");
+        assertMalformed("ACK:robot1:17");
+        assertMalformed("ACK:robot1:17:");
+        assertMalformed("ACK::17:5");
+    }
+
+    @Test
+    void nonNumericAckIsMalformed() {
+        assertMalformed("ACK:robot1:x:5");
+        assertMalformed("ACK:robot1:17:5x");
+        assertMalformed("ACK:robot1:-1:5");
+        assertMalformed("ACK:robot1: 17:5");
+    }
+
+    @Test
+    void overLongAckFieldsAreMalformed() {
+        assertMalformed("ACK:robot1:12345678901:5");
+        assertMalformed("ACK:robot1:17:12345678901");
+        assertMalformed("ACK:robot1:17:5:extra");
+    }
+
+    @Test
+    void unknownMessagesAreIgnored() {
+        receive("");
+        receive("DISC");
+        receive("AC");
+        receive("ack:robot1:1:1");
+        receive("HELLO:robot1");
+        assertTrue(calls.isEmpty());
+        assertEquals(0, receiver.getMalformed());
+    }
+
+    @Test
+    void repeatedIdsAreInterned() {
+        receive("DISCOVER:robot1:10.0.0.9");
+        receive("ACK:robot1:1:1");
+        receive("ACK:robot1:2:2");
+        assertEquals(3, ids.size());
+        assertSame(ids.get(0), ids.get(1));
+        assertSame(ids.get(1), ids.get(2));
+    }
+}
@@ -0,0 +1,119 @@
+package com.soccerbots.control.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryReceiverTest {
+    private static final long RECEIVED = 7L;
+
+    private final List<String> samples = new ArrayList<>();
+    private TelemetryReceiver receiver;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Ephemeral port; the receive thread is never started, packets are fed to decode()
+        receiver = new TelemetryReceiver(0, (robotId, sequence, flags, batteryMillivolts, motorLeft, motorRight,
+                                             motorDc, motorServo, rssi, loopMicros, receivedNanos) ->
+                samples.add(robotId + " seq=" + sequence + " flags=" + flags + " mv=" + batteryMillivolts
+                            + " motors=" + motorLeft + "," + motorRight + "," + motorDc + "," + motorServo
+                            + " rssi=" + rssi + " loop=" + loopMicros + " at=" + receivedNanos));
+    }
+
+    @AfterEach
+    void tearDown() {
+        receiver.shutdown();
+    }
+
+    private static byte[] packet(String robotId) {
+        byte[] data = new byte[TelemetryReceiver.PACKET_SIZE];
+        data[0] = 'T';
+        data[1] = 'M';
+        data[2] = TelemetryReceiver.VERSION;
+        data[3] = (byte) 0x81;
+        byte[] id = robotId.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(id, 0, data, 4, Math.min(id.length, 16));
+        data[20] = (byte) 0xFF; // sequence 65534
+        data[21] = (byte) 0xFE;
+        data[22] = 0x1C; // 7400 mV
+        data[23] = (byte) 0xE8;
+        data[24] = 100;
+        data[25] = -100;
+        data[26] = 0;
+        data[27] = -1;
+        data[28] = -67;
+        data[30] = 0x03; // 1000 us
+        data[31] = (byte) 0xE8;
+        return data;
+    }
+
+    private static final String EXPECTED =
+            " seq=65534 flags=129 mv=7400 motors=100,-100,0,-1 rssi=-67 loop=1000 at=" + RECEIVED;
+
+    private void assertMalformed(byte[] data, int length) {
+        long before = receiver.getMalformed();
+        receiver.decode(data, length, RECEIVED);
+        assertTrue(samples.isEmpty(), samples.toString());
+        assertEquals(before + 1, receiver.getMalformed());
+    }
+
+    @Test
+    void decodesAPacket() {
+        byte[] data = packet("robot1");
+        receiver.decode(data, data.length, RECEIVED);
+        assertEquals(List.of("robot1" + EXPECTED), samples);
+        assertEquals(0, receiver.getMalformed());
+    }
+
+    @Test
+    void idFillingAllSixteenBytesNeedsNoTerminator() {
+        byte[] data = packet("abcdefghijklmnopXYZ");
+        receiver.decode(data, data.length, RECEIVED);
+        assertEquals(List.of("abcdefghijklmnop" + EXPECTED), samples);
+    }
+
+    @Test
+    void longerPacketFromANewerVersionIsAccepted() {
+        byte[] data = Arrays.copyOf(packet("robot1"), 48);
+        data[2] = TelemetryReceiver.VERSION + 1;
+        receiver.decode(data, data.length, RECEIVED);
+        assertEquals(List.of("robot1" + EXPECTED), samples);
+    }
+
+    @Test
+    void truncatedPacketIsMalformed() {
+        byte[] data = packet("robot1");
+        for (int length = 0; length < TelemetryReceiver.PACKET_SIZE; length++) {
+            assertMalformed(data, length);
+        }
+    }
+
+    @Test
+    void badHeaderIsMalformed() {
+        byte[] badMagic = packet("robot1");
+        badMagic[1] = 'X';
+        assertMalformed(badMagic, badMagic.length);
+
+        byte[] oldVersion = packet("robot1");
+        oldVersion[2] = 0;
+        assertMalformed(oldVersion, oldVersion.length);
+
+        byte[] negativeVersion = packet("robot1");
+        negativeVersion[2] = (byte) 0xFF;
+        assertMalformed(negativeVersion, negativeVersion.length);
+    }
+
+    @Test
+    void missingRobotIdIsMalformed() {
+        assertMalformed(packet(""), TelemetryReceiver.PACKET_SIZE);
+    }
+}
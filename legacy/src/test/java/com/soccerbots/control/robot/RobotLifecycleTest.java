@@ -0,0 +1,244 @@
+package com.soccerbots.control.robot;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RobotLifecycleTest {
+    private static final long STALE_MS = 5000;
+    private static final long LOST_MS = 30000;
+    private static final long TICK_MS = 100;
+    private static final long KEEPALIVE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    // Arbitrary non-zero origin so nothing depends on nanoTime starting at zero
+    private static final long ORIGIN = 123_456_789_000L;
+
+    private long nowMs = 0;
+    private RobotLifecycle lifecycle;
+    private final List<String> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lifecycle = new RobotLifecycle(STALE_MS, LOST_MS, this::nanos);
+        lifecycle.addListener((robot, from, to) -> events.add(robot.getId() + " " + from + "->" + to));
+    }
+
+    private long nanos() {
+        return ORIGIN + TimeUnit.MILLISECONDS.toNanos(nowMs);
+    }
+
+    /**
+     * Walk the clock forward one wheel tick at a time, as the lifecycle thread would
+     */
+    private void advanceTo(long ms) {
+        while (nowMs < ms) {
+            nowMs = Math.min(ms, nowMs + TICK_MS);
+            lifecycle.tick(nanos());
+        }
+    }
+
+    private static Robot discovered(String id) {
+        return new Robot(id, id, "10.0.0.1", "discovered");
+    }
+
+    private static Robot manuallyAdded(String id) {
+        return new Robot(id, id, "10.0.0.2", "connected");
+    }
+
+    @Test
+    void silentDiscoveredRobotGoesStaleThenLost() {
+        Robot robot = discovered("r1");
+        lifecycle.track(robot, RobotState.DISCOVERED);
+
+        advanceTo(STALE_MS - TICK_MS);
+        assertEquals(RobotState.DISCOVERED, robot.getState());
+        advanceTo(STALE_MS);
+        assertEquals(RobotState.STALE, robot.getState());
+
+        advanceTo(LOST_MS - TICK_MS);
+        assertEquals(RobotState.STALE, robot.getState());
+        advanceTo(LOST_MS);
+        assertEquals(RobotState.LOST, robot.getState());
+        assertFalse(robot.livenessTimer().isScheduled());
+
+        assertEquals(List.of("r1 DISCOVERED->STALE", "r1 STALE->LOST"), events);
+    }
+
+    @Test
+    void manuallyAddedRobotWalksTheWholeLifecycle() {
+        Robot robot = manuallyAdded("r1");
+        lifecycle.track(robot, RobotState.ASSIGNED);
+        assertEquals(RobotState.ASSIGNED, robot.getState());
+
+        advanceTo(1000);
+        lifecycle.heard(robot);
+        assertEquals(RobotState.CONNECTED, robot.getState());
+
+        advanceTo(1000 + STALE_MS);
+        assertEquals(RobotState.STALE, robot.getState());
+        advanceTo(1000 + LOST_MS);
+        assertEquals(RobotState.LOST, robot.getState());
+
+        lifecycle.heard(robot);
+        assertEquals(RobotState.CONNECTED, robot.getState());
+        assertTrue(robot.livenessTimer().isScheduled());
+
+        assertEquals(List.of(
+                "r1 ASSIGNED->CONNECTED",
+                "r1 CONNECTED->STALE",
+                "r1 STALE->LOST",
+                "r1 LOST->CONNECTED"), events);
+    }
+
+    @Test
+    void assignedRobotThatNeverAnswersGoesStale() {
+        Robot robot = manuallyAdded("r1");
+        lifecycle.track(robot, RobotState.ASSIGNED);
+
+        advanceTo(STALE_MS);
+        assertEquals(RobotState.STALE, robot.getState());
+        assertEquals(List.of("r1 ASSIGNED->STALE"), events);
+    }
+
+    @Test
+    void assigningALiveDiscoveredRobotConnectsItAndUnassignReleasesIt() {
+        Robot robot = discovered("r1");
+        lifecycle.track(robot, RobotState.DISCOVERED);
+
+        advanceTo(2000);
+        lifecycle.assign(robot);
+        assertTrue(robot.isAssigned());
+        assertEquals(RobotState.CONNECTED, robot.getState());
+
+        lifecycle.unassign(robot);
+        assertFalse(robot.isAssigned());
+        assertEquals(RobotState.DISCOVERED, robot.getState());
+
+        assertEquals(List.of("r1 DISCOVERED->CONNECTED", "r1 CONNECTED->DISCOVERED"), events);
+    }
+
+    @Test
+    void assigningAStaleRobotWaitsForItsNextPing() {
+        Robot robot = discovered("r1");
+        lifecycle.track(robot, RobotState.DISCOVERED);
+        advanceTo(STALE_MS);
+
+        lifecycle.assign(robot);
+        assertEquals(RobotState.STALE, robot.getState());
+
+        advanceTo(STALE_MS + 500);
+        lifecycle.heard(robot);
+        assertEquals(RobotState.CONNECTED, robot.getState());
+    }
+
+    @Test
+    void unassigningAStaleRobotKeepsItStale() {
+        Robot robot = manuallyAdded("r1");
+        lifecycle.track(robot, RobotState.ASSIGNED);
+        advanceTo(STALE_MS);
+
+        lifecycle.unassign(robot);
+        assertEquals(RobotState.STALE, robot.getState());
+
+        lifecycle.heard(robot);
+        assertEquals(RobotState.DISCOVERED, robot.getState());
+    }
+
+    @Test
+    void regularPingsKeepRobotsAlive() {
+        Robot connected = discovered("r1");
+        Robot idle = discovered("r2");
+        lifecycle.track(connected, RobotState.DISCOVERED);
+        lifecycle.track(idle, RobotState.DISCOVERED);
+        lifecycle.assign(connected);
+        events.clear();
+
+        for (long t = 2000; t <= 60_000; t += 2000) {
+            advanceTo(t);
+            lifecycle.heard(connected);
+            lifecycle.heard(idle);
+        }
+
+        assertEquals(RobotState.CONNECTED, connected.getState());
+        assertEquals(RobotState.DISCOVERED, idle.getState());
+        assertTrue(events.isEmpty(), events.toString());
+    }
+
+    @Test
+    void onlyTheSilentRobotExpires() {
+        Robot talking = discovered("r1");
+        Robot silent = discovered("r2");
+        lifecycle.track(talking, RobotState.DISCOVERED);
+        lifecycle.track(silent, RobotState.DISCOVERED);
+
+        for (long t = 1000; t <= LOST_MS; t += 1000) {
+            advanceTo(t);
+            lifecycle.heard(talking);
+        }
+
+        assertEquals(RobotState.DISCOVERED, talking.getState());
+        assertEquals(RobotState.LOST, silent.getState());
+        assertEquals(List.of("r2 DISCOVERED->STALE", "r2 STALE->LOST"), events);
+    }
+
+    @Test
+    void recoveringFromStaleResendsTheCurrentCommand() {
+        Robot robot = discovered("r1");
+        lifecycle.track(robot, RobotState.DISCOVERED);
+        lifecycle.assign(robot);
+
+        long frame = 0x1234L;
+        assertTrue(robot.shouldSendFrame(frame, nanos(), KEEPALIVE_NANOS));
+        assertFalse(robot.shouldSendFrame(frame, nanos(), KEEPALIVE_NANOS));
+
+        advanceTo(STALE_MS);
+        lifecycle.heard(robot);
+        assertTrue(robot.shouldSendFrame(frame, nanos(), KEEPALIVE_NANOS));
+    }
+
+    @Test
+    void lostUnassignedRobotIsEvicted() {
+        List<String> evicted = new ArrayList<>();
+        // Same policy as RobotManager: unassigned robots are dropped once they are lost
+        lifecycle.addListener((robot, from, to) -> {
+            if (to == RobotState.LOST && !robot.isAssigned()) {
+                lifecycle.forget(robot);
+                evicted.add(robot.getId());
+            }
+        });
+        Robot unassigned = discovered("r1");
+        Robot assigned = manuallyAdded("r2");
+        lifecycle.track(unassigned, RobotState.DISCOVERED);
+        lifecycle.track(assigned, RobotState.ASSIGNED);
+
+        advanceTo(LOST_MS);
+        assertEquals(List.of("r1"), evicted);
+        assertFalse(unassigned.livenessTimer().isScheduled());
+        assertEquals(RobotState.LOST, assigned.getState());
+
+        int before = events.size();
+        advanceTo(4 * LOST_MS);
+        assertEquals(before, events.size());
+    }
+
+    @Test
+    void forgottenRobotNeverExpires() {
+        Robot robot = discovered("r1");
+        lifecycle.track(robot, RobotState.DISCOVERED);
+        advanceTo(1000);
+
+        lifecycle.forget(robot);
+        assertFalse(robot.livenessTimer().isScheduled());
+
+        advanceTo(2 * LOST_MS);
+        assertEquals(RobotState.DISCOVERED, robot.getState());
+        assertTrue(events.isEmpty(), events.toString());
+    }
+}
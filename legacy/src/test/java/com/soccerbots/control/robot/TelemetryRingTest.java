@@ -0,0 +1,138 @@
+package com.soccerbots.control.robot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TelemetryRingTest {
+    private static final long MS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final TelemetryRing ring = new TelemetryRing();
+
+    private void record(int sequence, long atMs) {
+        ring.record(sequence, 0, 7400, 10, -10, 0, 90, -60, 800, atMs * MS);
+    }
+
+    private List<Integer> sequences() {
+        return ring.history(TelemetryRing.CAPACITY).stream().map(s -> s.sequence).collect(Collectors.toList());
+    }
+
+    @Test
+    void emptyRing() {
+        assertFalse(ring.hasSamples());
+        assertFalse(ring.latest(new TelemetryRing.Sample()));
+        assertTrue(ring.history(10).isEmpty());
+        assertNull(ring.toMap());
+    }
+
+    @Test
+    void inOrderSamplesAreKeptNewestFirst() {
+        for (int seq = 1; seq <= 5; seq++) {
+            record(seq, seq * 20);
+        }
+        assertEquals(5, ring.getCount());
+        assertEquals(0, ring.getLost());
+        assertEquals(List.of(5, 4, 3, 2, 1), sequences());
+
+        TelemetryRing.Sample latest = new TelemetryRing.Sample();
+        assertTrue(ring.latest(latest));
+        assertEquals(5, latest.sequence);
+        assertEquals(100 * MS, latest.receivedNanos);
+        assertEquals(-10, latest.motorRight);
+    }
+
+    @Test
+    void gapsCountAsLost() {
+        record(1, 0);
+        record(2, 20);
+        record(6, 40);
+        assertEquals(3, ring.getLost());
+        assertEquals(3, ring.getCount());
+    }
+
+    @Test
+    void sequenceWrapsAtSixteenBits() {
+        record(65534, 0);
+        record(65535, 20);
+        record(0, 40);
+        record(2, 60);
+        assertEquals(1, ring.getLost());
+        assertEquals(0, ring.getRestarts());
+        assertEquals(List.of(2, 0, 65535, 65534), sequences());
+    }
+
+    @Test
+    void reorderedAndDuplicateSamplesAreDropped() {
+        record(10, 0);
+        record(12, 20);
+        record(11, 25);
+        record(12, 30);
+        record(12 - TelemetryRing.REORDER_WINDOW, 35);
+
+        assertEquals(List.of(12, 10), sequences());
+        assertEquals(0, ring.getRestarts());
+        assertEquals(3L, ring.toMap().get("outOfOrder"));
+    }
+
+    @Test
+    void largeBackwardJumpIsARestart() {
+        for (int seq = 1000; seq < 1010; seq++) {
+            record(seq, seq);
+        }
+        record(0, 1010);
+        record(1, 1030);
+
+        assertEquals(1, ring.getRestarts());
+        assertEquals(0, ring.getLost());
+        assertEquals(List.of(1, 0, 1009), sequences().subList(0, 3));
+    }
+
+    @Test
+    void olderSequenceAfterSilenceIsARestart() {
+        record(5, 0);
+        record(6, 20);
+        // Within the reorder window, but a reboot's worth of silence later
+        record(3, 20 + 1000);
+
+        assertEquals(1, ring.getRestarts());
+        assertEquals(3, ring.getCount());
+        assertEquals(3, sequences().get(0));
+    }
+
+    @Test
+    void historyIsBoundedByCapacity() {
+        for (int seq = 0; seq < TelemetryRing.CAPACITY + 10; seq++) {
+            record(seq, seq * 20L);
+        }
+        List<Integer> history = sequences();
+        assertEquals(TelemetryRing.CAPACITY, history.size());
+        assertEquals(TelemetryRing.CAPACITY + 9, history.get(0));
+        assertEquals(10, history.get(history.size() - 1));
+        assertEquals(3, ring.history(3).size());
+    }
+
+    @Test
+    void malformedInputNeverThrows() {
+        assertDoesNotThrow(() -> {
+            ring.record(-1, -1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0, 0, 0, -1, 0);
+            ring.record(Integer.MAX_VALUE, 0, 0, 0, 0, 0, 0, 0, 0, Long.MIN_VALUE);
+            ring.record(Integer.MIN_VALUE, 0, 0, 0, 0, 0, 0, 0, 0, Long.MAX_VALUE);
+            ring.record(0x12345, 0, 0, 0, 0, 0, 0, 0, 0, -5);
+            ring.record(0, 0, 0, 0, 0, 0, 0, 0, 0, -5);
+            ring.history(-1);
+            ring.history(Integer.MAX_VALUE);
+            Map<String, Object> map = ring.toMap();
+            assertTrue(map.containsKey("restarts"));
+        });
+        assertTrue(ring.getCount() > 0);
+    }
+}
@@ -0,0 +1,120 @@
+package com.soccerbots.control.robot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelTest {
+    private static final long TICK = 100;
+    private static final int BUCKETS = 8;
+
+    private final TimingWheel wheel = new TimingWheel(BUCKETS, TICK, 0);
+
+    private static TimingWheel.Timer timer(String id) {
+        return new TimingWheel.Timer(new Robot(id, id, "10.0.0.1", "discovered"));
+    }
+
+    private List<TimingWheel.Timer> advance(long now) {
+        return new ArrayList<>(wheel.advance(now));
+    }
+
+    @Test
+    void firesOnTheTickContainingTheDeadline() {
+        TimingWheel.Timer t = timer("r1");
+        wheel.schedule(t, 250);
+        assertTrue(t.isScheduled());
+
+        assertTrue(advance(299).isEmpty());
+        assertEquals(List.of(t), advance(300));
+        assertFalse(t.isScheduled());
+        assertTrue(advance(1000).isEmpty());
+    }
+
+    @Test
+    void deadlineInThePastFiresOnTheNextTick() {
+        wheel.advance(500);
+        TimingWheel.Timer t = timer("r1");
+        wheel.schedule(t, 0);
+
+        assertTrue(advance(599).isEmpty());
+        assertEquals(List.of(t), advance(600));
+    }
+
+    @Test
+    void cancelledTimerNeverFires() {
+        TimingWheel.Timer t = timer("r1");
+        wheel.schedule(t, 300);
+        wheel.cancel(t);
+
+        assertFalse(t.isScheduled());
+        assertTrue(advance(5000).isEmpty());
+        wheel.cancel(t); // Cancelling an idle timer is a no-op
+    }
+
+    @Test
+    void rescheduleMovesTheTimer() {
+        TimingWheel.Timer t = timer("r1");
+        wheel.schedule(t, 300);
+        wheel.schedule(t, 500);
+
+        assertTrue(advance(400).isEmpty());
+        assertEquals(List.of(t), advance(500));
+        assertTrue(advance(5000).isEmpty());
+    }
+
+    @Test
+    void deadlineBeyondOneRevolutionWaitsForItsTurn() {
+        TimingWheel.Timer t = timer("r1");
+        // Tick 11 shares bucket 3 with tick 3
+        wheel.schedule(t, (BUCKETS + 3) * TICK);
+
+        assertTrue(advance(3 * TICK).isEmpty());
+        assertTrue(t.isScheduled());
+        assertTrue(advance(10 * TICK).isEmpty());
+        assertEquals(List.of(t), advance(11 * TICK));
+    }
+
+    @Test
+    void rescheduleAcrossRevolutionsFiresOnlyAtTheLastDeadline() {
+        TimingWheel.Timer t = timer("r1");
+        wheel.schedule(t, 2 * TICK);
+        wheel.advance(TICK);
+        wheel.schedule(t, (3 * BUCKETS + 2) * TICK);
+
+        for (long now = 2 * TICK; now < (3 * BUCKETS + 2) * TICK; now += TICK) {
+            assertTrue(advance(now).isEmpty(), "fired early at " + now);
+        }
+        assertEquals(List.of(t), advance((3 * BUCKETS + 2) * TICK));
+    }
+
+    @Test
+    void sharedBucketKeepsTheOthersWhenOneIsCancelled() {
+        TimingWheel.Timer a = timer("a");
+        TimingWheel.Timer b = timer("b");
+        TimingWheel.Timer c = timer("c");
+        TimingWheel.Timer later = timer("later");
+        wheel.schedule(a, 300);
+        wheel.schedule(b, 300);
+        wheel.schedule(c, 300);
+        wheel.schedule(later, (BUCKETS + 3) * TICK);
+        wheel.cancel(b);
+
+        List<TimingWheel.Timer> fired = advance(300);
+        assertEquals(2, fired.size());
+        assertTrue(fired.containsAll(List.of(a, c)));
+        assertTrue(later.isScheduled());
+        assertEquals(List.of(later), advance((BUCKETS + 3) * TICK));
+    }
+
+    @Test
+    void rejectsBucketCountThatIsNotAPowerOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(500, TICK, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TimingWheel(0, TICK, 0));
+    }
+}